@@ -0,0 +1,32 @@
+// Fragment shader for the floor. Samples the floor tile texture by world coordinate.
+// If there is more than one variant, the variant of a tile is read from the index texture.
+#ifdef GL_ES
+precision highp float;
+#endif
+
+#define MAX_VARIANTS 8
+
+varying vec2 v_tile;
+
+uniform sampler2D u_texture;
+uniform sampler2D u_index;
+uniform vec2 u_mapSize;
+// Texture regions of the variants as (u, v, u2 - u, v2 - v)
+uniform vec4 u_regions[MAX_VARIANTS];
+uniform int u_variantCount;
+
+void main() {
+    vec4 region = u_regions[0];
+    if (u_variantCount > 1) {
+        float variant = floor(texture2D(u_index, (floor(v_tile) + 0.5) / u_mapSize).a * 255.0 + 0.5);
+        // Uniform arrays can only be indexed with constants in GLSL ES 1.0
+        for (int i = 1; i < MAX_VARIANTS; i++) {
+            if (float(i) == variant) {
+                region = u_regions[i];
+            }
+        }
+    }
+    vec2 local = fract(v_tile);
+    // Texture coordinates start at the top of the region, world coordinates at the bottom
+    gl_FragColor = texture2D(u_texture, region.xy + vec2(local.x, 1.0 - local.y) * region.zw);
+}
@@ -0,0 +1,13 @@
+// Vertex shader for the floor. The whole map is a single quad,
+// the tile coordinate is derived from the world position.
+attribute vec4 a_position;
+
+uniform mat4 u_projTrans;
+uniform float u_tileSize;
+
+varying vec2 v_tile;
+
+void main() {
+    v_tile = a_position.xy / u_tileSize;
+    gl_Position = u_projTrans * a_position;
+}
@@ -0,0 +1,38 @@
+package de.tum.cit.ase.bomberquest.audio;
+
+import com.badlogic.gdx.Gdx;
+
+/**
+ * Keeps all audio calls on the render thread. libGDX audio is not thread-safe,
+ * so calls from the simulation thread are passed on to it.
+ */
+final class AudioThread {
+
+    /** The thread that loads the music tracks and sound effects, which is the render thread. */
+    private static final Thread THREAD = Thread.currentThread();
+
+    private AudioThread() {
+    }
+
+    /**
+     * Makes sure audio is loaded on the audio thread. This is called when a track or an effect is loaded.
+     */
+    static void checkLoading() {
+        if (Thread.currentThread() != THREAD) {
+            throw new IllegalStateException("Audio must be loaded on the render thread, not on " + Thread.currentThread().getName());
+        }
+    }
+
+    /**
+     * Runs an audio call right away on the audio thread, or passes it on to the audio thread from any other thread.
+     *
+     * @param action The audio call.
+     */
+    static void run(Runnable action) {
+        if (Thread.currentThread() == THREAD) {
+            action.run();
+        } else {
+            Gdx.app.postRunnable(action);
+        }
+    }
+}
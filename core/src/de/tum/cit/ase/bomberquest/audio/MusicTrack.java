@@ -1,11 +1,12 @@
 package de.tum.cit.ase.bomberquest.audio;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.audio.Music;
+import de.tum.cit.ase.bomberquest.gamemechanism.Assets;
 
 /**
  * This enum is used to manage the music tracks in the game.
- * Currently, only one track is used, but this could be extended to include multiple tracks.
+ * Tracks are streamed while they play, so this is meant for the long tracks and loops.
+ * Short effects that may play often, or several at once, are {@link SoundEffect}s instead.
  * Using an enum for this purpose is a good practice, as it allows for easy management of the music tracks
  * and prevents the same track from being loaded into memory multiple times.
  * See the assets/audio folder for the actual music files.
@@ -13,37 +14,55 @@
  */
 public enum MusicTrack {
 
-    /** Enum constants for different music and sound effects in the game. Each constant maps to a specific file. */
+    /** Enum constants for different music tracks in the game. Each constant maps to a specific file. */
     BACKGROUND("background.mp3", 0.08f, true),
-    BOMBEXPLODE("bombexplode.mp3", 0.2f, false),
-    ENEMYDIE("enemydie.mp3", 0.1f, false),
-    BUTTONSOUND("menubuttonsound.mp3", 0.2f, false),
-    POWERUPSOUND("electronicpowerup.mp3", 0.1f, false),
     GAMEOVERSOUND("gameoversound.mp3", 0.07f, false),
     MENUMUSIC("menumusic.mp3", 0.3f, true),
     WINSOUND("winsound.mp3", 0.8f, false),
-    PLAYERDIE("playerdie.mp3", 0.1f, false),
     PAUSEMUSIC("intro.mp3", 0.3f, true),
-    BOMBPLACE("bombdropsound.mp3", 0.06f, false),
-    EXITREVEAL("exitreveal.mp3", 0.4f, false),
     WALKING("walking.mp3", 0.1f, true);
 
+    private final String fileName;
+    private final float volume;
+    private final boolean isLooping;
     /**
-     * The `Music` object associated with the track.
+     * The `Music` object associated with the track, taken from {@link Assets} when the track is played first.
      * This field holds the loaded music file and its properties (looping, volume).
      */
-    private final Music music;
+    private Music music;
 
     /**
-     * Constructor for the enum constants. It initializes the `Music` object for each track.
+     * Constructor for the enum constants. The music file itself is loaded by {@link Assets}.
      * @param fileName The name of the music file in the "audio" folder.
      * @param volume The volume level of the music (0.0f to 1.0f).
      * @param isLooping Whether the music should loop continuously.
      */
     MusicTrack(String fileName, float volume, boolean isLooping) {
-        this.music = Gdx.audio.newMusic(Gdx.files.internal("audio/" + fileName)); // Load the music file.
-        this.music.setLooping(isLooping); // Set whether the music should loop.
-        this.music.setVolume(volume); // Set the initial volume for the track.
+        this.fileName = "audio/" + fileName;
+        this.volume = volume;
+        this.isLooping = isLooping;
+    }
+
+    /**
+     * Returns the music file, relative to the assets folder.
+     *
+     * @return the file name
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Returns the `Music` object, which is set up the first time. Only called on the audio thread.
+     */
+    private Music music() {
+        if (music == null) {
+            AudioThread.checkLoading();
+            music = Assets.acquire(fileName, Music.class); // Kept until the game is closed
+            music.setLooping(isLooping); // Set whether the music should loop.
+            music.setVolume(volume); // Set the initial volume for the track.
+        }
+        return music;
     }
 
     /**
@@ -52,15 +71,15 @@ public enum MusicTrack {
      * be playing in the game. Managing simultaneous playback of multiple tracks is the caller's responsibility.
      */
     public void play() {
-        this.music.play();
+        AudioThread.run(() -> music().play());
     }
 
     /**
-     * Dispose of the `Music` object when it is no longer needed.
-     * This method releases the resources associated with the music track to prevent memory leaks.
+     * Stop the music track and go back to its beginning.
+     * The next `play()` starts the track from the beginning instead of resuming it.
      */
-    public void dispose() {
-        this.music.dispose();
+    public void rewind() {
+        AudioThread.run(() -> music().stop());
     }
 
     /**
@@ -68,6 +87,6 @@ public void dispose() {
      * This method halts playback of the current track. Playback can be resumed later with the `play()` method.
      */
     public void stop() {
-        this.music.pause();
+        AudioThread.run(() -> music().pause());
     }
 }
\ No newline at end of file
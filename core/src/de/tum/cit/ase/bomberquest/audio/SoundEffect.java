@@ -0,0 +1,109 @@
+package de.tum.cit.ase.bomberquest.audio;
+
+import com.badlogic.gdx.audio.Sound;
+import de.tum.cit.ase.bomberquest.gamemechanism.Assets;
+
+/**
+ * The short sound effects of the game.
+ * Unlike a {@link MusicTrack}, which streams its file while it plays, an effect is decoded into memory once while the
+ * game starts, see {@link Assets}, so playing it starts right away and does not open the file again.
+ * Effects share a small number of voices, see {@link VoicePool}: every effect may only play a limited number of times
+ * at once, and when all voices are busy, a more important effect takes over the voice of a less important one.
+ */
+public enum SoundEffect {
+
+    /**
+     * Enum constants for the sound effects. Each constant maps to a specific file and states how long it plays,
+     * how many of it may play at once, and how important it is compared to the other effects.
+     */
+    BOMBEXPLODE("bombexplode.mp3", 0.2f, 0.65f, 4, 3),
+    BOMBPLACE("bombdropsound.mp3", 0.06f, 0.36f, 2, 1),
+    ENEMYDIE("enemydie.mp3", 0.1f, 1.58f, 3, 2),
+    POWERUPSOUND("electronicpowerup.mp3", 0.1f, 0.68f, 2, 2),
+    PLAYERDIE("playerdie.mp3", 0.1f, 1.18f, 1, 4),
+    EXITREVEAL("exitreveal.mp3", 0.4f, 3.29f, 1, 4),
+    BUTTONSOUND("menubuttonsound.mp3", 0.2f, 0.17f, 2, 4);
+
+    /** The voices all effects play on. */
+    private static final VoicePool VOICES = new VoicePool();
+
+    private final String fileName;
+    /** The decoded effect, taken from {@link Assets} when the effect is played first. */
+    private Sound sound;
+    private final float volume;
+    /** How long the effect plays, in nanoseconds. A voice is busy for this long. */
+    private final long durationNanos;
+    /** How many voices the effect may use at once. */
+    private final int maxVoices;
+    /** Effects with a higher priority take over the voices of effects with a lower one. */
+    private final int priority;
+
+    /**
+     * Constructor for the enum constants. The sound file itself is decoded by {@link Assets}.
+     *
+     * @param fileName The name of the sound file in the "audio" folder.
+     * @param volume The volume level of the effect (0.0f to 1.0f).
+     * @param duration How long the file plays, in seconds.
+     * @param maxVoices How many times the effect may play at once.
+     * @param priority How important the effect is, higher values are more important.
+     */
+    SoundEffect(String fileName, float volume, float duration, int maxVoices, int priority) {
+        this.fileName = "audio/" + fileName;
+        this.volume = volume;
+        this.durationNanos = (long) (duration * 1e9);
+        this.maxVoices = maxVoices;
+        this.priority = priority;
+    }
+
+    /**
+     * Plays this effect once. Any thread may call this, the effect is started on the render thread.
+     * The effect is skipped if it is already playing as often as it may, or if all voices are busy
+     * with more important effects.
+     */
+    public void play() {
+        AudioThread.run(() -> VOICES.play(this, System.nanoTime()));
+    }
+
+    /**
+     * Stops all effects, e.g. when the game ends.
+     */
+    public static void stopAll() {
+        AudioThread.run(VOICES::stopAll);
+    }
+
+    /**
+     * Returns the sound file, relative to the assets folder.
+     *
+     * @return the file name
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Returns the decoded effect. Only called on the audio thread.
+     */
+    Sound getSound() {
+        if (sound == null) {
+            AudioThread.checkLoading();
+            sound = Assets.acquire(fileName, Sound.class); // Kept until the game is closed
+        }
+        return sound;
+    }
+
+    float getVolume() {
+        return volume;
+    }
+
+    long getDurationNanos() {
+        return durationNanos;
+    }
+
+    int getMaxVoices() {
+        return maxVoices;
+    }
+
+    int getPriority() {
+        return priority;
+    }
+}
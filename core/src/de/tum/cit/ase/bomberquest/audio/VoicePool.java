@@ -0,0 +1,110 @@
+package de.tum.cit.ase.bomberquest.audio;
+
+/**
+ * A fixed number of voices the sound effects play on.
+ * <p>
+ * OpenAL only has a few sources, which the streamed music needs as well, so effects never use more than
+ * {@value #MAX_VOICES} of them. A voice is busy until its effect has played to the end. When a new effect cannot get
+ * a voice, it takes over one: the oldest voice of the same effect if the effect already plays as often as it may,
+ * otherwise the oldest voice of the least important effect, as long as that is not more important than the new one.
+ * This keeps long chains of explosions from drowning out or cutting off everything else.
+ * <p>
+ * The pool is only used on the render thread, see {@link AudioThread}.
+ */
+class VoicePool {
+
+    /** The number of voices. OpenAL has 16 sources by default, the rest is left for the music. */
+    static final int MAX_VOICES = 12;
+    /** An effect that was started less than this long ago is not started again, since it would only sound louder. */
+    private static final long MIN_RESTART_NANOS = 30_000_000L;
+
+    // The voices, a voice is free if its effect is null
+    private final SoundEffect[] effects = new SoundEffect[MAX_VOICES];
+    private final long[] soundIds = new long[MAX_VOICES];
+    private final long[] startNanos = new long[MAX_VOICES];
+    private final long[] endNanos = new long[MAX_VOICES];
+
+    /**
+     * Plays an effect on a free voice or on a voice taken over from another effect.
+     *
+     * @param effect The effect.
+     * @param now The current {@link System#nanoTime()}.
+     */
+    void play(SoundEffect effect, long now) {
+        int sameEffect = 0;
+        int oldestOfEffect = -1;
+        int free = -1;
+        for (int voice = 0; voice < MAX_VOICES; voice++) {
+            if (effects[voice] != null && endNanos[voice] - now <= 0) {
+                effects[voice] = null; // The effect has played to the end
+            }
+            if (effects[voice] == null) {
+                free = voice;
+            } else if (effects[voice] == effect) {
+                if (now - startNanos[voice] < MIN_RESTART_NANOS) {
+                    return;
+                }
+                sameEffect++;
+                if (oldestOfEffect < 0 || startNanos[voice] < startNanos[oldestOfEffect]) {
+                    oldestOfEffect = voice;
+                }
+            }
+        }
+
+        int voice;
+        if (sameEffect >= effect.getMaxVoices()) {
+            voice = oldestOfEffect;
+        } else if (free >= 0) {
+            voice = free;
+        } else {
+            voice = findVoiceToSteal(effect.getPriority());
+            if (voice < 0) {
+                return; // All voices play more important effects
+            }
+        }
+        stop(voice);
+
+        long soundId = effect.getSound().play(effect.getVolume());
+        if (soundId == -1) {
+            return; // OpenAL has no source left
+        }
+        effects[voice] = effect;
+        soundIds[voice] = soundId;
+        startNanos[voice] = now;
+        endNanos[voice] = now + effect.getDurationNanos();
+    }
+
+    /**
+     * Returns the oldest voice of the least important effect, if it is not more important than the given priority.
+     */
+    private int findVoiceToSteal(int priority) {
+        int victim = -1;
+        for (int voice = 0; voice < MAX_VOICES; voice++) {
+            int voicePriority = effects[voice].getPriority();
+            if (voicePriority > priority) {
+                continue;
+            }
+            if (victim < 0 || voicePriority < effects[victim].getPriority()
+                    || (voicePriority == effects[victim].getPriority() && startNanos[voice] < startNanos[victim])) {
+                victim = voice;
+            }
+        }
+        return victim;
+    }
+
+    private void stop(int voice) {
+        if (effects[voice] != null) {
+            effects[voice].getSound().stop(soundIds[voice]);
+            effects[voice] = null;
+        }
+    }
+
+    /**
+     * Stops all voices.
+     */
+    void stopAll() {
+        for (int voice = 0; voice < MAX_VOICES; voice++) {
+            stop(voice);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package de.tum.cit.ase.bomberquest.gamemechanism;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import de.tum.cit.ase.bomberquest.audio.MusicTrack;
+import de.tum.cit.ase.bomberquest.audio.SoundEffect;
+import de.tum.cit.ase.bomberquest.texture.SpriteSheet;
+
+/**
+ * Loads all textures, sounds, music and the UI skin of the game through one {@link AssetManager}.
+ * <p>
+ * The assets the game needs right away are queued by {@link #queueStartupAssets()} and loaded in the background while
+ * the {@link de.tum.cit.ase.bomberquest.screens.SplashScreen} is shown: files are decoded on a loader thread, and only
+ * the upload to the graphics card happens on the render thread, a few milliseconds per frame.
+ * Afterwards, {@link #acquire(String, Class)} returns them without touching the disk.
+ * Assets are reference counted: every {@link #acquire(String, Class)} is matched by a {@link #release(String)},
+ * and an asset is disposed once nobody uses it anymore. Assets that are not queued, e.g. unused sprite sheets,
+ * are only loaded if something actually uses them.
+ */
+public final class Assets {
+
+    /** The UI skin of the menus. */
+    public static final String SKIN = "skin/craftacular/craftacular-ui.json";
+    /** The background of the start screen. */
+    public static final String START_BACKGROUND = "texture/bomberman2.jpg";
+
+    private static AssetManager manager;
+    /** Whether the start screen background is still held by the startup queue, see {@link #releaseMenuAssets()}. */
+    private static boolean menuAssetsQueued = false;
+
+    private Assets() {
+    }
+
+    /**
+     * Returns the asset manager, which is created on first use.
+     *
+     * @return the asset manager
+     */
+    public static AssetManager getManager() {
+        if (manager == null) {
+            manager = new AssetManager(new InternalFileHandleResolver());
+        }
+        return manager;
+    }
+
+    /**
+     * Queues the assets the menus and the game need, so {@link #update(int)} loads them in the background.
+     * The queue holds a reference to each of them.
+     */
+    public static void queueStartupAssets() {
+        AssetManager assets = getManager();
+        assets.load(SKIN, Skin.class);
+        assets.load(START_BACKGROUND, Texture.class);
+        menuAssetsQueued = true;
+        for (SpriteSheet sheet : SpriteSheet.values()) {
+            if (sheet.isPreloaded()) {
+                assets.load(sheet.getFileName(), Texture.class);
+            }
+        }
+        for (MusicTrack track : MusicTrack.values()) {
+            assets.load(track.getFileName(), Music.class);
+        }
+        for (SoundEffect effect : SoundEffect.values()) {
+            assets.load(effect.getFileName(), Sound.class);
+        }
+    }
+
+    /**
+     * Continues loading the queued assets for at most the given time.
+     *
+     * @param budgetMillis The time to spend in this frame.
+     * @return true if all queued assets are loaded
+     */
+    public static boolean update(int budgetMillis) {
+        return getManager().update(budgetMillis);
+    }
+
+    /**
+     * Returns the share of the queued assets that are loaded.
+     *
+     * @return the progress from 0 to 1
+     */
+    public static float getProgress() {
+        return getManager().getProgress();
+    }
+
+    /**
+     * Returns an asset and counts a reference to it. If the asset is not loaded yet, it is loaded right away,
+     * which stalls the render thread, so assets should be queued at startup whenever possible.
+     *
+     * @param fileName The file of the asset, relative to the assets folder.
+     * @param type The type of the asset, e.g. {@link Texture} or {@link Sound}.
+     * @param <T> The type of the asset.
+     * @return the asset
+     */
+    public static <T> T acquire(String fileName, Class<T> type) {
+        AssetManager assets = getManager();
+        if (assets.isLoaded(fileName, type)) {
+            // Loading it again would only count the reference once the queue is updated the next time
+            assets.setReferenceCount(fileName, assets.getReferenceCount(fileName) + 1);
+        } else {
+            assets.load(fileName, type);
+            assets.finishLoadingAsset(fileName);
+        }
+        return assets.get(fileName, type);
+    }
+
+    /**
+     * Gives up a reference from {@link #acquire(String, Class)}. The asset is disposed when no references are left.
+     *
+     * @param fileName The file of the asset.
+     */
+    public static void release(String fileName) {
+        AssetManager assets = getManager();
+        if (assets.isLoaded(fileName)) {
+            assets.unload(fileName);
+        }
+    }
+
+    /**
+     * Gives up the references of the startup queue to the assets that only the start screen uses.
+     * This is called when a game starts, so the assets are disposed once the start screen is hidden and has given up
+     * its own references, and loaded again when it is shown the next time.
+     */
+    public static void releaseMenuAssets() {
+        if (menuAssetsQueued) {
+            menuAssetsQueued = false;
+            release(START_BACKGROUND);
+        }
+    }
+
+    /**
+     * Disposes all assets. This is called when the game is closed.
+     */
+    public static void dispose() {
+        if (manager != null) {
+            manager.dispose();
+            manager = null;
+        }
+    }
+}
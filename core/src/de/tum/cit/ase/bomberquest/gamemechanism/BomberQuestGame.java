@@ -8,6 +8,7 @@
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import de.tum.cit.ase.bomberquest.audio.MusicTrack;
 import de.tum.cit.ase.bomberquest.map.GameMap;
+import de.tum.cit.ase.bomberquest.map.GameSnapshot;
 import de.tum.cit.ase.bomberquest.screens.*;
 import games.spooky.gdx.nativefilechooser.NativeFileChooser;
 import games.spooky.gdx.nativefilechooser.NativeFileChooserCallback;
@@ -15,6 +16,9 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 /**
  * The BomberQuestGame class represents the core of the Bomber Quest game.
@@ -28,6 +32,9 @@ public class BomberQuestGame extends Game {
      */
     private SpriteBatch spriteBatch;
 
+    /** The screens that are kept alive between transitions, see {@link ScreenRegistry}. */
+    private final ScreenRegistry screens = new ScreenRegistry();
+
     /** The game's UI skin. This is used to style the game's UI elements. */
     private Skin skin;
     
@@ -44,7 +51,28 @@ public class BomberQuestGame extends Game {
      * because the map should not be destroyed if we temporarily switch to another screen.
      */
     private GameMap map;
-    private GameTimer gameTimer;  // Declare GameTimer here
+
+    /** Whether the map is rendered at native resolution and scaled up, see {@link de.tum.cit.ase.bomberquest.render.PixelPerfectBuffer}. */
+    private boolean pixelPerfect = false;
+
+    /** The number of simulation ticks per second of every loaded map. */
+    private int simulationRate = GameMap.DEFAULT_SIMULATION_RATE;
+
+    /** Whether the map is simulated on its own thread instead of in the render loop, see {@link SimulationThread}. */
+    private boolean threadedSimulation = false;
+
+    /** Whether a cancelled map load goes back to the paused game instead of the start screen. */
+    private boolean returnToPauseOnCancel = false;
+
+    /** The quicksave slot, written with F5 and loaded with F9 during the game. */
+    private final QuickSave quickSave = QuickSave.getDefault();
+
+    /** The player's commands from the keyboard, see {@link #getKeyboardCommands()}. */
+    private final KeyboardCommands keyboardCommands = new KeyboardCommands(KeyBindings.load(KeyBindings.getDefaultFile()));
+    /** Records the commands of the current game, or null if the game is not recorded. */
+    private InputRecorder recorder;
+    /** A recording to replay instead of playing, see {@link #setReplay(InputRecording)}. */
+    private InputRecording replay;
 
 
     /**
@@ -66,33 +94,58 @@ public BomberQuestGame(NativeFileChooser fileChooser) {
     @Override
     public void create() {
         this.spriteBatch = new SpriteBatch(); // Create SpriteBatch for rendering
-        this.skin = new Skin(Gdx.files.internal("skin/craftacular/craftacular-ui.json")); // Load UI skin
+        Assets.queueStartupAssets(); // Load the textures, sounds and the skin in the background
+        setScreen(new SplashScreen(this));
+    }
+
+    /**
+     * Continues starting the game once all assets are loaded. This is called by the {@link SplashScreen}.
+     */
+    public void finishStartup() {
+        this.skin = Assets.acquire(Assets.SKIN, Skin.class); // The UI skin
         this.map = new GameMap(this); // Create a new game map (you should change this to load the map from a file instead)
-        this.gameTimer=new GameTimer(this);
+        // The menus are built once here and reused every time they are shown
+        screens.register(new StartScreen(this));
+        screens.register(new PauseScreen(this));
+        screens.register(new WinScreen(this));
+        screens.register(new YouLoseScreen(this));
         MusicTrack.MENUMUSIC.play(); // Play some background music
         goToStart();
+        if (replay != null) {
+            returnToPauseOnCancel = false;
+            setScreen(new LoadingScreen(this, replay.getMapPath(), replay.getSeed()));
+        }
     }
 
     /**
      * Switches to the start screen.
      */
     public void goToStart() {
-        this.setScreen(new StartScreen(this)); // Set the current screen to MenuScreen
+        this.setScreen(screens.get(StartScreen.class)); // Set the current screen to MenuScreen
     }
     /**
      * Switches to the menu screen.
      */
     public void goToPause() {
-        gameTimer.pause();
-        this.setScreen(new PauseScreen(this)); // Set the current screen to PauseScreen
+        this.setScreen(screens.get(PauseScreen.class)); // Set the current screen to PauseScreen
     }
 
     /**
-     * Switches to the game screen.
+     * Switches to the game screen. The game screen of the current map is reused, e.g. when the game is resumed
+     * or restarted, and only built again when the map has been replaced.
      */
     public void goToGame() {
-        gameTimer.resume();
-        this.setScreen(new GameScreen(this,gameTimer)); // Set the current screen to GameScreen
+        Assets.releaseMenuAssets(); // The start screen background is not needed while playing
+        GameScreen gameScreen = screens.get(GameScreen.class);
+        if (gameScreen == null || gameScreen.getMap() != map) {
+            // The game screen of a replaced map is normally disposed together with the map, see disposeGameScreen()
+            gameScreen = new GameScreen(this);
+            Screen replaced = screens.register(gameScreen);
+            if (replaced != null && replaced != getScreen()) {
+                replaced.dispose();
+            }
+        }
+        this.setScreen(gameScreen); // Set the current screen to GameScreen
     }
 
     /** Returns the skin for UI elements. */
@@ -105,47 +158,78 @@ public SpriteBatch getSpriteBatch() {
         return spriteBatch;
     }
     
+    /** Returns whether the pixel-perfect rendering mode is enabled. */
+    public boolean isPixelPerfect() {
+        return pixelPerfect;
+    }
+
+    /** Enables or disables the pixel-perfect rendering mode. */
+    public void setPixelPerfect(boolean pixelPerfect) {
+        this.pixelPerfect = pixelPerfect;
+    }
+
+    /** Returns whether the map is simulated on its own thread. */
+    public boolean isThreadedSimulation() {
+        return threadedSimulation;
+    }
+
+    /**
+     * Enables or disables simulating the map on its own thread. This takes effect when the game screen is shown next.
+     */
+    public void setThreadedSimulation(boolean threadedSimulation) {
+        this.threadedSimulation = threadedSimulation;
+    }
+
+    /**
+     * Sets the number of simulation ticks per second, e.g. 30 on slow machines.
+     * Rendering is not affected, it interpolates between the simulated states.
+     */
+    public void setSimulationRate(int simulationRate) {
+        this.simulationRate = simulationRate;
+    }
+
     /** Returns the current map, if there is one. */
     public GameMap getMap() {
         return map;
     }
     
     /**
-     * Switches to the given screen and disposes of the previous screen.
+     * Switches to the given screen and disposes of the previous screen, unless it is kept by the {@link ScreenRegistry}.
      * @param screen the new screen
      */
     @Override
     public void setScreen(Screen screen) {
         Screen previousScreen = super.screen;
         super.setScreen(screen);
-        if (previousScreen != null) {
+        if (previousScreen != null && previousScreen != screen && !screens.contains(previousScreen)) {
             previousScreen.dispose();
         }
         if(screen instanceof GameScreen){
-            MusicTrack.WALKING.dispose();
+            MusicTrack.WALKING.rewind();
             MusicTrack.MENUMUSIC.stop();
             MusicTrack.BACKGROUND.play();
         }
         if(screen instanceof StartScreen){
-            MusicTrack.WALKING.dispose();
+            MusicTrack.WALKING.rewind();
             MusicTrack.BACKGROUND.stop();
-            MusicTrack.MENUMUSIC.dispose();
+            MusicTrack.MENUMUSIC.rewind();
             MusicTrack.MENUMUSIC.play();
         }
         if (screen instanceof WinScreen){
-            MusicTrack.WALKING.dispose();
+            MusicTrack.WALKING.rewind();
             MusicTrack.BACKGROUND.stop();
             MusicTrack.WINSOUND.play();
         }
         if (screen instanceof PauseScreen){
-            MusicTrack.WALKING.dispose();
+            MusicTrack.WALKING.rewind();
             MusicTrack.BACKGROUND.stop();
             MusicTrack.MENUMUSIC.play();
         }
         if (screen instanceof YouLoseScreen){
-            MusicTrack.WALKING.dispose();
+            MusicTrack.WALKING.rewind();
+            MusicTrack.MENUMUSIC.stop();
             MusicTrack.BACKGROUND.stop();
-
+            MusicTrack.GAMEOVERSOUND.play();
         }
     }
 
@@ -160,18 +244,9 @@ public void loadNewGame() throws IOException {
                 @Override
                 public void onFileChosen(FileHandle file) {
                     if (file != null) {
-                        String filePath = file.path();  // Get the path of the selected file
-
-                        // Create a new GameMap instance and load the map data
-                        GameMap map = new GameMap(BomberQuestGame.this);
-                        map.loadTheMap(filePath);  // Load the map from the file
-
-                        // Set the loaded map to the current game map
-                        BomberQuestGame.this.map = map;
-                        gameTimer.reset();
-                        MusicTrack.BACKGROUND.dispose();
-                        MusicTrack.BACKGROUND.play();
-                        goToGame();
+                        // Parse the map in the background and build it while showing the progress
+                        returnToPauseOnCancel = getScreen() instanceof PauseScreen;
+                        setScreen(new LoadingScreen(BomberQuestGame.this, file.path(), System.nanoTime()));
                     }
 
                 }
@@ -193,12 +268,192 @@ public void onError(Exception exception) {
     }
 
 
+    /**
+     * Makes a completely loaded map the current map and starts the game.
+     * This is called by the {@link LoadingScreen}.
+     *
+     * @param map The loaded map.
+     */
+    public void finishLoading(GameMap map) {
+        saveRecording(); // Before the previous map is disposed, since the recording ends with its checksum
+        if (this.map != null) {
+            disposeGameScreen(); // Its renderers are listeners of the previous map
+            this.map.dispose();
+        }
+        map.setSimulationRate(simulationRate);
+        this.map = map;
+        if (replay != null) {
+            if (!replay.getMapHash().equals(map.getMapHash())) {
+                System.err.println("The map file has changed since the game was recorded, the replay will differ.");
+            }
+            map.setCommandSource(new InputReplay(replay));
+            replay = null;
+        } else {
+            startRecording();
+        }
+        MusicTrack.BACKGROUND.rewind();
+        MusicTrack.BACKGROUND.play();
+        goToGame();
+    }
+
+    /**
+     * Restarts the current map from the beginning. The map is reset in place, see {@link GameMap#restart()},
+     * so this neither reads the map file again nor creates a new Box2D world.
+     */
+    public void restartGame() {
+        saveRecording();
+        map.restart();
+        startRecording();
+        MusicTrack.BACKGROUND.rewind();
+        MusicTrack.BACKGROUND.play();
+        goToGame();
+    }
+
+    /**
+     * Shows the result of the current game and saves its recording.
+     *
+     * @param outcome How the game ended. {@link GameMap.Outcome#RUNNING} is treated as a loss, e.g. when the time is up.
+     */
+    public void endGame(GameMap.Outcome outcome) {
+        saveRecording();
+        setScreen(outcome == GameMap.Outcome.WON ? screens.get(WinScreen.class) : screens.get(YouLoseScreen.class));
+    }
+
+    /**
+     * Sets a recording to replay at normal speed instead of letting the player play.
+     * The recorded map is loaded when the game starts, with the recorded seed and simulation rate.
+     *
+     * @param replay The recording, see {@link InputRecording#read(java.nio.file.Path)}.
+     */
+    public void setReplay(InputRecording replay) {
+        this.replay = replay;
+        this.simulationRate = replay.getSimulationRate();
+    }
+
+    /** Returns the player's commands from the keyboard. The game screen passes key presses on to it. */
+    public KeyboardCommands getKeyboardCommands() {
+        return keyboardCommands;
+    }
+
+    /**
+     * Ends the input recording before the game is rewound. A rewound game no longer follows the recorded commands,
+     * so the recording is saved up to here and the rest of the game is only played with the keyboard.
+     */
+    public void beginRewind() {
+        saveRecording();
+        map.setCommandSource(keyboardCommands);
+    }
+
+    /**
+     * Lets the player control the current map with the keyboard and records the commands,
+     * if the map file is known, so the game can be replayed.
+     */
+    private void startRecording() {
+        if (map.getMapPath() == null) {
+            recorder = null;
+            map.setCommandSource(keyboardCommands);
+            return;
+        }
+        recorder = new InputRecorder(keyboardCommands,
+                new InputRecording(map.getMapPath(), map.getMapHash(), map.getSeed(), simulationRate));
+        map.setCommandSource(recorder);
+    }
+
+    /**
+     * Finishes the recording of the current game and writes it to {@link InputRecording#getDefaultDirectory()}.
+     * Errors are reported, but not thrown, since the recording is not needed to play.
+     */
+    private void saveRecording() {
+        if (recorder == null) {
+            return;
+        }
+        InputRecording recording = recorder.getRecording();
+        recorder = null;
+        if (recording.getTickCount() == 0) {
+            return;
+        }
+        recording.finish(map.getOutcome(), map.getStateChecksum());
+        String name = "replay-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + InputRecording.EXTENSION;
+        Path file = InputRecording.getDefaultDirectory().resolve(name);
+        try {
+            recording.write(file);
+            System.out.println("Saved the recording of the game to " + file);
+        } catch (IOException e) {
+            System.err.println("Could not save the recording of the game to " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Saves the current game to the quicksave slot. The file is written in the background.
+     */
+    public void quickSave() {
+        quickSave.save(map.createSnapshot());
+    }
+
+    /**
+     * Replaces the current game with the one in the quicksave slot and continues playing it.
+     * The saved game contains its own map, so neither the map file nor the {@link MapLoader} is needed.
+     *
+     * @return true if a saved game was loaded, false if there is none
+     */
+    public boolean quickLoad() {
+        GameSnapshot snapshot = quickSave.load();
+        if (snapshot == null) {
+            System.out.println("There is no quicksave to load.");
+            return false;
+        }
+        saveRecording();
+        GameMap loaded = new GameMap(this);
+        loaded.setSimulationRate(simulationRate); // Before restoring, since the timed events are scheduled in ticks
+        loaded.loadTheMap(snapshot.getGrid());
+        loaded.restore(snapshot);
+        if (this.map != null) {
+            disposeGameScreen(); // Its renderers are listeners of the previous map
+            this.map.dispose();
+        }
+        this.map = loaded;
+        startRecording(); // Without the map file, the loaded game can only be played, not recorded
+        goToGame();
+        return true;
+    }
+
+    /**
+     * Disposes the kept game screen before its map is replaced, so nothing of it is left listening to the old map.
+     * If the game screen is shown, it is hidden first, and the next {@link #setScreen(Screen)} does not hide it again.
+     */
+    private void disposeGameScreen() {
+        GameScreen gameScreen = screens.remove(GameScreen.class);
+        if (gameScreen == null) {
+            return;
+        }
+        if (getScreen() == gameScreen) {
+            gameScreen.hide();
+            super.screen = null;
+        }
+        gameScreen.dispose();
+    }
+
+    /**
+     * Leaves the {@link LoadingScreen} without changing the current map.
+     * If loading was started from the pause menu, the paused game is kept, otherwise the start screen is shown.
+     */
+    public void cancelLoading() {
+        if (returnToPauseOnCancel) {
+            goToPause();
+        } else {
+            goToStart();
+        }
+    }
+
     /** Cleans up resources when the game is disposed. */
     @Override
     public void dispose() {
         getScreen().hide(); // Hide the current screen
         getScreen().dispose(); // Dispose the current screen
+        screens.disposeAll(getScreen()); // Dispose the screens that are kept between transitions
         spriteBatch.dispose(); // Dispose the spriteBatch
-        skin.dispose(); // Dispose the skin
+        quickSave.close(); // Finish writing a quicksave that is still in progress
+        saveRecording();
+        Assets.dispose(); // Dispose the skin, textures, sounds and music
     }
 }
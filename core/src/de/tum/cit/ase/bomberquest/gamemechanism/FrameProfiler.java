@@ -0,0 +1,234 @@
+package de.tum.cit.ase.bomberquest.gamemechanism;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Measures how long the parts of the simulation and of the rendering take per frame, for the
+ * {@link de.tum.cit.ase.bomberquest.hud.PerformanceOverlay}.
+ * <p>
+ * A part is measured by taking {@link #begin()} before it and passing the result to {@link #end(Section, long)}
+ * afterwards. While the profiler is disabled, {@link #begin()} returns 0 without reading the clock, and
+ * {@link #end(Section, long)} ignores it, so the measurements cost a single field read when nobody looks at them.
+ * The simulation may run on its own thread, so the times are summed up atomically, and the render thread takes the
+ * sums of all ticks since the previous frame with {@link #endFrame()}.
+ */
+public final class FrameProfiler {
+
+    /**
+     * The measured parts of a frame, in the order they run.
+     */
+    public enum Section {
+        INPUT("Input"),
+        ENEMIES("Enemies"),
+        PLAYER("Player"),
+        SCHEDULER("Bombs, explosions"),
+        STREAMING("Wall bodies, chunks"),
+        PHYSICS("Physics"),
+        REMOVALS("Pending removals"),
+        RENDER_MAP("Render map"),
+        HUD("Render HUD");
+
+        private final String label;
+
+        Section(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * The counts of the latest tick, see {@link #recordCounts(int, int, int, int, int, int)}.
+     */
+    public enum Count {
+        BODIES, CONTACTS, ENEMIES, BOMBS, EXPLOSIONS, POWER_UPS
+    }
+
+    private static final Section[] SECTIONS = Section.values();
+
+    private static volatile boolean enabled = false;
+
+    // The sums since the previous frame, written by the simulation and the render thread
+    private static final AtomicLongArray pendingNanos = new AtomicLongArray(SECTIONS.length);
+    private static final AtomicIntegerArray pendingCounts = new AtomicIntegerArray(Count.values().length);
+    private static final AtomicIntegerArray physicsSteps = new AtomicIntegerArray(1);
+
+    // The previous frame, only used by the render thread
+    private static final long[] frameNanos = new long[SECTIONS.length];
+    private static int framePhysicsSteps = 0;
+    private static long frameAllocatedBytes = 0;
+
+    /** Counts the bytes allocated by the threads of the game, or null if the JVM cannot. */
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+    private static volatile Thread simulationThread;
+    /** The id of the simulation thread whose allocations were counted in the previous frame, -1 for none, -2 for no frame. */
+    private static long countedSimulationId = -2;
+    private static long lastAllocatedBytes = 0;
+
+    private FrameProfiler() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts or stops measuring. The sums are cleared, so the first frame afterwards only counts itself.
+     *
+     * @param enabled true to measure the frames
+     */
+    public static void setEnabled(boolean enabled) {
+        for (int i = 0; i < SECTIONS.length; i++) {
+            pendingNanos.set(i, 0);
+        }
+        physicsSteps.set(0, 0);
+        countedSimulationId = -2; // Nothing to compare the first frame to
+        FrameProfiler.enabled = enabled;
+    }
+
+    /**
+     * Returns the start time of a measured part.
+     *
+     * @return the current {@link System#nanoTime()}, or 0 if the profiler is disabled
+     */
+    public static long begin() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Adds the time since {@link #begin()} to a part of the frame.
+     *
+     * @param section The part that was measured.
+     * @param startNanos The result of {@link #begin()}.
+     */
+    public static void end(Section section, long startNanos) {
+        if (startNanos != 0) {
+            pendingNanos.addAndGet(section.ordinal(), System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Counts a step of the Box2D world.
+     */
+    public static void countPhysicsStep() {
+        if (enabled) {
+            physicsSteps.incrementAndGet(0);
+        }
+    }
+
+    /**
+     * Records the size of the world after a tick. Only the latest tick of a frame is shown.
+     */
+    public static void recordCounts(int bodies, int contacts, int enemies, int bombs, int explosions, int powerUps) {
+        pendingCounts.set(Count.BODIES.ordinal(), bodies);
+        pendingCounts.set(Count.CONTACTS.ordinal(), contacts);
+        pendingCounts.set(Count.ENEMIES.ordinal(), enemies);
+        pendingCounts.set(Count.BOMBS.ordinal(), bombs);
+        pendingCounts.set(Count.EXPLOSIONS.ordinal(), explosions);
+        pendingCounts.set(Count.POWER_UPS.ordinal(), powerUps);
+    }
+
+    /**
+     * Sets the thread that simulates the map, so its allocations are counted as well. Null if the map is simulated
+     * on the render thread.
+     *
+     * @param thread The simulation thread, or null.
+     */
+    public static void setSimulationThread(Thread thread) {
+        simulationThread = thread;
+    }
+
+    /**
+     * Ends a frame: the sums since the previous frame become the values of this frame, see {@link #getNanos(Section)}.
+     * Only called by the render thread, at the end of the frame.
+     */
+    public static void endFrame() {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < SECTIONS.length; i++) {
+            frameNanos[i] = pendingNanos.getAndSet(i, 0);
+        }
+        framePhysicsSteps = physicsSteps.getAndSet(0, 0);
+        countAllocations();
+    }
+
+    /**
+     * Sums up the bytes the render and the simulation thread have allocated since the previous frame.
+     * When the simulation thread changes, there is nothing to compare to, so the previous value is kept for a frame.
+     */
+    private static void countAllocations() {
+        if (THREADS == null) {
+            frameAllocatedBytes = -1;
+            return;
+        }
+        Thread simulation = simulationThread;
+        long simulationId = simulation == null ? -1 : simulation.getId();
+        // The single thread queries do not allocate, unlike the one for several threads
+        long allocated = THREADS.getCurrentThreadAllocatedBytes();
+        if (simulation != null) {
+            allocated += Math.max(0, THREADS.getThreadAllocatedBytes(simulationId)); // -1 if the thread has ended
+        }
+        if (simulationId == countedSimulationId) {
+            frameAllocatedBytes = allocated - lastAllocatedBytes;
+        }
+        countedSimulationId = simulationId;
+        lastAllocatedBytes = allocated;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+            if (counter.isThreadAllocatedMemorySupported()) {
+                counter.setThreadAllocatedMemoryEnabled(true);
+                return counter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns how long a part took in the previous frame, summed over all ticks of the frame.
+     *
+     * @param section The part.
+     * @return the time in nanoseconds
+     */
+    public static long getNanos(Section section) {
+        return frameNanos[section.ordinal()];
+    }
+
+    /**
+     * Returns how many Box2D steps the previous frame simulated. This is 0 or more than 1 whenever the frame rate
+     * differs from the tick rate.
+     *
+     * @return the number of steps
+     */
+    public static int getPhysicsSteps() {
+        return framePhysicsSteps;
+    }
+
+    /**
+     * Returns a count of the latest tick.
+     *
+     * @param count What was counted.
+     * @return the count
+     */
+    public static int getCount(Count count) {
+        return pendingCounts.get(count.ordinal());
+    }
+
+    /**
+     * Returns how many bytes the render and the simulation thread allocated in the previous frame.
+     *
+     * @return the bytes, or -1 if the JVM does not count allocations
+     */
+    public static long getAllocatedBytes() {
+        return frameAllocatedBytes;
+    }
+}
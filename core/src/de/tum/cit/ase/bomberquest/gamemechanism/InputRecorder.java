@@ -0,0 +1,32 @@
+package de.tum.cit.ase.bomberquest.gamemechanism;
+
+import de.tum.cit.ase.bomberquest.map.CommandSource;
+
+/**
+ * Passes on the commands of another source and records them, one entry per simulation tick.
+ */
+public class InputRecorder implements CommandSource {
+
+    private final CommandSource source;
+    private final InputRecording recording;
+
+    /**
+     * @param source The source of the commands, usually the keyboard.
+     * @param recording The recording to append the commands to.
+     */
+    public InputRecorder(CommandSource source, InputRecording recording) {
+        this.source = source;
+        this.recording = recording;
+    }
+
+    @Override
+    public int nextCommands() {
+        int commands = source.nextCommands();
+        recording.record(commands);
+        return commands;
+    }
+
+    public InputRecording getRecording() {
+        return recording;
+    }
+}
@@ -0,0 +1,246 @@
+package de.tum.cit.ase.bomberquest.gamemechanism;
+
+import com.badlogic.gdx.utils.ByteArray;
+import de.tum.cit.ase.bomberquest.map.GameMap;
+import de.tum.cit.ase.bomberquest.map.PlayerCommands;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The player's commands of every simulation tick of a game, together with everything else needed to simulate the game
+ * again: the map file and its hash, the seed the map was loaded with and the simulation rate.
+ * The simulation only depends on these, so replaying a recording reproduces the game exactly, see {@link InputReplay}.
+ * <p>
+ * The file format ("BQIR") stores the header followed by the commands as runs of (varint run length, command mask),
+ * the same encoding as the tiles of a {@link MapFile}. Players hold the same keys for many ticks,
+ * so a game of several minutes usually takes a few kilobytes.
+ * When a recording is finished, the outcome and the state checksum of the game are stored as well,
+ * so a replay can check whether it went the same way.
+ */
+public class InputRecording {
+
+    /** The first four bytes of every recording: "BQIR". */
+    private static final int MAGIC = 0x42514952;
+
+    /** The version of the recording format. Recordings of other versions cannot be replayed. */
+    private static final int VERSION = 2;
+
+    /** The file extension of recordings. */
+    public static final String EXTENSION = ".bqr";
+
+    private final String mapPath;
+    private final String mapHash;
+    private final long seed;
+    private final int simulationRate;
+    /** The command mask of every tick. All commands fit into a byte. */
+    private final ByteArray commands;
+    private boolean finished = false;
+    private GameMap.Outcome outcome = GameMap.Outcome.RUNNING;
+    private long stateChecksum;
+
+    /**
+     * Creates an empty recording.
+     *
+     * @param mapPath The path to the map file.
+     * @param mapHash The hash of the map file, see {@link MapCache#hash(Path)}.
+     * @param seed The seed the map was loaded with.
+     * @param simulationRate The number of simulation ticks per second.
+     */
+    public InputRecording(String mapPath, String mapHash, long seed, int simulationRate) {
+        this(mapPath, mapHash, seed, simulationRate, new ByteArray());
+    }
+
+    private InputRecording(String mapPath, String mapHash, long seed, int simulationRate, ByteArray commands) {
+        this.mapPath = mapPath;
+        this.mapHash = mapHash;
+        this.seed = seed;
+        this.simulationRate = simulationRate;
+        this.commands = commands;
+    }
+
+    /**
+     * Appends the commands of the next tick.
+     *
+     * @param tickCommands The commands, a combination of the {@link PlayerCommands} bits.
+     */
+    public void record(int tickCommands) {
+        if (finished) {
+            throw new IllegalStateException("The recording is already finished");
+        }
+        commands.add((byte) tickCommands);
+    }
+
+    /**
+     * Ends the recording and stores how the game ended, so a replay can be checked against it.
+     *
+     * @param outcome The outcome of the game.
+     * @param stateChecksum The state at the end of the game, see {@link GameMap#getStateChecksum()}.
+     */
+    public void finish(GameMap.Outcome outcome, long stateChecksum) {
+        this.finished = true;
+        this.outcome = outcome;
+        this.stateChecksum = stateChecksum;
+    }
+
+    /**
+     * Returns the commands of a tick.
+     *
+     * @param tick The tick, starting at 0.
+     * @return the commands, a combination of the {@link PlayerCommands} bits
+     */
+    public int getCommands(int tick) {
+        return commands.get(tick) & 0xff;
+    }
+
+    /**
+     * Returns the number of recorded ticks.
+     *
+     * @return the tick count
+     */
+    public int getTickCount() {
+        return commands.size;
+    }
+
+    public String getMapPath() {
+        return mapPath;
+    }
+
+    public String getMapHash() {
+        return mapHash;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getSimulationRate() {
+        return simulationRate;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public GameMap.Outcome getOutcome() {
+        return outcome;
+    }
+
+    public long getStateChecksum() {
+        return stateChecksum;
+    }
+
+    /**
+     * Writes the recording to a file.
+     *
+     * @param file The file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(Path file) throws IOException {
+        byte[] path = mapPath.getBytes(StandardCharsets.UTF_8);
+        byte[] hash = mapHash.getBytes(StandardCharsets.UTF_8);
+        // Each run takes at most 6 bytes, a varint length and the mask
+        ByteBuffer buffer = ByteBuffer.allocate(4 * 6 + path.length + hash.length + 8 + 1 + 8 + commands.size * 6);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(path.length);
+        buffer.put(path);
+        buffer.putInt(hash.length);
+        buffer.put(hash);
+        buffer.putLong(seed);
+        buffer.putInt(simulationRate);
+        buffer.put((byte) outcome.ordinal());
+        buffer.putLong(stateChecksum);
+        buffer.putInt(commands.size);
+        int i = 0;
+        while (i < commands.size) {
+            byte mask = commands.get(i);
+            int runLength = 1;
+            while (i + runLength < commands.size && commands.get(i + runLength) == mask) {
+                runLength++;
+            }
+            MapFile.writeVarInt(buffer, runLength);
+            buffer.put(mask);
+            i += runLength;
+        }
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (OutputStream output = Files.newOutputStream(file)) {
+            output.write(buffer.array(), 0, buffer.position());
+        }
+    }
+
+    /**
+     * Reads a recording from a file.
+     *
+     * @param file The file to read.
+     * @return the recording
+     * @throws IOException if the file cannot be read or is not a valid recording.
+     */
+    public static InputRecording read(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not an input recording: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported input recording version " + version + ": " + file);
+            }
+            String mapPath = readString(buffer);
+            String mapHash = readString(buffer);
+            long seed = buffer.getLong();
+            int simulationRate = buffer.getInt();
+            GameMap.Outcome outcome = GameMap.Outcome.values()[buffer.get()];
+            long stateChecksum = buffer.getLong();
+            int tickCount = buffer.getInt();
+            if (tickCount < 0) {
+                throw new IOException("Invalid tick count " + tickCount + ": " + file);
+            }
+
+            ByteArray commands = new ByteArray(tickCount);
+            while (commands.size < tickCount) {
+                int runLength = MapFile.readVarInt(buffer);
+                byte mask = buffer.get();
+                if (runLength <= 0 || runLength > tickCount - commands.size) {
+                    throw new IOException("Invalid run of " + runLength + " ticks: " + file);
+                }
+                for (int i = 0; i < runLength; i++) {
+                    commands.add(mask);
+                }
+            }
+            InputRecording recording = new InputRecording(mapPath, mapHash, seed, simulationRate, commands);
+            recording.finish(outcome, stateChecksum);
+            return recording;
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("The input recording is damaged: " + file, e);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the directory recordings are saved to, {@code ~/.bomberquest/replays}.
+     *
+     * @return the directory
+     */
+    public static Path getDefaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".bomberquest", "replays");
+    }
+}
@@ -0,0 +1,42 @@
+package de.tum.cit.ase.bomberquest.gamemechanism;
+
+import de.tum.cit.ase.bomberquest.map.CommandSource;
+import de.tum.cit.ase.bomberquest.map.PlayerCommands;
+
+/**
+ * Plays back the commands of an {@link InputRecording}, one entry per simulation tick.
+ * After the last recorded tick, the player does nothing.
+ */
+public class InputReplay implements CommandSource {
+
+    private final InputRecording recording;
+    private int tick = 0;
+
+    /**
+     * @param recording The recording to play back from the first tick.
+     */
+    public InputReplay(InputRecording recording) {
+        this.recording = recording;
+    }
+
+    @Override
+    public int nextCommands() {
+        if (isFinished()) {
+            return PlayerCommands.NONE;
+        }
+        return recording.getCommands(tick++);
+    }
+
+    /**
+     * Returns whether all recorded ticks have been played back.
+     *
+     * @return true if the replay is over
+     */
+    public boolean isFinished() {
+        return tick >= recording.getTickCount();
+    }
+
+    public InputRecording getRecording() {
+        return recording;
+    }
+}
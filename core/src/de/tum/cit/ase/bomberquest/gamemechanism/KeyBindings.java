@@ -0,0 +1,169 @@
+package de.tum.cit.ase.bomberquest.gamemechanism;
+
+import com.badlogic.gdx.Input;
+import de.tum.cit.ase.bomberquest.map.PlayerCommands;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Which keys trigger which actions during the game. Every action can be bound to several keys,
+ * but a key only triggers one action.
+ * <p>
+ * The bindings can be changed in a properties file, see {@link #getDefaultFile()}, with one line per action and the
+ * libGDX names of the keys, e.g. {@code up=W,Up} or {@code place_bomb=Space}.
+ */
+public class KeyBindings {
+
+    /**
+     * The actions a key can trigger. Most of them are player commands, which are passed to the simulation.
+     */
+    public enum Action {
+        UP(PlayerCommands.UP, Input.Keys.UP),
+        DOWN(PlayerCommands.DOWN, Input.Keys.DOWN),
+        LEFT(PlayerCommands.LEFT, Input.Keys.LEFT),
+        RIGHT(PlayerCommands.RIGHT, Input.Keys.RIGHT),
+        PLACE_BOMB(PlayerCommands.PLACE_BOMB, Input.Keys.SPACE),
+        /** Opens the pause menu. This is handled by the game screen, not by the simulation. */
+        PAUSE(PlayerCommands.NONE, Input.Keys.ESCAPE);
+
+        private final int command;
+        private final int defaultKey;
+
+        Action(int command, int defaultKey) {
+            this.command = command;
+            this.defaultKey = defaultKey;
+        }
+
+        /**
+         * Returns the player command of this action.
+         *
+         * @return one of the {@link PlayerCommands} bits, or {@link PlayerCommands#NONE} if the action is not a command
+         */
+        public int getCommand() {
+            return command;
+        }
+    }
+
+    /** The action of every key code, or null if the key is not bound. */
+    private final Action[] actions = new Action[Input.Keys.MAX_KEYCODE + 1];
+
+    /**
+     * Creates the default bindings: the arrow keys move, space places a bomb and escape pauses the game.
+     */
+    public KeyBindings() {
+        for (Action action : Action.values()) {
+            actions[action.defaultKey] = action;
+        }
+    }
+
+    /**
+     * Binds an action to the given keys instead of its previous ones. Keys that were bound to another action
+     * only trigger this one afterwards.
+     *
+     * @param action The action.
+     * @param keys The key codes, see {@link Input.Keys}.
+     */
+    public void bind(Action action, int... keys) {
+        for (int key : keys) {
+            if (key < 0 || key >= actions.length) {
+                throw new IllegalArgumentException("Unknown key code: " + key);
+            }
+        }
+        for (int key = 0; key < actions.length; key++) {
+            if (actions[key] == action) {
+                actions[key] = null;
+            }
+        }
+        for (int key : keys) {
+            actions[key] = action;
+        }
+    }
+
+    /**
+     * Returns the action a key triggers.
+     *
+     * @param key The key code.
+     * @return the action, or null if the key is not bound
+     */
+    public Action getAction(int key) {
+        return key >= 0 && key < actions.length ? actions[key] : null;
+    }
+
+    /**
+     * Returns the keys an action is bound to.
+     *
+     * @param action The action.
+     * @return the key codes
+     */
+    public int[] getKeys(Action action) {
+        int[] keys = new int[actions.length];
+        int count = 0;
+        for (int key = 0; key < actions.length; key++) {
+            if (actions[key] == action) {
+                keys[count++] = key;
+            }
+        }
+        return Arrays.copyOf(keys, count);
+    }
+
+    /**
+     * Reads the bindings from a properties file. Actions that are not in the file keep their default keys.
+     * Errors are reported, but not thrown, since the game can always be played with the default keys.
+     *
+     * @param file The file, it does not need to exist.
+     * @return the bindings
+     */
+    public static KeyBindings load(Path file) {
+        KeyBindings bindings = new KeyBindings();
+        if (!Files.exists(file)) {
+            return bindings;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            System.err.println("Could not read the key bindings from " + file + ": " + e.getMessage());
+            return bindings;
+        }
+        for (String name : properties.stringPropertyNames()) {
+            Action action;
+            try {
+                action = Action.valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unknown action in the key bindings: " + name);
+                continue;
+            }
+            String[] keyNames = properties.getProperty(name).split(",");
+            int[] keys = new int[keyNames.length];
+            int count = 0;
+            for (String keyName : keyNames) {
+                int key = Input.Keys.valueOf(keyName.trim());
+                if (key < 0) {
+                    System.err.println("Unknown key in the key bindings of " + name + ": " + keyName.trim());
+                    continue;
+                }
+                keys[count++] = key;
+            }
+            if (count > 0) {
+                bindings.bind(action, Arrays.copyOf(keys, count));
+            }
+        }
+        return bindings;
+    }
+
+    /**
+     * Returns the file the key bindings are read from when the game starts.
+     *
+     * @return the file {@code ~/.bomberquest/keys.properties}
+     */
+    public static Path getDefaultFile() {
+        return Paths.get(System.getProperty("user.home"), ".bomberquest", "keys.properties");
+    }
+}
@@ -0,0 +1,195 @@
+package de.tum.cit.ase.bomberquest.gamemechanism;
+
+import com.badlogic.gdx.InputAdapter;
+import de.tum.cit.ase.bomberquest.map.CommandSource;
+import de.tum.cit.ase.bomberquest.map.PlayerCommands;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The player's commands from the keyboard.
+ * <p>
+ * Key events arrive as an {@link com.badlogic.gdx.InputProcessor} on the render thread. They are translated into
+ * player commands by the {@link KeyBindings}, stamped with the time they happened and put into a lock-free queue,
+ * which the simulation drains once per tick, on whichever thread it runs. A movement command lasts while its key is
+ * held, and a key that is pressed and released between two ticks still counts for one tick, so a short tap is never
+ * lost, no matter how many ticks or frames pass in between. A bomb is placed once per key press.
+ */
+public class KeyboardCommands extends InputAdapter implements CommandSource {
+
+    /** The number of key events that can wait for the next tick. Further events are dropped until a tick is simulated. */
+    private static final int QUEUE_CAPACITY = 256;
+    private static final int QUEUE_MASK = QUEUE_CAPACITY - 1;
+    /** The kinds of events, stored in the bits above the commands of an event. */
+    private static final int PRESSED = 1 << 8;
+    private static final int RELEASED = 2 << 8;
+    private static final int DISCARD_PRESSES = 3 << 8;
+    private static final int KIND_MASK = 3 << 8;
+    /** The number of {@link PlayerCommands} bits. */
+    private static final int COMMAND_BITS = 5;
+
+    private final KeyBindings bindings;
+
+    // The queue of key events, written by the render thread and read by the simulation
+    private final long[] eventTimes = new long[QUEUE_CAPACITY];
+    private final int[] events = new int[QUEUE_CAPACITY];
+    /** The number of events that have been read. Only written by the simulation. */
+    private final AtomicLong head = new AtomicLong();
+    /** The number of events that have been written. Only written by the render thread. */
+    private final AtomicLong tail = new AtomicLong();
+    /** The events before this one are dropped, see {@link #reset()}. */
+    private final AtomicLong resetPosition = new AtomicLong();
+    private final AtomicInteger resetCount = new AtomicInteger();
+
+    // The state of the simulation
+    /** How many keys of every command bit are held. */
+    private final int[] heldKeys = new int[COMMAND_BITS];
+    private int seenResetCount = 0;
+    /** The time between the latest key press and the tick it was passed to, see {@link #getInputLatencyNanos()}. */
+    private volatile long inputLatencyNanos = 0;
+
+    /** Set when the pause key was pressed, only used by the render thread. */
+    private boolean pauseRequested = false;
+
+    /**
+     * @param bindings Which keys trigger which commands.
+     */
+    public KeyboardCommands(KeyBindings bindings) {
+        this.bindings = bindings;
+    }
+
+    @Override
+    public boolean keyDown(int keycode) {
+        KeyBindings.Action action = bindings.getAction(keycode);
+        if (action == null) {
+            return false;
+        }
+        if (action == KeyBindings.Action.PAUSE) {
+            pauseRequested = true;
+        } else {
+            enqueue(PRESSED | action.getCommand());
+        }
+        return true;
+    }
+
+    @Override
+    public boolean keyUp(int keycode) {
+        KeyBindings.Action action = bindings.getAction(keycode);
+        if (action == null) {
+            return false;
+        }
+        if (action != KeyBindings.Action.PAUSE) {
+            enqueue(RELEASED | action.getCommand());
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the pause key was pressed since the last call. Only called by the render thread.
+     *
+     * @return true if the game should be paused
+     */
+    public boolean takePauseRequest() {
+        boolean requested = pauseRequested;
+        pauseRequested = false;
+        return requested;
+    }
+
+    /**
+     * Drops the key presses that have not been passed to a tick yet, but keeps the held keys,
+     * e.g. so a bomb key pressed while the game is rewound does not place a bomb afterwards.
+     */
+    public void discardPresses() {
+        enqueue(DISCARD_PRESSES);
+    }
+
+    /**
+     * Forgets all events and held keys, e.g. when the game screen is shown again, since the key releases
+     * on other screens were not received.
+     */
+    public void reset() {
+        pauseRequested = false;
+        resetPosition.set(tail.get());
+        resetCount.incrementAndGet();
+    }
+
+    private void enqueue(int event) {
+        long position = tail.get();
+        if (position - head.get() == QUEUE_CAPACITY) {
+            return; // The simulation is not running, e.g. while replaying a recording
+        }
+        int index = (int) (position & QUEUE_MASK);
+        eventTimes[index] = System.nanoTime();
+        events[index] = event;
+        tail.lazySet(position + 1); // Publishes the event after it has been written
+    }
+
+    @Override
+    public int nextCommands() {
+        long position = head.get();
+        int count = resetCount.get();
+        if (count != seenResetCount) {
+            seenResetCount = count;
+            position = Math.max(position, resetPosition.get());
+            Arrays.fill(heldKeys, 0);
+        }
+
+        int pressed = PlayerCommands.NONE;
+        long end = tail.get();
+        long now = System.nanoTime();
+        for (; position < end; position++) {
+            int index = (int) (position & QUEUE_MASK);
+            int event = events[index];
+            int commands = event & ~KIND_MASK;
+            switch (event & KIND_MASK) {
+                case PRESSED:
+                    pressed |= commands;
+                    changeHeldKeys(commands, 1);
+                    inputLatencyNanos = now - eventTimes[index];
+                    break;
+                case RELEASED:
+                    changeHeldKeys(commands, -1);
+                    break;
+                case DISCARD_PRESSES:
+                    pressed = PlayerCommands.NONE;
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown key event: " + event);
+            }
+        }
+        head.lazySet(position);
+
+        // Held keys move the player, and a key tapped since the last tick moves it for this tick
+        int commands = pressed;
+        for (int bit = 0; bit < COMMAND_BITS; bit++) {
+            int command = 1 << bit;
+            if (heldKeys[bit] > 0 && command != PlayerCommands.PLACE_BOMB) {
+                commands |= command;
+            }
+        }
+        return commands;
+    }
+
+    private void changeHeldKeys(int commands, int change) {
+        for (int bit = 0; bit < COMMAND_BITS; bit++) {
+            if ((commands & (1 << bit)) != 0) {
+                heldKeys[bit] = Math.max(0, heldKeys[bit] + change);
+            }
+        }
+    }
+
+    /**
+     * Returns the time between the latest key press and the start of the tick it was passed to.
+     *
+     * @return the latency in nanoseconds
+     */
+    public long getInputLatencyNanos() {
+        return inputLatencyNanos;
+    }
+
+    public KeyBindings getBindings() {
+        return bindings;
+    }
+}
@@ -0,0 +1,238 @@
+package de.tum.cit.ase.bomberquest.gamemechanism;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * An on-disk cache of preprocessed text maps, keyed by the SHA-256 hash of the map file.
+ * An entry stores everything {@link MapLoader} derives from a map file, so reopening a known map
+ * skips parsing and the preprocessing scans:
+ * <ul>
+ *     <li>the grid with every power-up already hidden under a destructible wall, in the {@link MapFile} format,</li>
+ *     <li>whether the map has an exit and, if not, the destructible walls the exit can be placed under,</li>
+ *     <li>the occupied tiles, see {@link MapGrid#getOccupiedTiles()}.</li>
+ * </ul>
+ * The exit is not stored, since it is placed randomly on every load.
+ * The cache only speeds up loading: if an entry cannot be read or written, the map is simply loaded from the file.
+ */
+public class MapCache {
+
+    /** The first four bytes of every cache entry: "BQMC". */
+    private static final int MAGIC = 0x42514D43;
+
+    /** The version of the entry format. Entries of other versions are ignored and overwritten. */
+    private static final int VERSION = 1;
+
+    private static final String EXTENSION = ".bqc";
+
+    private final Path directory;
+
+    /**
+     * A map file after preprocessing.
+     */
+    public static class Entry {
+        private final MapGrid grid;
+        private final boolean hasExit;
+        private final IntArray exitCandidates;
+        private final IntArray occupiedTiles;
+
+        /**
+         * @param grid The object types of every tile, with all power-ups hidden.
+         * @param hasExit Whether the map file already contains an exit.
+         * @param exitCandidates The tile indices of the destructible walls if the map has no exit, otherwise empty.
+         * @param occupiedTiles The indices of all tiles that hold objects.
+         */
+        public Entry(MapGrid grid, boolean hasExit, IntArray exitCandidates, IntArray occupiedTiles) {
+            this.grid = grid;
+            this.hasExit = hasExit;
+            this.exitCandidates = exitCandidates;
+            this.occupiedTiles = occupiedTiles;
+        }
+
+        public MapGrid getGrid() {
+            return grid;
+        }
+
+        public boolean hasExit() {
+            return hasExit;
+        }
+
+        public IntArray getExitCandidates() {
+            return exitCandidates;
+        }
+
+        public IntArray getOccupiedTiles() {
+            return occupiedTiles;
+        }
+    }
+
+    /**
+     * Creates a cache that stores its entries in the given directory. The directory is created when needed.
+     *
+     * @param directory The cache directory.
+     */
+    public MapCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the cache in the user's home directory, {@code ~/.bomberquest/cache}.
+     *
+     * @return the default cache
+     */
+    public static MapCache getDefault() {
+        return new MapCache(Paths.get(System.getProperty("user.home"), ".bomberquest", "cache"));
+    }
+
+    /**
+     * Computes the cache key of a map file, the hexadecimal SHA-256 hash of its content.
+     *
+     * @param file The map file.
+     * @return the cache key
+     * @throws IOException if the file cannot be read.
+     */
+    public static String hash(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream input = Files.newInputStream(file)) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Computes the same hash as {@link #hash(Path)} from the content of a map file that is already in memory,
+     * e.g. memory-mapped. The remaining bytes of the buffer are consumed.
+     *
+     * @param content The content of the map file.
+     * @return the hash
+     */
+    public static String hash(ByteBuffer content) {
+        MessageDigest digest = sha256();
+        digest.update(content);
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] hash) {
+        StringBuilder key = new StringBuilder();
+        for (byte b : hash) {
+            key.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Reads a cache entry.
+     *
+     * @param key The cache key of the map file, see {@link #hash(Path)}.
+     * @return the entry, or null if there is no valid entry for the key
+     */
+    public Entry load(String key) {
+        Path file = directory.resolve(key + EXTENSION);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            int gridLength = buffer.getInt();
+            ByteBuffer gridBuffer = buffer.slice(buffer.position(), gridLength);
+            buffer.position(buffer.position() + gridLength);
+            MapGrid grid = MapFile.read(gridBuffer);
+            boolean hasExit = buffer.get() != 0;
+            IntArray exitCandidates = readIndices(buffer);
+            IntArray occupiedTiles = readIndices(buffer);
+            return new Entry(grid, hasExit, exitCandidates, occupiedTiles);
+        } catch (IOException | RuntimeException e) {
+            // A damaged entry is not fatal, the map is just loaded from the file again
+            System.err.println("Ignoring invalid map cache entry " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes a cache entry. Errors are reported, but not thrown, since the cache is optional.
+     * The entry is written to a temporary file first, so a concurrent or interrupted write never leaves a partial entry.
+     *
+     * @param key The cache key of the map file, see {@link #hash(Path)}.
+     * @param entry The preprocessed map.
+     */
+    public void store(String key, Entry entry) {
+        byte[] grid = MapFile.encode(entry.getGrid());
+        // Every index takes at most 5 bytes as a varint
+        ByteBuffer buffer = ByteBuffer.allocate(4 * 5 + grid.length + 1
+                + (entry.getExitCandidates().size + entry.getOccupiedTiles().size) * 5);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(grid.length);
+        buffer.put(grid);
+        buffer.put((byte) (entry.hasExit() ? 1 : 0));
+        writeIndices(buffer, entry.getExitCandidates());
+        writeIndices(buffer, entry.getOccupiedTiles());
+
+        Path file = directory.resolve(key + EXTENSION);
+        try {
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, key, ".tmp");
+            try (OutputStream output = Files.newOutputStream(temporary)) {
+                output.write(buffer.array(), 0, buffer.position());
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not write map cache entry " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes ascending tile indices as a count followed by the differences between neighbors as varints,
+     * which usually takes a single byte per index.
+     */
+    private static void writeIndices(ByteBuffer buffer, IntArray indices) {
+        buffer.putInt(indices.size);
+        int previous = 0;
+        for (int i = 0; i < indices.size; i++) {
+            MapFile.writeVarInt(buffer, indices.get(i) - previous);
+            previous = indices.get(i);
+        }
+    }
+
+    private static IntArray readIndices(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        IntArray indices = new IntArray(count);
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += MapFile.readVarInt(buffer);
+            indices.add(previous);
+        }
+        return indices;
+    }
+}
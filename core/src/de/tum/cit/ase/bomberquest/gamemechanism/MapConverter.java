@@ -0,0 +1,49 @@
+package de.tum.cit.ase.bomberquest.gamemechanism;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command line tool that converts text maps to the binary map format of {@link MapFile}.
+ * It does not need libGDX, so it can run as a plain build step: {@code ./gradlew :core:convertMap --args="in.properties [out.bqm]"}.
+ */
+public class MapConverter {
+
+    /** The file extension of binary maps. */
+    public static final String BINARY_EXTENSION = ".bqm";
+
+    /**
+     * Converts the given text map.
+     *
+     * @param args The text map and optionally the output file. By default, the output is written next to the input
+     *             with the extension {@value #BINARY_EXTENSION}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: MapConverter <map.properties> [output" + BINARY_EXTENSION + "]");
+            System.exit(1);
+        }
+        Path input = Paths.get(args[0]);
+        Path output = args.length == 2 ? Paths.get(args[1]) : defaultOutput(input);
+
+        MapLoader loader = new MapLoader();
+        try (InputStream stream = Files.newInputStream(input)) {
+            loader.parse(stream);
+        }
+        MapGrid grid = loader.getGrid();
+        MapFile.write(grid, output);
+
+        System.out.println("Converted " + input + " (" + grid.getWidth() + "x" + grid.getHeight() + ", "
+                + Files.size(input) + " bytes) to " + output + " (" + Files.size(output) + " bytes)");
+    }
+
+    private static Path defaultOutput(Path input) {
+        String name = input.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String baseName = dot > 0 ? name.substring(0, dot) : name;
+        return input.resolveSibling(baseName + BINARY_EXTENSION);
+    }
+}
@@ -0,0 +1,228 @@
+package de.tum.cit.ase.bomberquest.gamemechanism;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes maps in the compact binary map format.
+ * <p>
+ * Layout (all numbers big-endian):
+ * <pre>
+ * int    magic        'B' 'Q' 'M' 'P'
+ * int    version      {@link #VERSION}
+ * int    width, height
+ * int    entityCount
+ * entityCount times:  int x, int y, byte objectType   (entrances, enemies, exits)
+ * runs until width * height tiles are covered:  varint length, byte mask   (walls and power-ups)
+ * </pre>
+ * Sparse objects are stored in the entity table, while the dense wall and power-up layer is run-length encoded,
+ * which makes large maps a lot smaller than the text format. Files are read through a memory map,
+ * so the operating system pages them in directly without copying them through a stream first.
+ */
+public class MapFile {
+
+    /** The first four bytes of every binary map: "BQMP". */
+    public static final int MAGIC = 0x42514D50;
+
+    /** The current version of the format. */
+    public static final int VERSION = 1;
+
+    /** The object types that are stored in the entity table instead of the tile layer. */
+    private static final int ENTITY_BITS = MapGrid.bit(MapLoader.ENTRANCE) | MapGrid.bit(MapLoader.ENEMY) | MapGrid.bit(MapLoader.EXIT);
+
+    /** The object types that may appear in the masks of the tile layer. */
+    private static final int TILE_BITS = (MapGrid.bit(MapLoader.MAX_OBJECT_TYPE + 1) - 1) & ~ENTITY_BITS;
+
+    /** The size of an entry in the entity table: x, y and the object type. */
+    private static final int ENTITY_BYTES = 9;
+
+    /**
+     * Checks whether a file is a binary map by looking at its first four bytes.
+     *
+     * @param path The file to check.
+     * @return true if the file starts with the binary map magic number.
+     * @throws IOException if the file cannot be read.
+     */
+    public static boolean isBinaryMap(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            while (header.hasRemaining() && channel.read(header) != -1) {
+                // Keep reading until the header is complete or the file ends
+            }
+            return !header.hasRemaining() && header.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Reads a binary map through a memory map of the file.
+     *
+     * @param path The file to read.
+     * @return The grid with the object types of every tile.
+     * @throws IOException if the file cannot be read.
+     */
+    public static MapGrid read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        }
+    }
+
+    /**
+     * Decodes a binary map from a buffer, starting at its current position.
+     *
+     * @param buffer The buffer to read.
+     * @return The grid with the object types of every tile.
+     * @throws IllegalArgumentException if the buffer does not hold a valid binary map.
+     */
+    public static MapGrid read(ByteBuffer buffer) {
+        if (buffer.remaining() < 20 || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a binary map file");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported binary map version: " + version);
+        }
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        if (width < 0 || height < 0 || (long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid map size: " + width + "x" + height);
+        }
+        MapGrid grid = new MapGrid(width, height);
+        byte[] tiles = grid.getTiles();
+
+        int entityCount = buffer.getInt();
+        // Checked before the loop, so a damaged count cannot make it run for billions of entries
+        if (entityCount < 0 || (long) entityCount * ENTITY_BYTES > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid entity count: " + entityCount);
+        }
+        for (int i = 0; i < entityCount; i++) {
+            int x = buffer.getInt();
+            int y = buffer.getInt();
+            int objectType = buffer.get();
+            if (x < 0 || y < 0 || x >= width || y >= height) {
+                throw new IllegalArgumentException("Entity outside of the map: " + x + "," + y);
+            }
+            if (objectType < 0 || objectType > MapLoader.MAX_OBJECT_TYPE) {
+                throw new IllegalArgumentException("Unknown object type: " + objectType);
+            }
+            grid.add(x, y, objectType);
+        }
+
+        int index = 0;
+        while (index < tiles.length) {
+            int length = readVarInt(buffer);
+            if (!buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Binary map file ends at tile " + index);
+            }
+            byte mask = buffer.get();
+            if (length <= 0 || length > tiles.length - index) {
+                throw new IllegalArgumentException("Invalid tile run at tile " + index);
+            }
+            if ((mask & ~TILE_BITS) != 0) {
+                throw new IllegalArgumentException("Invalid tile mask at tile " + index + ": " + (mask & 0xff));
+            }
+            if (mask != 0) {
+                for (int end = index + length; index < end; index++) {
+                    tiles[index] |= mask;
+                }
+            } else {
+                index += length;
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Writes a grid in the binary map format.
+     *
+     * @param grid The map to write.
+     * @param path The file to write to. It is replaced if it exists.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(MapGrid grid, Path path) throws IOException {
+        try (OutputStream output = Files.newOutputStream(path)) {
+            output.write(encode(grid));
+        }
+    }
+
+    /**
+     * Encodes a grid in the binary map format.
+     *
+     * @param grid The map to encode.
+     * @return The encoded map.
+     */
+    public static byte[] encode(MapGrid grid) {
+        byte[] tiles = grid.getTiles();
+        int entityCount = 0;
+        for (byte tile : tiles) {
+            entityCount += Integer.bitCount(tile & ENTITY_BITS);
+        }
+        // Worst case: every tile is its own run of a 1-byte length and a mask
+        ByteBuffer buffer = ByteBuffer.allocate(20 + entityCount * 9 + tiles.length * 2);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(grid.getWidth());
+        buffer.putInt(grid.getHeight());
+        buffer.putInt(entityCount);
+        for (int i = 0; i < tiles.length; i++) {
+            int entities = tiles[i] & ENTITY_BITS;
+            for (int objectType = 0; entities != 0; objectType++) {
+                if ((entities & MapGrid.bit(objectType)) != 0) {
+                    buffer.putInt(i % grid.getWidth());
+                    buffer.putInt(i / grid.getWidth());
+                    buffer.put((byte) objectType);
+                    entities &= ~MapGrid.bit(objectType);
+                }
+            }
+        }
+
+        int index = 0;
+        while (index < tiles.length) {
+            byte mask = (byte) (tiles[index] & ~ENTITY_BITS);
+            int end = index + 1;
+            while (end < tiles.length && (byte) (tiles[end] & ~ENTITY_BITS) == mask) {
+                end++;
+            }
+            writeVarInt(buffer, end - index);
+            buffer.put(mask);
+            index = end;
+        }
+
+        byte[] result = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(result);
+        return result;
+    }
+
+    /**
+     * Writes an unsigned variable-length integer, 7 bits per byte, lowest bits first.
+     */
+    static void writeVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7f) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned variable-length integer written by {@link #writeVarInt(ByteBuffer, int)}.
+     */
+    static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32 && buffer.hasRemaining(); shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid variable-length integer");
+    }
+}
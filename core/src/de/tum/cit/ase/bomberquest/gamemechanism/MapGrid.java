@@ -0,0 +1,130 @@
+package de.tum.cit.ase.bomberquest.gamemechanism;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * The parsed content of a map file as a primitive grid.
+ * Every tile stores a bit mask of the object types on it (see the constants in {@link MapLoader}),
+ * so a tile can hold several objects, e.g. a power-up hidden under a destructible wall.
+ * Tiles are stored row by row, starting at the bottom left corner.
+ */
+public class MapGrid {
+
+    private final int width;
+    private final int height;
+    private final byte[] tiles;
+
+    /**
+     * Creates an empty grid.
+     *
+     * @param width The width of the map in tiles.
+     * @param height The height of the map in tiles.
+     */
+    public MapGrid(int width, int height) {
+        this(width, height, new byte[width * height]);
+    }
+
+    /**
+     * Creates a grid backed by the given tile masks.
+     *
+     * @param width The width of the map in tiles.
+     * @param height The height of the map in tiles.
+     * @param tiles The object type masks of all tiles, indexed by {@code y * width + x}.
+     */
+    public MapGrid(int width, int height, byte[] tiles) {
+        if (width < 0 || height < 0 || tiles.length != width * height) {
+            throw new IllegalArgumentException("Invalid map size: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.tiles = tiles;
+    }
+
+    /**
+     * Returns the bit that represents an object type in a tile mask.
+     *
+     * @param objectType One of the object type constants in {@link MapLoader}.
+     * @return the bit of the object type
+     */
+    public static int bit(int objectType) {
+        return 1 << objectType;
+    }
+
+    /**
+     * Returns the mask of all object types on a tile.
+     *
+     * @param x The X tile coordinate.
+     * @param y The Y tile coordinate.
+     * @return the object type mask, 0 if the tile is empty
+     */
+    public int getMask(int x, int y) {
+        return tiles[y * width + x] & 0xff;
+    }
+
+    /**
+     * Checks whether a tile holds the given object type.
+     *
+     * @param x The X tile coordinate.
+     * @param y The Y tile coordinate.
+     * @param objectType One of the object type constants in {@link MapLoader}.
+     * @return true if the object type is on the tile
+     */
+    public boolean has(int x, int y, int objectType) {
+        return (getMask(x, y) & bit(objectType)) != 0;
+    }
+
+    /**
+     * Adds an object type to a tile.
+     *
+     * @param x The X tile coordinate.
+     * @param y The Y tile coordinate.
+     * @param objectType One of the object type constants in {@link MapLoader}.
+     */
+    public void add(int x, int y, int objectType) {
+        tiles[y * width + x] |= (byte) bit(objectType);
+    }
+
+    /**
+     * Collects the indices of all tiles that hold at least one object, in the order of {@link #getTiles()}.
+     * Empty tiles make up most of a map, so this lets the game objects be created without scanning them again.
+     *
+     * @return the indices of the occupied tiles
+     */
+    public IntArray getOccupiedTiles() {
+        IntArray occupied = new IntArray();
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] != 0) {
+                occupied.add(i);
+            }
+        }
+        return occupied;
+    }
+
+    /**
+     * Returns the width of the map in tiles.
+     *
+     * @return the width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the map in tiles.
+     *
+     * @return the height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the raw tile masks, indexed by {@code y * width + x}.
+     * This is not a copy, changes are visible in the grid.
+     *
+     * @return the tile masks
+     */
+    public byte[] getTiles() {
+        return tiles;
+    }
+}
@@ -0,0 +1,130 @@
+package de.tum.cit.ase.bomberquest.gamemechanism;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.File;
+
+/**
+ * Reads and parses a map file on a background thread, so the window keeps responding while a large map loads.
+ * Only the parsing happens here; the game objects and their Box2D bodies are created afterwards on the render thread,
+ * see {@link de.tum.cit.ase.bomberquest.map.GameMap#continueLoading(long)}.
+ */
+public class MapLoadTask implements Runnable {
+
+    private final String filePath;
+    private final long fileLength;
+    private final MapLoader mapLoader = new MapLoader();
+    private final Thread thread;
+
+    /** The tiles that hold objects, set before {@link #grid}. */
+    private volatile IntArray occupiedTiles;
+    /** The parsed map, set once parsing finished successfully. */
+    private volatile MapGrid grid;
+    private volatile RuntimeException error;
+    private volatile boolean cancelled = false;
+
+    /**
+     * Creates a task for the given map file. It does not start until {@link #start()} is called.
+     *
+     * @param filePath The path to the map file.
+     * @param seed The seed for the random decisions while loading, see {@link MapLoader#setSeed(long)}.
+     */
+    public MapLoadTask(String filePath, long seed) {
+        this.filePath = filePath;
+        this.mapLoader.setSeed(seed);
+        this.fileLength = new File(filePath).length();
+        this.thread = new Thread(this, "Map loader");
+        this.thread.setDaemon(true); // Do not keep the game running if it is closed while loading
+    }
+
+    /**
+     * Starts parsing on the background thread.
+     */
+    public void start() {
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        try {
+            mapLoader.loadMap(filePath);
+            if (!cancelled) {
+                occupiedTiles = mapLoader.getOccupiedTiles();
+                grid = mapLoader.getGrid();
+            }
+        } catch (RuntimeException e) {
+            if (!cancelled) {
+                error = e;
+            }
+        }
+    }
+
+    /**
+     * Stops parsing as soon as possible. The result of a cancelled task is never published.
+     */
+    public void cancel() {
+        cancelled = true;
+        thread.interrupt();
+    }
+
+    /**
+     * Returns whether the map has been parsed successfully.
+     *
+     * @return true if {@link #getGrid()} and {@link #getOccupiedTiles()} are available
+     */
+    public boolean isDone() {
+        return grid != null;
+    }
+
+    /**
+     * Returns how much of the map file has been parsed, from 0 to 1.
+     *
+     * @return the parsing progress
+     */
+    public float getProgress() {
+        if (grid != null) {
+            return 1;
+        }
+        return fileLength > 0 ? Math.min(1, (float) mapLoader.getBytesRead() / fileLength) : 0;
+    }
+
+    /**
+     * Returns the parsed map.
+     *
+     * @return the map grid, or null if parsing has not finished
+     */
+    public MapGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Returns the indices of all tiles that hold objects, see {@link MapGrid#getOccupiedTiles()}.
+     *
+     * @return the occupied tiles, or null if parsing has not finished
+     */
+    public IntArray getOccupiedTiles() {
+        return occupiedTiles;
+    }
+
+    /**
+     * Returns the hash of the content of the map file.
+     *
+     * @return the hash, or null if parsing has not finished
+     */
+    public String getMapHash() {
+        return isDone() ? mapLoader.getMapHash() : null;
+    }
+
+    public long getSeed() {
+        return mapLoader.getSeed();
+    }
+
+    /**
+     * Returns the error that stopped parsing.
+     *
+     * @return the error, or null if there was none
+     */
+    public RuntimeException getError() {
+        return error;
+    }
+}
@@ -2,7 +2,15 @@
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.IntArray;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 
 public class MapLoader {
@@ -15,11 +23,43 @@ public class MapLoader {
     public static final int BOMB_POWER_UP = 5;
     public static final int BLAST_RADIUS_POWER_UP = 6;
 
-    // Updated to store multiple object types per coordinate
-    private final Map<String, Set<Integer>> mapData = new HashMap<>();
+    /** The highest valid object type. */
+    static final int MAX_OBJECT_TYPE = BLAST_RADIUS_POWER_UP;
+
+    /** The size of the read buffer. The file is streamed through it, so it is never read as a whole. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** The parsed map, one object type mask per tile. */
+    private MapGrid grid;
+    /** The tiles of the loaded map that hold objects, see {@link MapGrid#getOccupiedTiles()}. */
+    private IntArray occupiedTiles;
+
+    /**
+     * The entries read so far, as (x1, y1, x2, y2, object type) rectangles, since the map size is only known at the end.
+     * A single tile is a rectangle with x1 == x2 and y1 == y2.
+     */
+    private final IntArray entries = new IntArray();
+    private int maxX = -1;
+    private int maxY = -1;
+
+    /** The current line. It is reused for every line, so parsing does not allocate per line. */
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private int lineNumber;
+    /** The read position within the current line. */
+    private int position;
+    /** The number of bytes parsed so far. This is read by other threads to show the progress. */
+    private volatile long bytesRead;
+
+    /** The seed for the random decisions while loading, so a map loads the same way again with the same seed. */
+    private long seed = System.nanoTime();
+    /** The hash of the content of the loaded map file, see {@link MapCache#hash(Path)}. */
+    private String mapHash;
 
     /**
      * Loads a map file from a given file path and parses it.
+     * Both the text format and the binary format of {@link MapFile} are supported, the format is detected
+     * from the first bytes of the file. Text maps that have been loaded before are read from the {@link MapCache} instead.
      *
      * @param filePath The path to the map file.
      */
@@ -30,79 +70,375 @@ public void loadMap(String filePath) {
             throw new RuntimeException("Map file not found: " + filePath);
         }
 
-        String mapContent = fileHandle.readString();
-        String[] lines = mapContent.split("\n");
+        MapCache cache = MapCache.getDefault();
+        MapCache.Entry entry;
+        try {
+            Path path = fileHandle.file().toPath();
+            if (MapFile.isBinaryMap(path)) {
+                // A binary map decodes as fast as a cache entry, so it is not cached. The hash for recordings is
+                // taken from the same memory map the grid is decoded from, so the file is only read once.
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    ByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    mapHash = MapCache.hash(content.duplicate());
+                    grid = MapFile.read(content);
+                }
+                entry = preprocess();
+            } else {
+                String key = MapCache.hash(path);
+                mapHash = key;
+                entry = cache.load(key);
+                if (entry == null) {
+                    try (InputStream input = fileHandle.read()) {
+                        parse(input);
+                    }
+                    entry = preprocess();
+                    cache.store(key, entry);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read map file: " + filePath, e);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid map file: " + filePath, e);
+        }
+
+        grid = entry.getGrid();
+        occupiedTiles = entry.getOccupiedTiles();
+        // Ensure there is at least one exit
+        if (!entry.hasExit()) {
+            placeExit(entry.getExitCandidates());
+        }
+    }
+
+    /**
+     * Runs everything that only depends on the content of the map file, so the result can be cached.
+     */
+    private MapCache.Entry preprocess() {
+        ensurePowerUpsHidden();
+        IntArray exitCandidates = new IntArray();
+        boolean hasExit = findExitCandidates(exitCandidates);
+        return new MapCache.Entry(grid, hasExit, hasExit ? new IntArray() : exitCandidates, grid.getOccupiedTiles());
+    }
 
-        for (String line : lines) {
-            line = line.trim();
-            if (line.isEmpty() || line.startsWith("#")) {
-                continue; // Skip empty lines and comments
+    /**
+     * Parses a map in the text format in a single pass over the bytes of the stream.
+     * Every line has one of the forms
+     * <ul>
+     *     <li>{@code x,y=objectType} for a single tile,</li>
+     *     <li>{@code x1..x2,y1..y2=objectType} for a filled range, either coordinate can be a range or a single number,</li>
+     *     <li>{@code rect x1,y1 x2,y2 border=objectType fill=objectType} for a rectangle with the given outline and
+     *     interior, at least one of border and fill must be given.</li>
+     * </ul>
+     * Ranges include both ends. Empty lines and lines starting with # are skipped.
+     * If the thread is interrupted, parsing stops with an {@link InterruptedIOException}.
+     *
+     * @param input The stream to read the map from.
+     * @throws IOException if the stream cannot be read.
+     */
+    public void parse(InputStream input) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            if (Thread.interrupted()) {
+                throw new InterruptedIOException("Map loading was cancelled");
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+                if (b == '\n') {
+                    parseLine();
+                    lineLength = 0;
+                } else {
+                    if (lineLength == line.length) {
+                        line = Arrays.copyOf(line, line.length * 2);
+                    }
+                    line[lineLength++] = b;
+                }
             }
+            bytesRead += read;
+        }
+        // The last line does not need to end with a line break
+        parseLine();
+        lineLength = 0;
 
-            String[] keyValue = line.split("=");
-            if (keyValue.length != 2) {
-                throw new IllegalArgumentException("Invalid map line: " + line);
+        grid = new MapGrid(maxX + 1, maxY + 1);
+        for (int i = 0; i < entries.size; i += 5) {
+            int x2 = entries.get(i + 2);
+            int y2 = entries.get(i + 3);
+            int objectType = entries.get(i + 4);
+            for (int y = entries.get(i + 1); y <= y2; y++) {
+                for (int x = entries.get(i); x <= x2; x++) {
+                    grid.add(x, y, objectType);
+                }
             }
+        }
+        entries.clear();
+    }
 
-            String coordinates = keyValue[0].trim();
-            int objectType = Integer.parseInt(keyValue[1].trim());
+    /**
+     * Parses the current line and records its entries.
+     */
+    private void parseLine() {
+        lineNumber++;
+        position = 0;
+        skipWhitespace();
+        if (position == lineLength || line[position] == '#') {
+            return; // Skip empty lines and comments
+        }
 
-            // Add the object type to the set for this coordinate
-            mapData.computeIfAbsent(coordinates, k -> new HashSet<>()).add(objectType);
+        if (line[position] == 'r') {
+            parseRectangle();
+            return;
         }
 
-        ensurePowerUpsHidden();
-        // Ensure there is at least one exit
-        ensureExit();
+        int x1 = readNumber();
+        int x2 = readRangeEnd(x1);
+        expect(',');
+        int y1 = readNumber();
+        int y2 = readRangeEnd(y1);
+        expect('=');
+        int objectType = readObjectType();
+        expectEndOfLine();
+
+        // Add the object type to these coordinates
+        addEntry(x1, y1, x2, y2, objectType);
     }
 
     /**
-     * Ensures there is at least one exit in the map by placing it under a random destructible wall.
-     * The destructible wall is preserved.
+     * Parses a line of the form {@code rect x1,y1 x2,y2 border=objectType fill=objectType}.
      */
-    private void ensureExit() {
-        boolean exitExists = mapData.values().stream()
-                .anyMatch(objects -> objects.contains(EXIT));
+    private void parseRectangle() {
+        expectKeyword("rect");
+        int x1 = readNumber();
+        expect(',');
+        int y1 = readNumber();
+        int x2 = readNumber();
+        expect(',');
+        int y2 = readNumber();
+        int minX = Math.min(x1, x2);
+        int maxX = Math.max(x1, x2);
+        int minY = Math.min(y1, y2);
+        int maxY = Math.max(y1, y2);
 
-        if (!exitExists) {
-            List<String> destructibleWalls = new ArrayList<>();
-            for (Map.Entry<String, Set<Integer>> entry : mapData.entrySet()) {
-                if (entry.getValue().contains(DESTRUCTIBLE_WALL)) {
-                    destructibleWalls.add(entry.getKey());
+        boolean hasShape = false;
+        skipWhitespace();
+        while (position < lineLength) {
+            if (line[position] == 'b') {
+                expectKeyword("border");
+                expect('=');
+                int objectType = readObjectType();
+                addEntry(minX, minY, maxX, minY, objectType);
+                addEntry(minX, maxY, maxX, maxY, objectType);
+                if (maxY - minY > 1) {
+                    addEntry(minX, minY + 1, minX, maxY - 1, objectType);
+                    addEntry(maxX, minY + 1, maxX, maxY - 1, objectType);
                 }
+            } else if (line[position] == 'f') {
+                expectKeyword("fill");
+                expect('=');
+                int objectType = readObjectType();
+                if (maxX - minX > 1 && maxY - minY > 1) {
+                    addEntry(minX + 1, minY + 1, maxX - 1, maxY - 1, objectType);
+                }
+            } else {
+                throw invalidLine();
             }
+            hasShape = true;
+            skipWhitespace();
+        }
+        if (!hasShape) {
+            throw invalidLine();
+        }
+    }
 
-            if (destructibleWalls.isEmpty()) {
-                throw new RuntimeException("No destructible walls found to place an exit!");
+    private void addEntry(int x1, int y1, int x2, int y2, int objectType) {
+        int minX = Math.min(x1, x2);
+        int minY = Math.min(y1, y2);
+        int maxX = Math.max(x1, x2);
+        int maxY = Math.max(y1, y2);
+        entries.add(minX, minY, maxX);
+        entries.add(maxY, objectType);
+        this.maxX = Math.max(this.maxX, maxX);
+        this.maxY = Math.max(this.maxY, maxY);
+    }
+
+    /**
+     * Reads the optional {@code ..end} part of a range.
+     *
+     * @param start The start of the range.
+     * @return the end of the range, or start if the coordinate is not a range
+     */
+    private int readRangeEnd(int start) {
+        skipWhitespace();
+        if (position + 1 < lineLength && line[position] == '.' && line[position + 1] == '.') {
+            position += 2;
+            return readNumber();
+        }
+        return start;
+    }
+
+    private int readObjectType() {
+        int objectType = readNumber();
+        if (objectType > MAX_OBJECT_TYPE) {
+            throw new RuntimeException("Unknown object type: " + objectType);
+        }
+        return objectType;
+    }
+
+    private void expectKeyword(String keyword) {
+        skipWhitespace();
+        for (int i = 0; i < keyword.length(); i++) {
+            if (position == lineLength || line[position] != keyword.charAt(i)) {
+                throw invalidLine();
             }
+            position++;
+        }
+    }
 
-            Random random = new Random();
-            String randomWall = destructibleWalls.get(random.nextInt(destructibleWalls.size()));
-            mapData.get(randomWall).add(EXIT); // Add exit without removing the destructible wall
+    private void expectEndOfLine() {
+        skipWhitespace();
+        if (position != lineLength) {
+            throw invalidLine();
         }
     }
 
+    private void skipWhitespace() {
+        while (position < lineLength && (line[position] == ' ' || line[position] == '\t' || line[position] == '\r')) {
+            position++;
+        }
+    }
+
+    private void expect(char separator) {
+        skipWhitespace();
+        if (position == lineLength || line[position] != separator) {
+            throw invalidLine();
+        }
+        position++;
+    }
+
+    /**
+     * Reads a non-negative decimal number directly from the bytes of the line.
+     */
+    private int readNumber() {
+        skipWhitespace();
+        int start = position;
+        int value = 0;
+        while (position < lineLength && line[position] >= '0' && line[position] <= '9') {
+            value = value * 10 + (line[position] - '0');
+            if (value < 0 || position - start > 9) {
+                throw invalidLine();
+            }
+            position++;
+        }
+        if (position == start) {
+            throw invalidLine();
+        }
+        return value;
+    }
+
+    private IllegalArgumentException invalidLine() {
+        // Only allocate the line as a string when it is actually reported
+        return new IllegalArgumentException("Invalid map line " + lineNumber + ": " + new String(line, 0, lineLength).trim());
+    }
+
+    /**
+     * Checks whether the map has an exit and collects the destructible walls an exit could be placed under otherwise.
+     *
+     * @param destructibleWalls Receives the tile indices of all destructible walls, unless there is an exit.
+     * @return true if the map already has an exit
+     */
+    private boolean findExitCandidates(IntArray destructibleWalls) {
+        byte[] tiles = grid.getTiles();
+        int exitBit = MapGrid.bit(EXIT);
+        int wallBit = MapGrid.bit(DESTRUCTIBLE_WALL);
+        for (int i = 0; i < tiles.length; i++) {
+            if ((tiles[i] & exitBit) != 0) {
+                return true;
+            }
+            if ((tiles[i] & wallBit) != 0) {
+                destructibleWalls.add(i);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ensures there is at least one exit in the map by placing it under a random destructible wall.
+     * The destructible wall is preserved.
+     *
+     * @param destructibleWalls The tile indices of all destructible walls.
+     */
+    private void placeExit(IntArray destructibleWalls) {
+        if (destructibleWalls.isEmpty()) {
+            throw new RuntimeException("No destructible walls found to place an exit!");
+        }
+
+        Random random = new Random(seed);
+        int randomWall = destructibleWalls.get(random.nextInt(destructibleWalls.size));
+        grid.getTiles()[randomWall] |= (byte) MapGrid.bit(EXIT); // Add exit without removing the destructible wall
+    }
+
+    /**
+     * Sets the seed for the random decisions while loading, like the position of the exit if the map has none.
+     * By default, a different seed is used every time.
+     *
+     * @param seed The seed.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the hash of the content of the loaded map file, which identifies the map independent of its file name.
+     *
+     * @return the hash, see {@link MapCache#hash(Path)}
+     */
+    public String getMapHash() {
+        return mapHash;
+    }
+
     /**
      * Ensures that every power-up is hidden underneath a destructible wall.
      */
     private void ensurePowerUpsHidden() {
-        for (Map.Entry<String, Set<Integer>> entry : mapData.entrySet()) {
-            Set<Integer> objectTypes = entry.getValue();
-
+        byte[] tiles = grid.getTiles();
+        int powerUpBits = MapGrid.bit(BOMB_POWER_UP) | MapGrid.bit(BLAST_RADIUS_POWER_UP);
+        for (int i = 0; i < tiles.length; i++) {
             // If there is any power-up, add a destructible wall
-            if (objectTypes.contains(BOMB_POWER_UP) || objectTypes.contains(BLAST_RADIUS_POWER_UP)) {
-                objectTypes.add(DESTRUCTIBLE_WALL);
+            if ((tiles[i] & powerUpBits) != 0) {
+                tiles[i] |= (byte) MapGrid.bit(DESTRUCTIBLE_WALL);
             }
         }
     }
 
 
+    /**
+     * Returns the number of bytes of the map file that have been parsed so far.
+     * This can be called from any thread while the map is loading.
+     *
+     * @return the number of parsed bytes
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Returns the indices of all tiles that hold objects after {@link #loadMap(String)}.
+     *
+     * @return the occupied tiles
+     */
+    public IntArray getOccupiedTiles() {
+        return occupiedTiles;
+    }
+
     /**
      * Returns the parsed map data.
      *
-     * @return A map of coordinates to sets of object types.
+     * @return The grid with the object types of every tile.
      */
-    public Map<String, Set<Integer>> getMapData() {
-        return mapData;
+    public MapGrid getGrid() {
+        return grid;
     }
 }
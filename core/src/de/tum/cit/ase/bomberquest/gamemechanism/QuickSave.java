@@ -0,0 +1,259 @@
+package de.tum.cit.ase.bomberquest.gamemechanism;
+
+import de.tum.cit.ase.bomberquest.map.GameSnapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single quicksave slot, stored as a compact binary file in {@code ~/.bomberquest/quicksave.bqs}.
+ * The file contains the grid in the {@link MapFile} format followed by a {@link GameSnapshot},
+ * so a saved game can be loaded without the original map file and without parsing it.
+ * <p>
+ * Saving only captures the snapshot on the calling thread. Encoding and writing happen on a background thread,
+ * so a quicksave does not stall the frame even on large maps.
+ */
+public class QuickSave {
+
+    /** The first four bytes of every save file: "BQSV". */
+    private static final int MAGIC = 0x42515356;
+
+    /** The version of the save format. Saves of other versions cannot be loaded. */
+    private static final int VERSION = 2;
+
+    /** The size of an actor in the save file: an alive flag followed by position, velocity and animation time. */
+    private static final int ACTOR_BYTES = 1 + 5 * 4;
+    private static final int BOMB_BYTES = 2 * 4 + 4 + 2 * 4;
+    private static final int EXPLOSION_BYTES = 2 * 4 + 1 + 4;
+
+    private final Path file;
+    /** Writes and reads the save file one after another, so a load always sees the latest save. */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Quicksave writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates a quicksave slot stored in the given file. The parent directory is created when needed.
+     *
+     * @param file The save file.
+     */
+    public QuickSave(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the quicksave slot in the user's home directory, {@code ~/.bomberquest/quicksave.bqs}.
+     *
+     * @return the default slot
+     */
+    public static QuickSave getDefault() {
+        return new QuickSave(Paths.get(System.getProperty("user.home"), ".bomberquest", "quicksave.bqs"));
+    }
+
+    /**
+     * Writes a snapshot in the background, replacing the previous save.
+     * Errors are reported, but not thrown, since the game goes on either way.
+     *
+     * @param snapshot The state to save, see {@link de.tum.cit.ase.bomberquest.map.GameMap#createSnapshot()}.
+     */
+    public void save(GameSnapshot snapshot) {
+        executor.execute(() -> write(snapshot));
+    }
+
+    /**
+     * Reads the saved snapshot. This waits for a save that is still being written.
+     *
+     * @return the snapshot, or null if there is no valid save
+     */
+    public GameSnapshot load() {
+        try {
+            return executor.submit(this::read).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            System.err.println("Could not load quicksave " + file + ": " + e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Finishes a save that is still being written and stops the background thread.
+     */
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(GameSnapshot snapshot) {
+        byte[] grid = MapFile.encode(snapshot.getGrid());
+        // Every index takes at most 5 bytes as a varint
+        int size = 3 * 4 + grid.length
+                + 2 * 4 + (snapshot.getDestroyedWalls().cardinality() + snapshot.getCollectedPowerUps().cardinality()) * 5
+                + 8 + 1 + ACTOR_BYTES + 2 * 4
+                + 4 + snapshot.getEnemies().size() * ACTOR_BYTES
+                + 4 + snapshot.getBombs().size() * BOMB_BYTES
+                + 4 + snapshot.getExplosions().size() * EXPLOSION_BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(grid.length);
+        buffer.put(grid);
+        writeIndices(buffer, snapshot.getDestroyedWalls());
+        writeIndices(buffer, snapshot.getCollectedPowerUps());
+        buffer.putLong(snapshot.getTickCount());
+        buffer.put((byte) (snapshot.isExitActive() ? 1 : 0));
+        writeActor(buffer, snapshot.getPlayer());
+        buffer.putInt(snapshot.getConcurrentBombCount());
+        buffer.putInt(snapshot.getBlastRadius());
+        buffer.putInt(snapshot.getEnemies().size());
+        for (GameSnapshot.ActorState enemy : snapshot.getEnemies()) {
+            writeActor(buffer, enemy);
+        }
+        buffer.putInt(snapshot.getBombs().size());
+        for (GameSnapshot.BombState bomb : snapshot.getBombs()) {
+            buffer.putFloat(bomb.getX());
+            buffer.putFloat(bomb.getY());
+            buffer.putInt(bomb.getBlastRadius());
+            buffer.putFloat(bomb.getTimer());
+            buffer.putFloat(bomb.getElapsedTime());
+        }
+        buffer.putInt(snapshot.getExplosions().size());
+        for (GameSnapshot.ExplosionState explosion : snapshot.getExplosions()) {
+            buffer.putFloat(explosion.getX());
+            buffer.putFloat(explosion.getY());
+            buffer.put((byte) explosion.getAnimationId());
+            buffer.putFloat(explosion.getElapsedTime());
+        }
+
+        try {
+            Files.createDirectories(file.getParent());
+            // Write to a temporary file first, so a crash while saving does not destroy the previous save
+            Path temporary = Files.createTempFile(file.getParent(), "quicksave", ".tmp");
+            try (OutputStream output = Files.newOutputStream(temporary)) {
+                output.write(buffer.array(), 0, buffer.position());
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not write quicksave " + file + ": " + e.getMessage());
+        }
+    }
+
+    private GameSnapshot read() throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a quicksave");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported quicksave version " + version);
+            }
+            int gridLength = buffer.getInt();
+            MapGrid grid = MapFile.read(buffer.slice(buffer.position(), gridLength));
+            buffer.position(buffer.position() + gridLength);
+            BitSet destroyedWalls = readIndices(buffer);
+            BitSet collectedPowerUps = readIndices(buffer);
+            long tickCount = buffer.getLong();
+            boolean exitActive = buffer.get() != 0;
+            GameSnapshot.ActorState player = readActor(buffer);
+            int concurrentBombCount = buffer.getInt();
+            int blastRadius = buffer.getInt();
+
+            int enemyCount = readCount(buffer, ACTOR_BYTES);
+            List<GameSnapshot.ActorState> enemies = new ArrayList<>(enemyCount);
+            for (int i = 0; i < enemyCount; i++) {
+                enemies.add(readActor(buffer));
+            }
+            int bombCount = readCount(buffer, BOMB_BYTES);
+            List<GameSnapshot.BombState> bombs = new ArrayList<>(bombCount);
+            for (int i = 0; i < bombCount; i++) {
+                bombs.add(new GameSnapshot.BombState(buffer.getFloat(), buffer.getFloat(), buffer.getInt(),
+                        buffer.getFloat(), buffer.getFloat()));
+            }
+            int explosionCount = readCount(buffer, EXPLOSION_BYTES);
+            List<GameSnapshot.ExplosionState> explosions = new ArrayList<>(explosionCount);
+            for (int i = 0; i < explosionCount; i++) {
+                explosions.add(new GameSnapshot.ExplosionState(buffer.getFloat(), buffer.getFloat(), buffer.get(),
+                        buffer.getFloat()));
+            }
+            return new GameSnapshot(grid, destroyedWalls, collectedPowerUps, tickCount, exitActive,
+                    player, concurrentBombCount, blastRadius, enemies, bombs, explosions);
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("The quicksave is damaged", e);
+        }
+    }
+
+    private static void writeActor(ByteBuffer buffer, GameSnapshot.ActorState actor) {
+        buffer.put((byte) (actor.isAlive() ? 1 : 0));
+        buffer.putFloat(actor.getX());
+        buffer.putFloat(actor.getY());
+        buffer.putFloat(actor.getVelocityX());
+        buffer.putFloat(actor.getVelocityY());
+        buffer.putFloat(actor.getElapsedTime());
+    }
+
+    private static GameSnapshot.ActorState readActor(ByteBuffer buffer) {
+        return new GameSnapshot.ActorState(buffer.get() != 0, buffer.getFloat(), buffer.getFloat(),
+                buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+    }
+
+    /**
+     * Reads the number of entries of a list and checks that the file can hold that many.
+     */
+    private static int readCount(ByteBuffer buffer, int entryBytes) {
+        int count = buffer.getInt();
+        if (count < 0 || (long) count * entryBytes > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return count;
+    }
+
+    /**
+     * Writes the set tile indices as a count followed by the differences between neighbors as varints,
+     * like the index lists of {@link MapCache}.
+     */
+    private static void writeIndices(ByteBuffer buffer, BitSet indices) {
+        buffer.putInt(indices.cardinality());
+        int previous = 0;
+        for (int index = indices.nextSetBit(0); index >= 0; index = indices.nextSetBit(index + 1)) {
+            MapFile.writeVarInt(buffer, index - previous);
+            previous = index;
+        }
+    }
+
+    private static BitSet readIndices(ByteBuffer buffer) {
+        int count = readCount(buffer, 1);
+        BitSet indices = new BitSet();
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += MapFile.readVarInt(buffer);
+            indices.set(previous);
+        }
+        return indices;
+    }
+}
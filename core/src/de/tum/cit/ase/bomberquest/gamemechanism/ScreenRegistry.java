@@ -0,0 +1,76 @@
+package de.tum.cit.ase.bomberquest.gamemechanism;
+
+import com.badlogic.gdx.Screen;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps one instance of every screen alive, so switching between the menus and the game does not rebuild
+ * their stages, cameras and renderers. A registered screen is only hidden when another screen is shown,
+ * and only disposed when it is replaced or the game is closed.
+ * Screens that only make sense once, like the {@link de.tum.cit.ase.bomberquest.screens.LoadingScreen},
+ * are not registered and are disposed as soon as they are left.
+ */
+public class ScreenRegistry {
+
+    private final Map<Class<? extends Screen>, Screen> screens = new HashMap<>();
+
+    /**
+     * Registers a screen, replacing the screen of the same class. The replaced screen is not disposed,
+     * since it may still be shown, see {@link BomberQuestGame#setScreen(Screen)}.
+     *
+     * @param screen The screen.
+     * @return the replaced screen, or null if there was none
+     */
+    public Screen register(Screen screen) {
+        Screen replaced = screens.put(screen.getClass(), screen);
+        return replaced == screen ? null : replaced;
+    }
+
+    /**
+     * Returns the registered screen of a class.
+     *
+     * @param type The class of the screen.
+     * @param <T> The type of the screen.
+     * @return the screen, or null if none is registered
+     */
+    public <T extends Screen> T get(Class<T> type) {
+        return type.cast(screens.get(type));
+    }
+
+    /**
+     * Stops keeping the screen of a class alive. The screen is not disposed.
+     *
+     * @param type The class of the screen.
+     * @param <T> The type of the screen.
+     * @return the screen, or null if none is registered
+     */
+    public <T extends Screen> T remove(Class<T> type) {
+        return type.cast(screens.remove(type));
+    }
+
+    /**
+     * Returns whether a screen is kept alive by this registry.
+     *
+     * @param screen The screen.
+     * @return true if the screen is registered
+     */
+    public boolean contains(Screen screen) {
+        return screens.get(screen.getClass()) == screen;
+    }
+
+    /**
+     * Disposes all registered screens, except the given one, which the caller disposes.
+     *
+     * @param current The screen that is shown, or null.
+     */
+    public void disposeAll(Screen current) {
+        for (Screen screen : screens.values()) {
+            if (screen != current) {
+                screen.dispose();
+            }
+        }
+        screens.clear();
+    }
+}
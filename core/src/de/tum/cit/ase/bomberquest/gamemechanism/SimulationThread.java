@@ -0,0 +1,124 @@
+package de.tum.cit.ase.bomberquest.gamemechanism;
+
+import de.tum.cit.ase.bomberquest.map.GameClock;
+import de.tum.cit.ase.bomberquest.map.GameMap;
+import de.tum.cit.ase.bomberquest.render.RenderSnapshot;
+import de.tum.cit.ase.bomberquest.render.TripleBuffer;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulates a map on its own thread, so the simulation neither waits for the frame to be drawn nor for vsync,
+ * and a slow frame does not delay the ticks.
+ * <p>
+ * After every batch of ticks, the thread captures a {@link RenderSnapshot} and publishes it through a
+ * {@link TripleBuffer}, which the render thread draws from. While the thread runs, it owns the map: the render thread
+ * must not touch it, but can pass changes to it with {@link #post(Runnable)}, or {@link #stop()} the thread,
+ * change the map and start it again.
+ */
+public class SimulationThread implements Runnable {
+
+    private final GameMap map;
+    private final TripleBuffer<RenderSnapshot> snapshots;
+    /** Changes from the render thread, run between two ticks. */
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = false;
+    private Thread thread;
+
+    /**
+     * Creates the simulation of a map. The thread does not run before {@link #start()} is called.
+     *
+     * @param map The map to simulate.
+     * @param snapshots Receives a snapshot of the map after every batch of ticks.
+     */
+    public SimulationThread(GameMap map, TripleBuffer<RenderSnapshot> snapshots) {
+        this.map = map;
+        this.snapshots = snapshots;
+    }
+
+    /**
+     * Starts simulating the map. The time until the first tick is counted from here.
+     */
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "Simulation");
+        thread.setDaemon(true); // Do not keep the application alive if it is closed without disposing the screen
+        FrameProfiler.setSimulationThread(thread);
+        thread.start();
+    }
+
+    /**
+     * Stops the simulation and waits until the current tick is finished, so the caller can use the map afterwards.
+     * Tasks that have not run yet are run by the calling thread.
+     */
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while stopping the simulation", e);
+        }
+        thread = null;
+        FrameProfiler.setSimulationThread(null);
+        runTasks();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Runs a change of the map on the simulation thread, between two ticks.
+     * If the simulation is not running, the change is run right away.
+     *
+     * @param task The change.
+     */
+    public void post(Runnable task) {
+        if (!running) {
+            task.run();
+            return;
+        }
+        tasks.add(task);
+    }
+
+    @Override
+    public void run() {
+        long lastNanos = System.nanoTime();
+        while (running) {
+            runTasks();
+            long now = System.nanoTime();
+            map.tick((now - lastNanos) / 1e9f);
+            lastNanos = now;
+
+            RenderSnapshot snapshot = snapshots.getBack();
+            snapshot.capture(map, System.nanoTime());
+            snapshots.publish();
+            if (map.getOutcome() != GameMap.Outcome.RUNNING) {
+                break; // The render thread ends the game once it sees the snapshot
+            }
+
+            // Sleep until the next tick is due, or a whole tick while the clock is paused
+            GameClock clock = map.getClock();
+            long tickNanos = (long) (clock.getTimeStep() / clock.getTimeScale() * 1e9);
+            long waitNanos = clock.isPaused() ? tickNanos : (long) ((1 - clock.getAlpha()) * tickNanos);
+            LockSupport.parkNanos(this, waitNanos - (System.nanoTime() - now));
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package de.tum.cit.ase.bomberquest.generator;
+
+import de.tum.cit.ase.bomberquest.gamemechanism.MapFile;
+import de.tum.cit.ase.bomberquest.gamemechanism.MapGrid;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static de.tum.cit.ase.bomberquest.gamemechanism.MapLoader.*;
+
+/**
+ * Generates valid Bomber Quest maps from a seed.
+ * The layout follows the classic pattern: an indestructible border, indestructible pillars on every tile with
+ * even coordinates, and destructible walls scattered over the remaining tiles. Since the pillars never touch each other,
+ * every tile that is not indestructible is connected to the entrance, so the exit, which is hidden under a
+ * destructible wall, can always be reached by blowing up walls. This is checked after generating.
+ * <p>
+ * The map is generated in horizontal bands in parallel. Every band has its own random generator derived from the seed,
+ * so the result only depends on the parameters, not on the number of threads.
+ */
+public class MapGenerator {
+
+    /** The largest supported width and height. */
+    public static final int MAX_SIZE = 2048;
+
+    /** The smallest map that has room for the entrance, an enemy and an exit. */
+    public static final int MIN_SIZE = 5;
+
+    /** The number of rows that are generated together by one task. */
+    private static final int BAND_HEIGHT = 64;
+
+    /** The entrance is always in the bottom left corner. */
+    private static final int ENTRANCE_X = 1;
+    private static final int ENTRANCE_Y = 1;
+
+    private int width = 21;
+    private int height = 21;
+    private long seed = 0;
+    private float wallDensity = 0.5f;
+    private int enemyCount = 5;
+    private float powerUpRatio = 0.1f;
+
+    /**
+     * Sets the size of the map, including the border.
+     *
+     * @param width The width in tiles, from {@value #MIN_SIZE} to {@value #MAX_SIZE}.
+     * @param height The height in tiles, from {@value #MIN_SIZE} to {@value #MAX_SIZE}.
+     * @return this generator
+     */
+    public MapGenerator setSize(int width, int height) {
+        if (width < MIN_SIZE || height < MIN_SIZE || width > MAX_SIZE || height > MAX_SIZE) {
+            throw new IllegalArgumentException("The map size must be between " + MIN_SIZE + " and " + MAX_SIZE + ": " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        return this;
+    }
+
+    /**
+     * Sets the seed. The same seed and parameters always produce the same map.
+     *
+     * @param seed The seed.
+     * @return this generator
+     */
+    public MapGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Sets the share of free tiles that get a destructible wall.
+     *
+     * @param wallDensity The density, from 0 to 1.
+     * @return this generator
+     */
+    public MapGenerator setWallDensity(float wallDensity) {
+        if (wallDensity < 0 || wallDensity > 1) {
+            throw new IllegalArgumentException("The wall density must be between 0 and 1: " + wallDensity);
+        }
+        this.wallDensity = wallDensity;
+        return this;
+    }
+
+    /**
+     * Sets the number of enemies. If there are not enough free tiles, fewer enemies are placed.
+     *
+     * @param enemyCount The number of enemies.
+     * @return this generator
+     */
+    public MapGenerator setEnemyCount(int enemyCount) {
+        if (enemyCount < 0) {
+            throw new IllegalArgumentException("The enemy count must not be negative: " + enemyCount);
+        }
+        this.enemyCount = enemyCount;
+        return this;
+    }
+
+    /**
+     * Sets the share of destructible walls that hide a power-up.
+     *
+     * @param powerUpRatio The ratio, from 0 to 1.
+     * @return this generator
+     */
+    public MapGenerator setPowerUpRatio(float powerUpRatio) {
+        if (powerUpRatio < 0 || powerUpRatio > 1) {
+            throw new IllegalArgumentException("The power-up ratio must be between 0 and 1: " + powerUpRatio);
+        }
+        this.powerUpRatio = powerUpRatio;
+        return this;
+    }
+
+    /**
+     * Generates the map.
+     *
+     * @return the generated map
+     */
+    public MapGrid generate() {
+        MapGrid grid = new MapGrid(width, height);
+        int bands = (height + BAND_HEIGHT - 1) / BAND_HEIGHT;
+        IntStream.range(0, bands).parallel().forEach(band -> generateBand(grid, band));
+
+        SplittableRandom random = new SplittableRandom(seed);
+        byte[] tiles = grid.getTiles();
+        grid.add(ENTRANCE_X, ENTRANCE_Y, ENTRANCE);
+        placeExit(grid, random);
+
+        // Enemies are placed on free tiles by rejection sampling, which is fast as long as the map is not full
+        int freeBits = MapGrid.bit(INDESTRUCTIBLE_WALL) | MapGrid.bit(DESTRUCTIBLE_WALL) | MapGrid.bit(ENEMY) | MapGrid.bit(ENTRANCE);
+        int placed = 0;
+        for (int attempt = 0; placed < enemyCount && attempt < enemyCount * 20 + 1000; attempt++) {
+            int x = 1 + random.nextInt(width - 2);
+            int y = 1 + random.nextInt(height - 2);
+            if ((tiles[y * width + x] & freeBits) == 0 && !isSafeZone(x, y)) {
+                grid.add(x, y, ENEMY);
+                placed++;
+            }
+        }
+
+        if (!isExitReachable(grid)) {
+            throw new IllegalStateException("Generated a map with an unreachable exit, this is a bug in the generator");
+        }
+        return grid;
+    }
+
+    /**
+     * Generates the walls and power-ups of one band of rows with its own random generator.
+     */
+    private void generateBand(MapGrid grid, int band) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + band);
+        int endY = Math.min(height, (band + 1) * BAND_HEIGHT);
+        for (int y = band * BAND_HEIGHT; y < endY; y++) {
+            for (int x = 0; x < width; x++) {
+                boolean border = x == 0 || y == 0 || x == width - 1 || y == height - 1;
+                boolean pillar = x % 2 == 0 && y % 2 == 0;
+                if (border || pillar) {
+                    grid.add(x, y, INDESTRUCTIBLE_WALL);
+                } else if (!isSafeZone(x, y) && random.nextDouble() < wallDensity) {
+                    grid.add(x, y, DESTRUCTIBLE_WALL);
+                    if (random.nextDouble() < powerUpRatio) {
+                        grid.add(x, y, random.nextBoolean() ? BOMB_POWER_UP : BLAST_RADIUS_POWER_UP);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Hides the exit under a random destructible wall without a power-up.
+     * If there is none, a wall is added for the exit in the corner opposite to the entrance.
+     */
+    private void placeExit(MapGrid grid, SplittableRandom random) {
+        byte[] tiles = grid.getTiles();
+        int wallOnly = MapGrid.bit(DESTRUCTIBLE_WALL);
+        for (int attempt = 0; attempt < 1000; attempt++) {
+            int x = 1 + random.nextInt(width - 2);
+            int y = 1 + random.nextInt(height - 2);
+            if (tiles[y * width + x] == wallOnly) {
+                grid.add(x, y, EXIT);
+                return;
+            }
+        }
+        // Odd coordinates are never pillars
+        int x = (width - 2) % 2 == 0 ? width - 3 : width - 2;
+        int y = (height - 2) % 2 == 0 ? height - 3 : height - 2;
+        grid.add(x, y, DESTRUCTIBLE_WALL);
+        grid.add(x, y, EXIT);
+    }
+
+    /**
+     * The tiles next to the entrance stay free, so the player can place the first bomb and step aside.
+     */
+    private boolean isSafeZone(int x, int y) {
+        return x + y <= ENTRANCE_X + ENTRANCE_Y + 1 && x >= ENTRANCE_X && y >= ENTRANCE_Y;
+    }
+
+    /**
+     * Checks with a flood fill from the entrance that the exit can be reached when destructible walls are blown up.
+     *
+     * @param grid The map to check.
+     * @return true if the exit is reachable
+     */
+    public static boolean isExitReachable(MapGrid grid) {
+        int width = grid.getWidth();
+        byte[] tiles = grid.getTiles();
+        int blocked = MapGrid.bit(INDESTRUCTIBLE_WALL);
+        int entrance = -1;
+        for (int i = 0; i < tiles.length && entrance < 0; i++) {
+            if ((tiles[i] & MapGrid.bit(ENTRANCE)) != 0) {
+                entrance = i;
+            }
+        }
+        if (entrance < 0) {
+            return false;
+        }
+        BitSet visited = new BitSet(tiles.length);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        visited.set(entrance);
+        queue.add(entrance);
+        while (!queue.isEmpty()) {
+            int index = queue.poll();
+            if ((tiles[index] & MapGrid.bit(EXIT)) != 0) {
+                return true;
+            }
+            int x = index % width;
+            int[] neighbors = {
+                    x > 0 ? index - 1 : -1,
+                    x < width - 1 ? index + 1 : -1,
+                    index - width,
+                    index + width
+            };
+            for (int neighbor : neighbors) {
+                if (neighbor >= 0 && neighbor < tiles.length && !visited.get(neighbor) && (tiles[neighbor] & blocked) == 0) {
+                    visited.set(neighbor);
+                    queue.add(neighbor);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes a map in the text format. The border is written as a single rectangle line.
+     *
+     * @param grid The map to write.
+     * @param path The file to write to.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void writeText(MapGrid grid, Path path) throws IOException {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+            writer.write("# Generated Bomber Quest map, " + width + "x" + height + "\n");
+            writer.write("rect 0,0 " + (width - 1) + "," + (height - 1) + " border=" + INDESTRUCTIBLE_WALL + "\n");
+            for (int y = 1; y < height - 1; y++) {
+                for (int x = 1; x < width - 1; x++) {
+                    int mask = grid.getMask(x, y);
+                    for (int objectType = 0; mask != 0; objectType++, mask >>>= 1) {
+                        if ((mask & 1) != 0) {
+                            writer.write(x + "," + y + "=" + objectType + "\n");
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates a map from the command line:
+     * {@code MapGenerator [--width=N] [--height=N] [--seed=N] [--walls=0.5] [--enemies=N] [--powerups=0.1] [--binary] <output>}.
+     * Without {@code --binary}, the map is written in the text format.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) throws IOException {
+        MapGenerator generator = new MapGenerator();
+        int width = 21;
+        int height = 21;
+        boolean binary = false;
+        Path output = null;
+        for (String arg : args) {
+            if (arg.startsWith("--width=")) {
+                width = Integer.parseInt(arg.substring("--width=".length()));
+            } else if (arg.startsWith("--height=")) {
+                height = Integer.parseInt(arg.substring("--height=".length()));
+            } else if (arg.startsWith("--seed=")) {
+                generator.setSeed(Long.parseLong(arg.substring("--seed=".length())));
+            } else if (arg.startsWith("--walls=")) {
+                generator.setWallDensity(Float.parseFloat(arg.substring("--walls=".length())));
+            } else if (arg.startsWith("--enemies=")) {
+                generator.setEnemyCount(Integer.parseInt(arg.substring("--enemies=".length())));
+            } else if (arg.startsWith("--powerups=")) {
+                generator.setPowerUpRatio(Float.parseFloat(arg.substring("--powerups=".length())));
+            } else if (arg.equals("--binary")) {
+                binary = true;
+            } else if (!arg.startsWith("--") && output == null) {
+                output = Paths.get(arg);
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        if (output == null) {
+            System.err.println("Usage: MapGenerator [--width=N] [--height=N] [--seed=N] [--walls=0.5] [--enemies=N] [--powerups=0.1] [--binary] <output>");
+            System.exit(1);
+        }
+        generator.setSize(width, height);
+
+        long start = System.nanoTime();
+        MapGrid grid = generator.generate();
+        long generated = System.nanoTime();
+        if (binary) {
+            MapFile.write(grid, output);
+        } else {
+            writeText(grid, output);
+        }
+        long written = System.nanoTime();
+        System.out.printf("Generated %dx%d map in %d ms, wrote %s (%d bytes) in %d ms%n", width, height,
+                (generated - start) / 1_000_000, output, Files.size(output), (written - generated) / 1_000_000);
+    }
+}
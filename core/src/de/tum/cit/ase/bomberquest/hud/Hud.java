@@ -5,10 +5,8 @@
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.utils.TimeUtils;
-import de.tum.cit.ase.bomberquest.gamemechanism.GameTimer;
 import de.tum.cit.ase.bomberquest.map.GameMap;
-import de.tum.cit.ase.bomberquest.map.Player;
+import de.tum.cit.ase.bomberquest.render.RenderSnapshot;
 import de.tum.cit.ase.bomberquest.texture.Textures;
 
 /**
@@ -24,24 +22,24 @@ public class Hud {
     private final BitmapFont font;
     /** The camera used to render the HUD. */
     private final OrthographicCamera camera;
-    private final GameTimer gameTimer;
-    private final Player player;
-    private final GameMap map;
+    /** The minimap shown in the top right corner of the screen. */
+    private final Minimap minimap;
     
-    public Hud(SpriteBatch spriteBatch, BitmapFont font, GameTimer gameTimer, Player player,GameMap map) {
+    public Hud(SpriteBatch spriteBatch, BitmapFont font, GameMap map) {
         this.spriteBatch = spriteBatch;
         this.font = font;
         this.camera = new OrthographicCamera();
-        this.gameTimer=gameTimer;
-        this.player=player;
-        this.map=map;
+        this.minimap = new Minimap(map);
     }
     
     /**
      * Renders the HUD on the screen.
      * This uses a different OrthographicCamera so that the HUD is always fixed on the screen.
+     * All values are read from the snapshot, never from the map, which may be simulated on another thread.
+     *
+     * @param snapshot The latest state of the game.
      */
-    public void render() {
+    public void render(RenderSnapshot snapshot) {
         // Render from the camera's perspective
         spriteBatch.setProjectionMatrix(camera.combined);
 
@@ -56,27 +54,32 @@ public void render() {
         // Restore font scale for the rest of the text
         font.getData().setScale(0.75f, 0.75f);
 
-        // Calculate and display the remaining time in MM:SS format
-        long elapsedTime = TimeUtils.timeSinceMillis(gameTimer.getStartTime());
-        long remainingTimeMillis = Math.max(0, GameTimer.TOTAL_TIME_MILLIS - elapsedTime);
+        // Display the remaining game time in MM:SS format, it only passes while the simulation runs
+        long remainingTimeMillis = snapshot.getRemainingMillis();
         long minutes = remainingTimeMillis / 60000;
         long seconds = (remainingTimeMillis % 60000) / 1000;
         font.setColor(Color.LIGHT_GRAY);
 
         String timeText = String.format("Time Remaining: %02d:%02d", minutes, seconds);
+        float timeScale = snapshot.getTimeScale();
+        if (snapshot.isPaused()) {
+            timeText += "  (paused)";
+        } else if (timeScale != 1) {
+            timeText += String.format("  (x%s)", timeScale < 1 ? timeScale : (int) timeScale);
+        }
         font.draw(spriteBatch, timeText, 10, Gdx.graphics.getHeight() - 40);
 
         // Draw concurrent bomb count with image
         font.setColor(Color.WHITE);
         spriteBatch.draw(Textures.CONCURRENTBOMB, 10, Gdx.graphics.getHeight() - 95);
-        font.draw(spriteBatch, "Bombs placeable: " + player.getConcurrentBombCount(), 40, Gdx.graphics.getHeight() - 80);
+        font.draw(spriteBatch, "Bombs placeable: " + snapshot.getConcurrentBombCount(), 40, Gdx.graphics.getHeight() - 80);
 
         // Draw blast radius value with image
         spriteBatch.draw(Textures.BLASTRADIUS, 10, Gdx.graphics.getHeight() - 125);
-        font.draw(spriteBatch, "Blast radius:  " + player.getBlastRadius(), 40, Gdx.graphics.getHeight() - 110);
+        font.draw(spriteBatch, "Blast radius:  " + snapshot.getBlastRadius(), 40, Gdx.graphics.getHeight() - 110);
 
         // Draw the "Clear enemies to unlock the exit!" warning, if enemies are cleared, draw the "exit unlocked" text
-        if (!map.enemiesCleared) {
+        if (!snapshot.isEnemiesCleared()) {
             font.setColor(Color.RED);
             font.draw(spriteBatch, "Clear enemies\nto unlock the exit!", 10, Gdx.graphics.getHeight() - 150);
             font.setColor(Color.WHITE);
@@ -87,10 +90,13 @@ public void render() {
         }
 
         // Draw the count for remaining enemies
-        if (!map.enemiesCleared) {
-            font.draw(spriteBatch, "Enemies left: " + map.getEnemies().size(), 10, Gdx.graphics.getHeight() - 220);
+        if (!snapshot.isEnemiesCleared()) {
+            font.draw(spriteBatch, "Enemies left: " + snapshot.getEnemiesLeft(), 10, Gdx.graphics.getHeight() - 220);
         }
 
+        // Draw the minimap
+        minimap.render(spriteBatch, snapshot, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+
         // Finish drawing
         spriteBatch.end();
     }
@@ -105,5 +111,19 @@ public void render() {
     public void resize(int width, int height) {
         camera.setToOrtho(false, width, height);
     }
+
+    /**
+     * Shows or hides the minimap.
+     */
+    public void toggleMinimap() {
+        minimap.toggle();
+    }
+
+    /**
+     * Releases the resources of the HUD.
+     */
+    public void dispose() {
+        minimap.dispose();
+    }
     
 }
@@ -0,0 +1,270 @@
+package de.tum.cit.ase.bomberquest.hud;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import de.tum.cit.ase.bomberquest.gamemechanism.MapGrid;
+import de.tum.cit.ase.bomberquest.gamemechanism.MapLoader;
+import de.tum.cit.ase.bomberquest.map.*;
+import de.tum.cit.ase.bomberquest.render.RenderSnapshot;
+
+import java.util.Arrays;
+
+/**
+ * A minimap that shows the whole map with one pixel per tile.
+ * The static layer (walls, revealed power-ups, the exit) lives in a small texture which is built once
+ * and afterwards only updated for the tiles reported by {@link MapChangeListener}.
+ * Actors (player, enemies, bombs) are drawn as dots on top of it every frame.
+ * The minimap never reads the map after it is created, since the map may be simulated on another thread meanwhile.
+ */
+public class Minimap implements MapChangeListener {
+
+    /** The maximum size of the minimap on the screen in pixels. */
+    private static final float MAX_SIZE_PX = 200f;
+
+    /** Bits describing what is stored on a tile. A tile can hold more than one of these. */
+    private static final byte INDESTRUCTIBLE_WALL = 1;
+    private static final byte DESTRUCTIBLE_WALL = 1 << 1;
+    private static final byte POWER_UP = 1 << 2;
+    private static final byte EXIT = 1 << 3;
+    private static final byte EXIT_ACTIVE = 1 << 4;
+
+    /** Colors of the static layer in RGBA8888 format. */
+    private static final int FLOOR_COLOR = 0x2f4f2fff;
+    private static final int INDESTRUCTIBLE_WALL_COLOR = 0x5a5a5aff;
+    private static final int DESTRUCTIBLE_WALL_COLOR = 0x8b5a2bff;
+    private static final int POWER_UP_COLOR = 0xffd700ff;
+    private static final int EXIT_COLOR = 0x00ff66ff;
+
+    private final GameMap map;
+    /** The tiles the map was loaded from, which never change. */
+    private final MapGrid grid;
+    private final int width;
+    private final int height;
+    /** The tile of the exit, or -1 if the map has no exit. */
+    private final int exitX;
+    private final int exitY;
+    /** The content of every tile, indexed by {@code y * width + x}. */
+    private final byte[] tiles;
+    /** CPU side copy of the static layer, one pixel per tile. */
+    private final Pixmap pixmap;
+    /** A single pixel used to upload changed tiles to the texture. */
+    private final Pixmap tilePixel;
+    private final Texture texture;
+    /** A white pixel that is tinted to draw the actor dots. */
+    private final Texture dot;
+    private boolean visible = true;
+
+    /**
+     * Creates the minimap and draws the static layer once from the tiles of the map.
+     * The map must not be simulated meanwhile.
+     * The minimap registers itself as a change listener of the map, so {@link #dispose()} must be called
+     * when it is no longer used.
+     *
+     * @param map The map to show.
+     */
+    public Minimap(GameMap map) {
+        this.map = map;
+        this.grid = map.getGrid();
+        this.width = Math.max(1, map.getWidth());
+        this.height = Math.max(1, map.getHeight());
+        this.tiles = new byte[width * height];
+        Exit exit = map.getExit();
+        this.exitX = exit != null ? Math.round(exit.getX()) : -1;
+        this.exitY = exit != null ? Math.round(exit.getY()) : -1;
+        readTiles(map.getDelta(), exit != null && exit.isActive());
+
+        this.pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+        drawTiles();
+        this.texture = new Texture(pixmap);
+        this.tilePixel = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+
+        Pixmap white = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+        white.setColor(Color.WHITE);
+        white.fill();
+        this.dot = new Texture(white);
+        white.dispose();
+
+        map.addChangeListener(this);
+    }
+
+    /**
+     * Reads the content of every tile from the grid and the changes made to it.
+     *
+     * @param delta The destroyed walls and collected power-ups.
+     * @param exitActive Whether the exit is unlocked.
+     */
+    private void readTiles(MapDelta delta, boolean exitActive) {
+        Arrays.fill(tiles, (byte) 0);
+        // Read the tiles instead of the game objects, since only the chunks around the player have objects
+        int powerUpBits = MapGrid.bit(MapLoader.BOMB_POWER_UP) | MapGrid.bit(MapLoader.BLAST_RADIUS_POWER_UP);
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                int mask = grid.getMask(x, y);
+                if ((mask & MapGrid.bit(MapLoader.INDESTRUCTIBLE_WALL)) != 0) {
+                    mark(x, y, INDESTRUCTIBLE_WALL);
+                }
+                if ((mask & MapGrid.bit(MapLoader.DESTRUCTIBLE_WALL)) != 0 && !delta.isWallDestroyed(x, y)) {
+                    mark(x, y, DESTRUCTIBLE_WALL);
+                }
+                if ((mask & powerUpBits) != 0 && !delta.isPowerUpCollected(x, y)) {
+                    mark(x, y, POWER_UP);
+                }
+            }
+        }
+        if (exitX >= 0) {
+            mark(exitX, exitY, exitActive ? (byte) (EXIT | EXIT_ACTIVE) : EXIT);
+        }
+    }
+
+    /**
+     * Draws all tiles into the pixmap of the static layer.
+     */
+    private void drawTiles() {
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                // Pixmaps start at the top left, while the map starts at the bottom left
+                pixmap.drawPixel(x, height - 1 - y, colorOf(tiles[y * width + x]));
+            }
+        }
+    }
+
+    /**
+     * Draws the minimap in the top right corner of the screen.
+     * This should only be called between spriteBatch.begin() and spriteBatch.end().
+     *
+     * @param spriteBatch The SpriteBatch to draw with.
+     * @param snapshot The latest state of the map, which the actor dots are taken from.
+     * @param screenWidth The width of the screen in pixels.
+     * @param screenHeight The height of the screen in pixels.
+     */
+    public void render(SpriteBatch spriteBatch, RenderSnapshot snapshot, float screenWidth, float screenHeight) {
+        if (!visible) {
+            return;
+        }
+        float scale = MAX_SIZE_PX / Math.max(width, height);
+        float originX = screenWidth - width * scale - 10;
+        float originY = screenHeight - height * scale - 10;
+        spriteBatch.draw(texture, originX, originY, width * scale, height * scale);
+
+        // Actors are cheap to draw as dots, so they are simply redrawn every frame
+        float dotSize = Math.max(2f, scale);
+        spriteBatch.setColor(Color.ORANGE);
+        drawDots(spriteBatch, snapshot.getBombs(), originX, originY, scale, dotSize);
+        spriteBatch.setColor(Color.RED);
+        drawDots(spriteBatch, snapshot.getEnemies(), originX, originY, scale, dotSize);
+        spriteBatch.setColor(Color.CYAN);
+        RenderSnapshot.Sprite player = snapshot.getPlayer();
+        drawDot(spriteBatch, player.getX(), player.getY(), originX, originY, scale, dotSize);
+        spriteBatch.setColor(Color.WHITE);
+    }
+
+    private void drawDots(SpriteBatch spriteBatch, RenderSnapshot.SpriteList sprites, float originX, float originY, float scale, float dotSize) {
+        for (int i = 0; i < sprites.size(); i++) {
+            RenderSnapshot.Sprite sprite = sprites.get(i);
+            drawDot(spriteBatch, sprite.getX(), sprite.getY(), originX, originY, scale, dotSize);
+        }
+    }
+
+    private void drawDot(SpriteBatch spriteBatch, float tileX, float tileY, float originX, float originY, float scale, float dotSize) {
+        float x = originX + (tileX + 0.5f) * scale - dotSize / 2f;
+        float y = originY + (tileY + 0.5f) * scale - dotSize / 2f;
+        spriteBatch.draw(dot, x, y, dotSize, dotSize);
+    }
+
+    /** Shows or hides the minimap. */
+    public void toggle() {
+        visible = !visible;
+    }
+
+    @Override
+    public void wallRemoved(int x, int y) {
+        update(x, y, DESTRUCTIBLE_WALL, false);
+    }
+
+    @Override
+    public void wallRestored(int x, int y) {
+        update(x, y, DESTRUCTIBLE_WALL, true);
+    }
+
+    @Override
+    public void powerUpRemoved(int x, int y) {
+        update(x, y, POWER_UP, false);
+    }
+
+    @Override
+    public void powerUpRestored(int x, int y) {
+        update(x, y, POWER_UP, true);
+    }
+
+    @Override
+    public void exitActivated(int x, int y) {
+        update(x, y, EXIT_ACTIVE, true);
+    }
+
+    @Override
+    public void exitDeactivated(int x, int y) {
+        update(x, y, EXIT_ACTIVE, false);
+    }
+
+    @Override
+    public void mapReset(MapDelta delta, boolean exitActive) {
+        readTiles(delta, exitActive);
+        drawTiles();
+        texture.draw(pixmap, 0, 0);
+    }
+
+    /**
+     * Changes the content of a single tile and uploads only that pixel to the texture.
+     */
+    private void update(int x, int y, byte bit, boolean set) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return;
+        }
+        int index = y * width + x;
+        tiles[index] = (byte) (set ? tiles[index] | bit : tiles[index] & ~bit);
+        int color = colorOf(tiles[index]);
+        pixmap.drawPixel(x, height - 1 - y, color);
+        tilePixel.drawPixel(0, 0, color);
+        texture.draw(tilePixel, x, height - 1 - y);
+    }
+
+    private void mark(float tileX, float tileY, byte bit) {
+        int x = Math.round(tileX);
+        int y = Math.round(tileY);
+        if (x >= 0 && y >= 0 && x < width && y < height) {
+            tiles[y * width + x] |= bit;
+        }
+    }
+
+    /**
+     * Returns the color of a tile. Walls hide whatever is underneath them.
+     */
+    private static int colorOf(byte tile) {
+        if ((tile & INDESTRUCTIBLE_WALL) != 0) {
+            return INDESTRUCTIBLE_WALL_COLOR;
+        }
+        if ((tile & DESTRUCTIBLE_WALL) != 0) {
+            return DESTRUCTIBLE_WALL_COLOR;
+        }
+        if ((tile & EXIT_ACTIVE) != 0) {
+            return EXIT_COLOR;
+        }
+        if ((tile & POWER_UP) != 0) {
+            return POWER_UP_COLOR;
+        }
+        return FLOOR_COLOR;
+    }
+
+    /**
+     * Unregisters the minimap from the map and releases its textures.
+     */
+    public void dispose() {
+        map.removeChangeListener(this);
+        texture.dispose();
+        dot.dispose();
+        pixmap.dispose();
+        tilePixel.dispose();
+    }
+}
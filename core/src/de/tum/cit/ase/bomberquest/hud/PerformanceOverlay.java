@@ -0,0 +1,186 @@
+package de.tum.cit.ase.bomberquest.hud;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import de.tum.cit.ase.bomberquest.gamemechanism.FrameProfiler;
+
+/**
+ * Shows where the time of a frame goes: the timings of the {@link FrameProfiler}, the draw calls and texture binds
+ * of the frame, the size of the Box2D world and how much memory the frame allocated.
+ * <p>
+ * The values are averaged over {@value #REFRESH_FRAMES} frames and the text is only rebuilt then, so it can be read
+ * and does not add to the allocations it shows. While the overlay is hidden, neither the profiler nor the
+ * {@link GLProfiler}, which wraps every OpenGL call, is enabled.
+ */
+public class PerformanceOverlay {
+
+    /** The number of frames the values are averaged over. */
+    private static final int REFRESH_FRAMES = 30;
+    private static final FrameProfiler.Section[] SECTIONS = FrameProfiler.Section.values();
+
+    private final SpriteBatch spriteBatch;
+    private final BitmapFont font;
+    private final OrthographicCamera camera = new OrthographicCamera();
+    /** Counts the OpenGL calls, created when the overlay is shown first, since it wraps the OpenGL calls of that time. */
+    private GLProfiler glProfiler;
+    private boolean visible = false;
+    /** The text that is drawn, reused so refreshing it does not allocate. */
+    private final StringBuilder text = new StringBuilder(512);
+
+    // The sums of the frames since the text was refreshed
+    private final long[] sectionNanos = new long[SECTIONS.length];
+    private long physicsSteps;
+    private long drawCalls;
+    private long textureBindings;
+    private long allocatedBytes;
+    private int frames;
+
+    /**
+     * @param spriteBatch The SpriteBatch of the game.
+     * @param font The font to draw the values with.
+     */
+    public PerformanceOverlay(SpriteBatch spriteBatch, BitmapFont font) {
+        this.spriteBatch = spriteBatch;
+        this.font = font;
+    }
+
+    /**
+     * Shows or hides the overlay, and starts or stops measuring with it.
+     */
+    public void toggle() {
+        if (visible) {
+            hide();
+            return;
+        }
+        if (glProfiler == null) {
+            glProfiler = new GLProfiler(Gdx.graphics);
+        }
+        glProfiler.enable();
+        glProfiler.reset();
+        FrameProfiler.setEnabled(true);
+        visible = true;
+        clearSums();
+        text.setLength(0);
+        text.append("Measuring...");
+    }
+
+    /**
+     * Hides the overlay and stops measuring, e.g. when the game screen is left.
+     */
+    public void hide() {
+        if (!visible) {
+            return;
+        }
+        visible = false;
+        FrameProfiler.setEnabled(false);
+        glProfiler.disable();
+    }
+
+    /**
+     * Ends the measurement of the frame and draws the values. Called last in the frame, so the OpenGL calls of
+     * the overlay itself are counted in the next frame.
+     *
+     * @param inputLatencyNanos The time between the latest key press and the tick it was passed to.
+     */
+    public void render(long inputLatencyNanos) {
+        if (!visible) {
+            return;
+        }
+        FrameProfiler.endFrame();
+        for (int i = 0; i < SECTIONS.length; i++) {
+            sectionNanos[i] += FrameProfiler.getNanos(SECTIONS[i]);
+        }
+        physicsSteps += FrameProfiler.getPhysicsSteps();
+        drawCalls += glProfiler.getDrawCalls();
+        textureBindings += glProfiler.getTextureBindings();
+        allocatedBytes += FrameProfiler.getAllocatedBytes();
+        glProfiler.reset();
+        if (++frames == REFRESH_FRAMES) {
+            refreshText(inputLatencyNanos);
+            clearSums();
+        }
+
+        spriteBatch.setProjectionMatrix(camera.combined);
+        spriteBatch.begin();
+        font.getData().setScale(0.5f, 0.5f);
+        font.setColor(Color.YELLOW);
+        font.draw(spriteBatch, text, 10, Gdx.graphics.getHeight() - 260);
+        font.setColor(Color.WHITE);
+        spriteBatch.end();
+    }
+
+    /**
+     * Writes the averages of the last frames into the text.
+     */
+    private void refreshText(long inputLatencyNanos) {
+        text.setLength(0);
+        text.append("FPS: ").append(Gdx.graphics.getFramesPerSecond()).append('\n');
+        for (int i = 0; i < SECTIONS.length; i++) {
+            text.append(SECTIONS[i].getLabel()).append(": ");
+            appendMillis(sectionNanos[i] / frames);
+            if (SECTIONS[i] == FrameProfiler.Section.PHYSICS) {
+                // Tenths of a step, since the tick rate rarely matches the frame rate
+                long tenths = physicsSteps * 10 / frames;
+                text.append(" (").append(tenths / 10).append('.').append(tenths % 10).append(" steps)");
+            }
+            text.append('\n');
+        }
+        text.append("Input latency: ");
+        appendMillis(inputLatencyNanos);
+        text.append('\n');
+        text.append("Draw calls: ").append(drawCalls / frames)
+                .append(", texture binds: ").append(textureBindings / frames).append('\n');
+        text.append("Bodies: ").append(FrameProfiler.getCount(FrameProfiler.Count.BODIES))
+                .append(", contacts: ").append(FrameProfiler.getCount(FrameProfiler.Count.CONTACTS)).append('\n');
+        text.append("Enemies: ").append(FrameProfiler.getCount(FrameProfiler.Count.ENEMIES))
+                .append(", bombs: ").append(FrameProfiler.getCount(FrameProfiler.Count.BOMBS))
+                .append(", explosions: ").append(FrameProfiler.getCount(FrameProfiler.Count.EXPLOSIONS))
+                .append(", power-ups: ").append(FrameProfiler.getCount(FrameProfiler.Count.POWER_UPS)).append('\n');
+        text.append("Allocated: ");
+        if (allocatedBytes < 0) {
+            text.append("unknown");
+        } else {
+            text.append(allocatedBytes / frames / 1024).append(" KB per frame");
+        }
+    }
+
+    /**
+     * Appends a duration in milliseconds with three decimals, without the allocations of String.format.
+     */
+    private void appendMillis(long nanos) {
+        long micros = nanos / 1000;
+        text.append(micros / 1000).append('.');
+        long fraction = micros % 1000;
+        if (fraction < 100) {
+            text.append('0');
+        }
+        if (fraction < 10) {
+            text.append('0');
+        }
+        text.append(fraction).append(" ms");
+    }
+
+    private void clearSums() {
+        for (int i = 0; i < SECTIONS.length; i++) {
+            sectionNanos[i] = 0;
+        }
+        physicsSteps = 0;
+        drawCalls = 0;
+        textureBindings = 0;
+        allocatedBytes = 0;
+        frames = 0;
+    }
+
+    /**
+     * Resizes the overlay when the screen size changes.
+     * @param width The new width of the screen.
+     * @param height The new height of the screen.
+     */
+    public void resize(int width, int height) {
+        camera.setToOrtho(false, width, height);
+    }
+}
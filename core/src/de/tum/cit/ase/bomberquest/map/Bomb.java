@@ -2,8 +2,7 @@
 
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
-import de.tum.cit.ase.bomberquest.audio.MusicTrack;
-import de.tum.cit.ase.bomberquest.screens.YouLoseScreen;
+import de.tum.cit.ase.bomberquest.audio.SoundEffect;
 import de.tum.cit.ase.bomberquest.texture.Animations;
 import de.tum.cit.ase.bomberquest.texture.Drawable;
 
@@ -12,32 +11,35 @@
  */
 public class Bomb extends GameObject implements Drawable {
 
-    private float timer = 3; // Time until explosion
+    /** The time from placing a bomb until it explodes, in seconds. */
+    public static final float FUSE_TIME = 3;
+
     private int blastRadius;
-    private float elapsedTime = 0; // For animation purposes
     private boolean isExploded = false;
     private final GameMap gameMap;
+    /** The tick the bomb was placed in, which is where its animation starts. */
+    private long placedTick;
+    /** The explosion of the bomb, which the map's scheduler runs when the fuse has burnt down. */
+    private TimingWheel.Timeout detonation;
 
+    /**
+     * Places a bomb in the current tick of the map. It explodes by itself after {@link #FUSE_TIME}.
+     */
     public Bomb(float x, float y, int blastRadius, GameMap gameMap) {
         super(x, y);  // Call the parent class constructor
         this.blastRadius = blastRadius;
         this.gameMap = gameMap;
+        this.placedTick = gameMap.getTickCount();
+        this.detonation = gameMap.getScheduler().schedule(placedTick + gameMap.secondsToTicks(FUSE_TIME), this::explode);
     }
 
     /**
-     * Updates the bomb's state, including the timer and animation.
+     * Bombs do not need to be updated every tick: the animation follows the tick count of the map,
+     * and the explosion is scheduled when the bomb is placed.
      * @param deltaTime Time elapsed since the last frame.
      */
     @Override
     public void update(float deltaTime) {
-        if (!isExploded) {
-            elapsedTime += deltaTime; // Update animation time
-            timer -= deltaTime; // Count down the timer
-
-            if (timer <= 0) {
-                explode(); // Trigger explosion once the timer reaches zero
-            }
-        }
     }
 
     /**
@@ -46,8 +48,8 @@ public void update(float deltaTime) {
      */
     private void explode() {
         isExploded = true;
-        MusicTrack.BOMBEXPLODE.dispose(); // Dispose previous explosion sound
-        MusicTrack.BOMBEXPLODE.play(); // Play explosion sound
+        removeBomb(this);
+        SoundEffect.BOMBEXPLODE.play(); // Play explosion sound
         createExplosionTiles(); // Create explosion effect tiles
         Vector2 bombPosition = new Vector2(getX(), getY());
         handleExplosion(bombPosition, blastRadius, this); // Handle explosion damage and effects
@@ -117,19 +119,8 @@ public void handleExplosion(Vector2 position, int blastRadius, Bomb bomb) {
      * @return true if the tile is available for explosion, false if blocked.
      */
     public boolean isTileAvailable(float x, float y) {
-        // Check if the tile is blocked by any indestructible wall
-        for (IndestructibleWall wall : gameMap.getIndestructibleWalls()) {
-            if (Math.round(wall.getX()) == x && Math.round(wall.getY()) == y) {
-                return false; // Blocked by an indestructible wall
-            }
-        }
-        // Check if the tile is blocked by any destructible wall
-        for (DestructibleWall wall : gameMap.getDestructibleWalls()) {
-            if (Math.round(wall.getX()) == x && Math.round(wall.getY()) == y) {
-                return false; // Blocked by a destructible wall
-            }
-        }
-        return true; // The tile is available
+        // Look the tile up directly instead of searching all walls
+        return !gameMap.hasWallAt(Math.round(x), Math.round(y));
     }
 
     /**
@@ -146,20 +137,19 @@ public void checkTile(float x, float y) {
         // Check for enemies at the specified tile and apply damage
         for (Enemy enemy : gameMap.getEnemies()) {
             if (Math.round(enemy.getX()) == x && Math.round(enemy.getY()) == y) {
-                MusicTrack.ENEMYDIE.play(); // Play enemy death sound
+                SoundEffect.ENEMYDIE.play(); // Play enemy death sound
                 gameMap.queueEnemyForRemoval(enemy); // Remove the enemy from the game
             }
         }
         // Check for destructible walls at the specified tile and destroy them
-        for (DestructibleWall wall : gameMap.getDestructibleWalls()) {
-            if (Math.round(wall.getX()) == x && Math.round(wall.getY()) == y) {
-                gameMap.queueWallForRemoval(wall); // Remove the destructible wall from the game
-            }
+        DestructibleWall wall = findDestructibleWall(x, y);
+        if (wall != null) {
+            gameMap.queueWallForRemoval(wall); // Remove the destructible wall from the game
         }
         // Check if the player is at the specified tile and handle player death
         if (Math.round(gameMap.getPlayer().getX()) == x && Math.round(gameMap.getPlayer().getY()) == y) {
-            MusicTrack.PLAYERDIE.play(); // Play player death sound
-            gameMap.getGame().setScreen(new YouLoseScreen(gameMap.getGame())); // Game over
+            SoundEffect.PLAYERDIE.play(); // Play player death sound
+            gameMap.finish(GameMap.Outcome.LOST); // Game over
         }
     }
 
@@ -170,12 +160,7 @@ public void checkTile(float x, float y) {
      * @return true if the tile contains a destructible wall, false otherwise.
      */
     private boolean isDestructibleWall(float x, float y) {
-        for (DestructibleWall wall : gameMap.getDestructibleWalls()) {
-            if (Math.round(wall.getX()) == x && Math.round(wall.getY()) == y) {
-                return true; // The tile contains a destructible wall
-            }
-        }
-        return false; // No destructible wall at this tile
+        return gameMap.hasDestructibleWall(Math.round(x), Math.round(y));
     }
 
     /**
@@ -183,7 +168,7 @@ private boolean isDestructibleWall(float x, float y) {
      * Handles interactions with walls (destructible and indestructible).
      */
     private void createExplosionTiles() {
-        gameMap.getExplosionTiles().add(new ExplosionTile(getX(), getY(), Animations.EXPLOSION_CENTER)); // Add center explosion tile
+        gameMap.addExplosionTile(new ExplosionTile(getX(), getY(), Animations.EXPLOSION_CENTER, gameMap)); // Add center explosion tile
         boolean RightStop = false, LeftStop = false, UpStop = false, DownStop = false;
 
         // Generate explosion tiles in all directions (right, left, up, down) based on the blast radius
@@ -191,11 +176,11 @@ private void createExplosionTiles() {
             // Right
             if (!RightStop) {
                 if (isTileAvailable(getX() + i, getY())) {
-                    gameMap.getExplosionTiles().add(new ExplosionTile(getX() + i, getY(),
-                            i == blastRadius ? Animations.EXPLOSION_END_R : Animations.EXPLOSION_HORIZONTAL));
+                    gameMap.addExplosionTile(new ExplosionTile(getX() + i, getY(),
+                            i == blastRadius ? Animations.EXPLOSION_END_R : Animations.EXPLOSION_HORIZONTAL, gameMap));
                 } else {
                     if (isDestructibleWall(getX() + i, getY())) {
-                        gameMap.getExplosionTiles().add(new ExplosionTile(getX() + i, getY(), Animations.EXPLOSION_END_R));
+                        gameMap.addExplosionTile(new ExplosionTile(getX() + i, getY(), Animations.EXPLOSION_END_R, gameMap));
                         gameMap.queueWallForRemoval(findDestructibleWall(getX() + i, getY())); // Destroy the wall
                     }
                     RightStop = true; // Stop further explosion in this direction
@@ -205,11 +190,11 @@ private void createExplosionTiles() {
             // Left
             if (!LeftStop) {
                 if (isTileAvailable(getX() - i, getY())) {
-                    gameMap.getExplosionTiles().add(new ExplosionTile(getX() - i, getY(),
-                            i == blastRadius ? Animations.EXPLOSION_END_L : Animations.EXPLOSION_HORIZONTAL));
+                    gameMap.addExplosionTile(new ExplosionTile(getX() - i, getY(),
+                            i == blastRadius ? Animations.EXPLOSION_END_L : Animations.EXPLOSION_HORIZONTAL, gameMap));
                 } else {
                     if (isDestructibleWall(getX() - i, getY())) {
-                        gameMap.getExplosionTiles().add(new ExplosionTile(getX() - i, getY(), Animations.EXPLOSION_END_L));
+                        gameMap.addExplosionTile(new ExplosionTile(getX() - i, getY(), Animations.EXPLOSION_END_L, gameMap));
                         gameMap.queueWallForRemoval(findDestructibleWall(getX() - i, getY())); // Destroy the wall
                     }
                     LeftStop = true; // Stop further explosion in this direction
@@ -219,11 +204,11 @@ private void createExplosionTiles() {
             // Up
             if (!UpStop) {
                 if (isTileAvailable(getX(), getY() + i)) {
-                    gameMap.getExplosionTiles().add(new ExplosionTile(getX(), getY() + i,
-                            i == blastRadius ? Animations.EXPLOSION_END_UP : Animations.EXPLOSION_VERTICAL));
+                    gameMap.addExplosionTile(new ExplosionTile(getX(), getY() + i,
+                            i == blastRadius ? Animations.EXPLOSION_END_UP : Animations.EXPLOSION_VERTICAL, gameMap));
                 } else {
                     if (isDestructibleWall(getX(), getY() + i)) {
-                        gameMap.getExplosionTiles().add(new ExplosionTile(getX(), getY() + i, Animations.EXPLOSION_END_UP));
+                        gameMap.addExplosionTile(new ExplosionTile(getX(), getY() + i, Animations.EXPLOSION_END_UP, gameMap));
                         gameMap.queueWallForRemoval(findDestructibleWall(getX(), getY() + i)); // Destroy the wall
                     }
                     UpStop = true; // Stop further explosion in this direction
@@ -233,11 +218,11 @@ private void createExplosionTiles() {
             // Down
             if (!DownStop) {
                 if (isTileAvailable(getX(), getY() - i)) {
-                    gameMap.getExplosionTiles().add(new ExplosionTile(getX(), getY() - i,
-                            i == blastRadius ? Animations.EXPLOSION_END_DOWN : Animations.EXPLOSION_VERTICAL));
+                    gameMap.addExplosionTile(new ExplosionTile(getX(), getY() - i,
+                            i == blastRadius ? Animations.EXPLOSION_END_DOWN : Animations.EXPLOSION_VERTICAL, gameMap));
                 } else {
                     if (isDestructibleWall(getX(), getY() - i)) {
-                        gameMap.getExplosionTiles().add(new ExplosionTile(getX(), getY() - i, Animations.EXPLOSION_END_DOWN));
+                        gameMap.addExplosionTile(new ExplosionTile(getX(), getY() - i, Animations.EXPLOSION_END_DOWN, gameMap));
                         gameMap.queueWallForRemoval(findDestructibleWall(getX(), getY() - i)); // Destroy the wall
                     }
                     DownStop = true; // Stop further explosion in this direction
@@ -250,15 +235,10 @@ private void createExplosionTiles() {
      * Finds and returns a destructible wall at the specified position.
      * @param x The x-coordinate of the tile.
      * @param y The y-coordinate of the tile.
-     * @return The destructible wall at the specified position, or null if no wall is found.
+     * @return The destructible wall at the specified position, or null if no wall is found or its chunk is not loaded.
      */
     private DestructibleWall findDestructibleWall(float x, float y) {
-        for (DestructibleWall wall : gameMap.getDestructibleWalls()) {
-            if (Math.round(wall.getX()) == x && Math.round(wall.getY()) == y) {
-                return wall; // Return the destructible wall at the specified position
-            }
-        }
-        return null; // No destructible wall found at the specified position
+        return gameMap.getDestructibleWallAt(Math.round(x), Math.round(y));
     }
 
     /**
@@ -267,6 +247,7 @@ private DestructibleWall findDestructibleWall(float x, float y) {
      */
     @Override
     public TextureRegion getCurrentAppearance() {
+        float elapsedTime = (gameMap.getTickCount() - placedTick) * gameMap.getTimeStep();
         return Animations.BOMB_IDLE.getKeyFrame(elapsedTime, true); // Return the idle animation frame
     }
 
@@ -296,6 +277,25 @@ public boolean isExploded() {
         return isExploded;
     }
 
+    /**
+     * Captures the position, blast radius and remaining time of the bomb for a {@link GameSnapshot}.
+     */
+    GameSnapshot.BombState saveState() {
+        long tick = gameMap.getTickCount();
+        return new GameSnapshot.BombState(getX(), getY(), blastRadius,
+                (detonation.getDeadline() - tick) * gameMap.getTimeStep(), (tick - placedTick) * gameMap.getTimeStep());
+    }
+
+    /**
+     * Continues the countdown of a bomb captured by {@link #saveState()}.
+     */
+    void restoreTimer(float timer, float elapsedTime) {
+        long tick = gameMap.getTickCount();
+        this.placedTick = tick - gameMap.secondsToTicks(elapsedTime);
+        detonation.cancel();
+        this.detonation = gameMap.getScheduler().schedule(tick + gameMap.secondsToTicks(timer), this::explode);
+    }
+
     /**
      * Removes the bomb from the game map.
      * @param bomb The bomb to be removed.
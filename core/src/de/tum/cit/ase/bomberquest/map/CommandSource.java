@@ -0,0 +1,15 @@
+package de.tum.cit.ase.bomberquest.map;
+
+/**
+ * Provides the player's commands to the simulation. The map asks for the commands exactly once per simulation tick,
+ * so the same sequence of commands always leads to the same game.
+ */
+public interface CommandSource {
+
+    /**
+     * Returns the commands for the next simulation tick.
+     *
+     * @return the commands, a combination of the {@link PlayerCommands} bits
+     */
+    int nextCommands();
+}
@@ -1,7 +1,6 @@
 package de.tum.cit.ase.bomberquest.map;
 
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.physics.box2d.World;
 import de.tum.cit.ase.bomberquest.texture.Textures;
 
 /**
@@ -11,13 +10,13 @@ public class DestructibleWall extends Wall {
 
     /**
      * Constructs a destructible wall at the specified position in the game world.
+     * Its hitbox is created separately by the map.
      *
-     * @param world The physics world the wall belongs to.
      * @param x     The x-coordinate of the wall's position.
      * @param y     The y-coordinate of the wall's position.
      */
-    public DestructibleWall(World world, float x, float y) {
-        super(world, x, y);
+    public DestructibleWall(float x, float y) {
+        super(x, y);
     }
 
     /**
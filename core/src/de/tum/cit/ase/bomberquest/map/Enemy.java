@@ -1,6 +1,7 @@
 package de.tum.cit.ase.bomberquest.map;
 
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
 import de.tum.cit.ase.bomberquest.texture.Animations;
 import de.tum.cit.ase.bomberquest.texture.Drawable;
@@ -18,6 +19,13 @@ public class Enemy extends GameObject implements Drawable {
     /** The Box2D hitbox of the enemy, used for position and collision detection. */
     private final Body hitbox;
 
+    /** Whether the enemy is still in the game. Killed enemies keep their deactivated body, see {@link GameMap#restart()}. */
+    private boolean alive = true;
+
+    /** The position of the enemy before the latest simulation tick, used for interpolated rendering. */
+    private float previousX;
+    private float previousY;
+
     /**
      * Creates an enemy at the specified position in the game world.
      * The enemy is initialized with a hitbox for collision detection.
@@ -29,6 +37,8 @@ public class Enemy extends GameObject implements Drawable {
     public Enemy(World world, float x, float y) {
         super(x, y);  // Calls the GameObject constructor to set the initial position of the enemy.
         this.hitbox = createHitbox(world, x, y);  // Creates the Box2D hitbox for the enemy.
+        this.previousX = x;
+        this.previousY = y;
     }
 
     /**
@@ -98,6 +108,44 @@ public float getY() {
         return hitbox.getPosition().y;  // Get the Y coordinate from the Box2D hitbox.
     }
 
+    /**
+     * Stores the current position as the previous one. This is called before every simulation tick.
+     */
+    public void savePreviousPosition() {
+        this.previousX = getX();
+        this.previousY = getY();
+    }
+
+    /**
+     * Retrieves the X position to render the enemy at, interpolated between the last two simulation ticks.
+     *
+     * @param alpha How far the frame is between the previous (0) and the latest (1) simulation tick.
+     * @return The interpolated X position.
+     */
+    @Override
+    public float getRenderX(float alpha) {
+        return previousX + (getX() - previousX) * alpha;
+    }
+
+    /**
+     * Retrieves the Y position to render the enemy at, interpolated between the last two simulation ticks.
+     *
+     * @param alpha How far the frame is between the previous (0) and the latest (1) simulation tick.
+     * @return The interpolated Y position.
+     */
+    @Override
+    public float getRenderY(float alpha) {
+        return previousY + (getY() - previousY) * alpha;
+    }
+
+    public boolean isAlive() {
+        return alive;
+    }
+
+    void setAlive(boolean alive) {
+        this.alive = alive;
+    }
+
     /**
      * Retrieves the Box2D body of the enemy.
      * This is useful for accessing the hitbox directly if needed.
@@ -108,6 +156,39 @@ public Body getBody() {
         return hitbox;  // Return the Box2D body (hitbox) for this enemy.
     }
 
+    /**
+     * Moves the enemy back to where it was created and restarts its movement pattern.
+     * The body of a killed enemy is only deactivated, so it can be brought back this way when the level restarts.
+     */
+    public void reset() {
+        this.hitbox.setTransform(x, y, 0);
+        this.hitbox.setLinearVelocity(0, 0);
+        this.hitbox.setActive(true);
+        this.alive = true;
+        this.elapsedTime = 0;
+        this.previousX = x;
+        this.previousY = y;
+    }
+
+    /**
+     * Captures the position, velocity and animation time of the enemy for a {@link GameSnapshot}.
+     */
+    GameSnapshot.ActorState saveState(boolean alive) {
+        Vector2 velocity = hitbox.getLinearVelocity();
+        return new GameSnapshot.ActorState(alive, getX(), getY(), velocity.x, velocity.y, elapsedTime);
+    }
+
+    /**
+     * Puts the enemy back into a state captured by {@link #saveState(boolean)}.
+     */
+    void restoreState(GameSnapshot.ActorState state) {
+        this.hitbox.setTransform(state.getX(), state.getY(), 0);
+        this.hitbox.setLinearVelocity(state.getVelocityX(), state.getVelocityY());
+        this.elapsedTime = state.getElapsedTime();
+        this.previousX = state.getX();
+        this.previousY = state.getY();
+    }
+
     /**
      * Updates the enemy's state.
      * This includes updating its animation time and moving the enemy in a circular path based on elapsed time.
@@ -2,19 +2,33 @@
 
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import de.tum.cit.ase.bomberquest.texture.Animations;
 import de.tum.cit.ase.bomberquest.texture.Drawable;
 
+import java.util.List;
+
 /**
  * Represents an explosion tile in the game, which shows an animated explosion effect.
  * The explosion animation plays for a brief period, after which the explosion is considered finished.
  */
 public class ExplosionTile extends GameObject implements Drawable {
 
+    /** The animations explosion tiles can have. A saved explosion tile refers to its animation by the index in this list. */
+    private static final List<Animation<TextureRegion>> ANIMATIONS = List.of(
+            Animations.EXPLOSION_CENTER, Animations.EXPLOSION_HORIZONTAL, Animations.EXPLOSION_VERTICAL,
+            Animations.EXPLOSION_END_UP, Animations.EXPLOSION_END_DOWN, Animations.EXPLOSION_END_R, Animations.EXPLOSION_END_L);
+
+    /** How long an explosion tile is shown, in seconds. */
+    public static final float DURATION = 0.5f;
+
     // The X and Y position of the explosion tile in the game world.
     private float x, y;
 
-    // The time elapsed since the explosion started. Used to control the animation.
-    private float elapsedTime;
+    // The map whose tick count drives the animation.
+    private final GameMap map;
+
+    // The tick the explosion started in. Used to control the animation.
+    private long startTick;
 
     // The animation representing the explosion.
     private final Animation<TextureRegion> animation;
@@ -28,28 +42,48 @@ public class ExplosionTile extends GameObject implements Drawable {
      * @param x The X position of the explosion tile.
      * @param y The Y position of the explosion tile.
      * @param animation The animation to be played for the explosion effect.
+     * @param map The map the explosion happens on. The explosion starts in its current tick.
      */
-    public ExplosionTile(float x, float y, Animation<TextureRegion> animation) {
+    public ExplosionTile(float x, float y, Animation<TextureRegion> animation, GameMap map) {
         super(x, y);  // Calls the parent constructor to set the position.
         this.x = x;
         this.y = y;
-        this.elapsedTime = 0f;  // Initialize elapsed time to zero.
+        this.map = map;
+        this.startTick = map.getTickCount();  // The animation starts now.
         this.animation = animation;  // Set the animation.
         finished = false;  // Initially, the animation is not finished.
     }
 
     /**
-     * Updates the state of the explosion tile, including the elapsed time and checking if the animation is finished.
+     * Explosion tiles do not need to be updated every tick: the animation follows the tick count of the map,
+     * and the map's scheduler ends the explosion after {@link #DURATION}, see {@link GameMap#addExplosionTile(ExplosionTile)}.
      *
-     * @param deltaTime The time elapsed since the last frame. This is used to update the animation.
+     * @param deltaTime The time elapsed since the last frame.
      */
     public void update(float deltaTime) {
-        elapsedTime += deltaTime;  // Increment the elapsed time by the time difference since the last frame.
+    }
 
-        // If the elapsed time is greater than or equal to 0.5 seconds, the animation is considered finished.
-        if (elapsedTime >= 0.5f) {
-            finished = true;  // Mark the animation as finished.
-        }
+    /**
+     * Marks the animation as finished. This is called by the map when the explosion is over.
+     */
+    void finish() {
+        finished = true;
+    }
+
+    /**
+     * Returns the tick the explosion started in.
+     *
+     * @return the start tick
+     */
+    long getStartTick() {
+        return startTick;
+    }
+
+    /**
+     * Returns the time since the explosion started, in seconds.
+     */
+    private float getElapsedTime() {
+        return (map.getTickCount() - startTick) * map.getTimeStep();
     }
 
     /**
@@ -59,7 +93,7 @@ public void update(float deltaTime) {
      * @return The current texture region (frame) of the animation.
      */
     public TextureRegion getCurrentAppearance() {
-        return animation.getKeyFrame(elapsedTime, false);  // Get the current frame of the animation based on elapsed time.
+        return animation.getKeyFrame(getElapsedTime(), false);  // Get the current frame of the animation based on elapsed time.
     }
 
     /**
@@ -72,6 +106,31 @@ public boolean isAnimationFinished() {
         return finished;  // Return the finished status of the animation.
     }
 
+    /**
+     * Returns the index of the animation of this tile, which is how a {@link GameSnapshot} stores it.
+     *
+     * @return the animation index
+     */
+    int getAnimationId() {
+        return ANIMATIONS.indexOf(animation);
+    }
+
+    /**
+     * Captures the position, animation and animation time of the tile for a {@link GameSnapshot}.
+     */
+    GameSnapshot.ExplosionState saveState() {
+        return new GameSnapshot.ExplosionState(x, y, getAnimationId(), getElapsedTime());
+    }
+
+    /**
+     * Recreates an explosion tile captured by {@link #saveState()} in the current tick of a map.
+     */
+    static ExplosionTile fromState(GameSnapshot.ExplosionState state, GameMap map) {
+        ExplosionTile tile = new ExplosionTile(state.getX(), state.getY(), ANIMATIONS.get(state.getAnimationId()), map);
+        tile.startTick -= map.secondsToTicks(state.getElapsedTime());
+        return tile;
+    }
+
     /**
      * Retrieves the X position of the explosion tile in the game world.
      *
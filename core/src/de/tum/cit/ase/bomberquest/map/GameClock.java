@@ -0,0 +1,189 @@
+package de.tum.cit.ase.bomberquest.map;
+
+/**
+ * The time of a game, counted in fixed simulation ticks instead of read from the wall clock.
+ * <p>
+ * Every frame, {@link GameMap#tick(float)} adds the frame time to the clock and simulates as many ticks as it makes due.
+ * The game time is only the number of simulated ticks, so it stays exact when frames are dropped or clamped,
+ * when the game is paused, fast-forwarded or rewound, and when a recording is replayed without any frames at all.
+ * The time scale makes a frame worth more or less game time, e.g. for slow motion or for testing a level quickly.
+ */
+public class GameClock {
+
+    /** The time the player has to finish a level. */
+    public static final long TOTAL_TIME_MILLIS = 5 * 60 * 1000; // 5:00 in milliseconds
+
+    /** The slowest and fastest time scales. */
+    public static final float MIN_TIME_SCALE = 0.25f;
+    public static final float MAX_TIME_SCALE = 16;
+
+    /** The longest frame time that is caught up in one frame, to prevent a spiral of death. */
+    private static final float MAX_FRAME_TIME = 0.25f;
+
+    private int ticksPerSecond;
+    /** The duration of one simulation tick in seconds. This does not depend on the refresh rate of the monitor. */
+    private float timeStep;
+    /** The number of simulated ticks. */
+    private long tickCount = 0;
+    /** Frame time that has not been simulated yet, always less than one time step after a frame. */
+    private float accumulator = 0;
+    private boolean paused = false;
+    private float timeScale = 1;
+
+    /**
+     * Creates a clock at tick 0.
+     *
+     * @param ticksPerSecond the simulation rate
+     */
+    public GameClock(int ticksPerSecond) {
+        setTicksPerSecond(ticksPerSecond);
+    }
+
+    /**
+     * Adds the time of a frame, scaled by the time scale. Nothing is added while the clock is paused.
+     *
+     * @param frameTime the time that has passed since the last frame, in seconds
+     */
+    public void addFrameTime(float frameTime) {
+        if (!paused) {
+            // Clamp the real frame time, so fast-forwarding can still catch up more than one long frame
+            accumulator += Math.min(frameTime, MAX_FRAME_TIME) * timeScale;
+        }
+    }
+
+    /**
+     * Takes one tick worth of time from the added frame time, if there is enough.
+     *
+     * @return true if a tick is due
+     */
+    public boolean takeTick() {
+        if (accumulator >= timeStep) {
+            accumulator -= timeStep;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Counts a simulated tick. This is called by the map for every tick it simulates.
+     */
+    void advance() {
+        tickCount++;
+    }
+
+    /**
+     * Sets the tick count and drops the frame time that has not been simulated, e.g. when a game is restarted,
+     * restored or rewound.
+     *
+     * @param tickCount the number of simulated ticks
+     */
+    void reset(long tickCount) {
+        this.tickCount = tickCount;
+        this.accumulator = 0;
+    }
+
+    /**
+     * Returns the number of simulated ticks.
+     *
+     * @return the tick count
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Returns the game time that has passed, which is the number of ticks times the duration of a tick.
+     *
+     * @return the elapsed time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return tickCount * 1000 / ticksPerSecond;
+    }
+
+    /**
+     * Returns the game time that is left to finish the level.
+     *
+     * @return the remaining time in milliseconds, never negative
+     */
+    public long getRemainingMillis() {
+        return Math.max(0, TOTAL_TIME_MILLIS - getElapsedMillis());
+    }
+
+    /**
+     * Returns how far the current frame is between the previous and the latest simulation tick.
+     * 0 means the previous tick, 1 means the latest one.
+     *
+     * @return the interpolation factor
+     */
+    public float getAlpha() {
+        return accumulator / timeStep;
+    }
+
+    /**
+     * Converts a duration into the number of simulation ticks, rounded to the nearest tick.
+     *
+     * @param seconds the duration in seconds
+     * @return the number of ticks
+     */
+    public long secondsToTicks(float seconds) {
+        return Math.round(seconds / timeStep);
+    }
+
+    /**
+     * Sets the number of simulation ticks per second. The tick count is not changed.
+     *
+     * @param ticksPerSecond the simulation rate
+     */
+    void setTicksPerSecond(int ticksPerSecond) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("The simulation rate must be positive: " + ticksPerSecond);
+        }
+        this.ticksPerSecond = ticksPerSecond;
+        this.timeStep = 1f / ticksPerSecond;
+    }
+
+    public int getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    /**
+     * Returns the duration of one simulation tick in seconds.
+     *
+     * @return the time step
+     */
+    public float getTimeStep() {
+        return timeStep;
+    }
+
+    /**
+     * Stops the game time. Frames still render, but no ticks are simulated until {@link #resume()}.
+     */
+    public void pause() {
+        paused = true;
+    }
+
+    public void resume() {
+        paused = false;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Sets how much game time passes per real second, e.g. 0.5 for slow motion or 16 to fast-forward.
+     *
+     * @param timeScale the time scale, from {@link #MIN_TIME_SCALE} to {@link #MAX_TIME_SCALE}
+     */
+    public void setTimeScale(float timeScale) {
+        if (timeScale < MIN_TIME_SCALE || timeScale > MAX_TIME_SCALE) {
+            throw new IllegalArgumentException("The time scale must be between " + MIN_TIME_SCALE + " and "
+                    + MAX_TIME_SCALE + ": " + timeScale);
+        }
+        this.timeScale = timeScale;
+    }
+
+    public float getTimeScale() {
+        return timeScale;
+    }
+}
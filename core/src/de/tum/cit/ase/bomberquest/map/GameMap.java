@@ -1,22 +1,32 @@
 package de.tum.cit.ase.bomberquest.map;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.ContactImpulse;
+import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Manifold;
 import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.IntArray;
 import de.tum.cit.ase.bomberquest.gamemechanism.BomberQuestGame;
-import de.tum.cit.ase.bomberquest.audio.MusicTrack;
+import de.tum.cit.ase.bomberquest.audio.SoundEffect;
+import de.tum.cit.ase.bomberquest.gamemechanism.FrameProfiler;
+import de.tum.cit.ase.bomberquest.gamemechanism.MapGrid;
 import de.tum.cit.ase.bomberquest.gamemechanism.MapLoader;
 import de.tum.cit.ase.bomberquest.powerups.BlastRadius;
 import de.tum.cit.ase.bomberquest.powerups.ConcurrentBomb;
 import de.tum.cit.ase.bomberquest.powerups.PowerUp;
 
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * Represents the game map.
  * Holds all the objects and entities in the game.
+ * The static layer (walls and power-ups) is kept as the parsed {@link MapGrid} plus a {@link MapDelta} of changes;
+ * game objects with Box2D bodies only exist for the {@link MapChunk}s around the player.
  */
 public class GameMap {
 
@@ -25,34 +35,174 @@ public class GameMap {
         com.badlogic.gdx.physics.box2d.Box2D.init();
     }
 
-    private static final float TIME_STEP = 1f / Gdx.graphics.getDisplayMode().refreshRate;
+    /**
+     * The width and height of a streaming chunk in tiles. Walls and power-ups only exist as game objects
+     * with Box2D bodies in the chunks around the player, the rest of the map is only kept as tile data.
+     */
+    public static final int CHUNK_SIZE = 16;
+    /** Chunks up to this many chunks away from the chunk of the player are loaded. */
+    private static final int LOAD_RADIUS = 2;
+    /** Chunks further away than this are unloaded. This is larger than the load radius, so chunks do not flicker at the border. */
+    private static final int UNLOAD_RADIUS = 3;
+    /** How many chunks may be loaded per tick while the game runs, to avoid spikes when the player crosses a chunk border. */
+    private static final int CHUNK_LOADS_PER_TICK = 2;
+
+    /** Walls get a Box2D body when the player or an active enemy comes this many tiles close. */
+    private static final int WALL_BODY_RADIUS = 2;
+    /** Wall bodies that no actor has needed for this many ticks are destroyed again. This is also the sweep interval. */
+    private static final int WALL_BODY_RELEASE_TICKS = 60;
+
+    /**
+     * How a game on this map ended. The map only reports the outcome, switching to another screen is up to the caller.
+     */
+    public enum Outcome {
+        RUNNING, WON, LOST
+    }
+
+    /** The default number of simulation ticks per second. */
+    public static final int DEFAULT_SIMULATION_RATE = 60;
     private static final int VELOCITY_ITERATIONS = 6;
     private static final int POSITION_ITERATIONS = 2;
-    private float physicsTime = 0;
+    /** How many seconds of the game can be rewound. */
+    public static final int REWIND_SECONDS = 30;
+    /** The memory used for rewinding. Fewer seconds are kept if the map has so many enemies that they do not fit. */
+    private static final int REWIND_BUFFER_BYTES = 8 * 1024 * 1024;
+    /** The simulated time: the tick count, the time step and the frame time that has not been simulated yet. */
+    private final GameClock clock = new GameClock(DEFAULT_SIMULATION_RATE);
     private int width = 0;
     private int height = 0;
     private final BomberQuestGame game;
     private final World world;
+    /** The parsed map this map was loaded from. */
+    private MapGrid grid;
+    /** The occupied tiles of the grid and how many of them have been turned into game objects so far. */
+    private IntArray pendingTiles;
+    private int loadedTiles;
+    /** The walls destroyed and power-ups collected so far. Together with the grid, this is the state of the static layer. */
+    private MapDelta delta;
+    /** The loaded chunks, indexed by {@code chunkY * chunksX + chunkX}. Unloaded chunks are null. */
+    private MapChunk[] chunks;
+    private int chunksX;
+    private int chunksY;
+    private final List<MapChunk> loadedChunks = new ArrayList<>();
+    private boolean streamingStarted = false;
+    /** The walls that currently have a Box2D body, see {@link #updateWallBodies()}. */
+    private final List<Wall> wallsWithBodies = new ArrayList<>();
     private Player player;
-    private Flowers[][] flowers;
-    private List<DestructibleWall> destructibleWalls = new ArrayList<>();
-    private List<IndestructibleWall> indestructibleWalls = new ArrayList<>();
     private List<ExplosionTile> explosionTiles = new ArrayList<>();
     private Exit exit;
     private List<PowerUp> powerUps = new ArrayList<>();
     private List<Enemy> enemies = new ArrayList<>();
+    /** All enemies as they were after loading, including the ones killed since. Used by {@link #restart()}. */
+    private final List<Enemy> initialEnemies = new ArrayList<>();
     private List<Bomb> bombs = new ArrayList<>();
     private List<Body> bodiesToDestroy = new ArrayList<>();
     private List<DestructibleWall> wallsToRemove = new ArrayList<>();
     private List<Enemy> enemiesToRemove = new ArrayList<>();
+    private final List<MapChangeListener> changeListeners = new ArrayList<>();
+    /** Runs the change notifications, on the thread that renders the map. */
+    private Executor changeListenerExecutor = Runnable::run;
     public boolean enemiesCleared = false;
+    private Outcome outcome = Outcome.RUNNING;
+    /** Provides the player's commands for every tick. Without a source, the player does nothing. */
+    private CommandSource commandSource = () -> PlayerCommands.NONE;
+    /** The map file, the hash of its content and the seed it was loaded with, which identify the game for replays. */
+    private String mapPath;
+    private String mapHash;
+    private long seed;
+    /** Random numbers for effects like the screen shake. It is seeded, so a replay looks the same as the original game. */
+    private final Random random = new Random(0);
+    /** Runs the timed events of the game, like bomb detonations, in simulation ticks. */
+    private final TimingWheel scheduler = new TimingWheel(0);
+    private TimingWheel.Timeout levelTimeout;
+    /** The latest ticks, so the game can be rewound. */
+    private RewindBuffer rewindBuffer = new RewindBuffer(this, REWIND_SECONDS * DEFAULT_SIMULATION_RATE, REWIND_BUFFER_BYTES);
     // Variables for screen shake
     private float shakeDuration = 0f;   // Remaining time of the shake
     private float shakeIntensity = 0f; // Intensity of the shake
+    private float shakeOffsetX = 0f;    // Camera offset of the current tick
+    private float shakeOffsetY = 0f;
 
     public GameMap(BomberQuestGame game) {
         this.game = game;
         this.world = new World(Vector2.Zero, true);
+        setupCollisionListener();
+    }
+
+    /**
+     * Handles the collisions of the player with enemies, the exit and power-ups.
+     * This is part of the map and not of a screen, so a game can also be simulated without rendering it.
+     */
+    private void setupCollisionListener() {
+        world.setContactListener(new ContactListener() {
+            @Override
+            public void beginContact(Contact contact) {
+                Object userDataA = contact.getFixtureA().getBody().getUserData();
+                Object userDataB = contact.getFixtureB().getBody().getUserData();
+
+                // Check if the player and enemy collide
+                if ((userDataA instanceof Player && userDataB instanceof Enemy) ||
+                        (userDataA instanceof Enemy && userDataB instanceof Player)) {
+                    SoundEffect.PLAYERDIE.play();
+                    finish(Outcome.LOST);
+                }
+
+                // Check if the player reaches the exit
+                if ((userDataA instanceof Player && userDataB instanceof Exit) ||
+                        (userDataA instanceof Exit && userDataB instanceof Player)) {
+                    finish(Outcome.WON);
+                }
+
+                //Check if the player touches a powerup
+                if ((userDataA instanceof Player && userDataB instanceof PowerUp) ||
+                        (userDataB instanceof Player && userDataA instanceof PowerUp)) {
+                    Player player = (userDataA instanceof Player) ? (Player) userDataA : (Player) userDataB;
+                    PowerUp powerUp = (userDataA instanceof PowerUp) ? (PowerUp) userDataA : (PowerUp) userDataB;
+                    //call handling method
+                    handlePowerUpPickup(player, powerUp);
+                }
+            }
+
+            @Override
+            public void endContact(Contact contact) {
+            }
+
+            @Override
+            public void preSolve(Contact contact, Manifold manifold) {
+            }
+
+            @Override
+            public void postSolve(Contact contact, ContactImpulse contactImpulse) {
+            }
+        });
+    }
+
+    private void handlePowerUpPickup(Player player, PowerUp powerUp) {
+        //Check if the powerup is BlastRadius
+        if (powerUp instanceof BlastRadius) {
+            SoundEffect.POWERUPSOUND.play();
+            //Increase blast radius of bombs by 1
+            player.setBlastRadius(Math.min(player.getBlastRadius() + 1, 9));
+        }
+        //Check if the powerup is ConcurrentBomb
+        else if (powerUp instanceof ConcurrentBomb) {
+            SoundEffect.POWERUPSOUND.play();
+            //Increase concurrent bomb count by 1
+            player.setConcurrentBombCount(Math.min(player.getConcurrentBombCount() + 1, 9));
+        }
+        // Remove the power-up from the map
+        removePowerUp(powerUp);
+    }
+
+    /**
+     * Ends the game. Only the first outcome counts, e.g. the player cannot win after being hit in the same tick.
+     *
+     * @param outcome How the game ended.
+     */
+    void finish(Outcome outcome) {
+        if (this.outcome == Outcome.RUNNING) {
+            this.outcome = outcome;
+        }
     }
 
     /**
@@ -64,90 +214,740 @@ public GameMap(BomberQuestGame game) {
     public void loadTheMap(String path) {
         MapLoader mapLoader = new MapLoader();
         mapLoader.loadMap(path);
-        for (Map.Entry<String, Set<Integer>> entry : mapLoader.getMapData().entrySet()) {
-            String[] coordinates = entry.getKey().split(",");
-            int x = Integer.parseInt(coordinates[0].trim());
-            int y = Integer.parseInt(coordinates[1].trim());
-            if(x > this.width){
-                this.width = x;
+        loadTheMap(mapLoader.getGrid());
+    }
+
+    /**
+     * Creates the game entities (walls, player, enemies, etc.) from an already parsed map.
+     *
+     * @param grid The object types of every tile.
+     */
+    public void loadTheMap(MapGrid grid) {
+        beginLoading(grid, grid.getOccupiedTiles());
+        continueLoading(Long.MAX_VALUE);
+    }
+
+    /**
+     * Prepares creating the game entities of a parsed map in several steps, see {@link #continueLoading(long)}.
+     *
+     * @param grid The object types of every tile.
+     * @param occupiedTiles The indices of all tiles that hold objects, see {@link MapGrid#getOccupiedTiles()}.
+     */
+    public void beginLoading(MapGrid grid, IntArray occupiedTiles) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.pendingTiles = occupiedTiles;
+        this.loadedTiles = 0;
+        this.delta = new MapDelta(width, height);
+        this.chunksX = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunksY = (height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunks = new MapChunk[chunksX * chunksY];
+    }
+
+    /**
+     * Creates the game entities of the next tiles until the time budget is used up.
+     * Creating thousands of Box2D bodies takes a while, so this lets a loading screen spread the work over several frames.
+     * Only the player, the enemies and the exit are created for the whole map. Walls and power-ups are created
+     * for the chunks around the player once everything else exists, and later streamed in while the player moves.
+     *
+     * @param budgetNanos The time in nanoseconds that may be spent in this call.
+     * @return true if all entities have been created
+     */
+    public boolean continueLoading(long budgetNanos) {
+        long start = System.nanoTime();
+        while (loadedTiles < pendingTiles.size) {
+            int index = pendingTiles.get(loadedTiles++);
+            int x = index % width;
+            int y = index / width;
+            createEntities(x, y, grid.getMask(x, y));
+            if (System.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+        }
+        if (loadedTiles < pendingTiles.size) {
+            return false;
+        }
+        if (!streamingStarted) {
+            streamingStarted = true;
+            initialEnemies.addAll(enemies);
+            updateStreaming(Integer.MAX_VALUE);
+            scheduleLevelTimeout();
+            rewindBuffer.record();
+        }
+        return true;
+    }
+
+    /**
+     * Puts the map back into the state right after loading, without reading the map file again or creating a new world.
+     * The static layer is only the grid plus the delta, so clearing the delta brings back every destroyed wall and
+     * collected power-up. The player and the enemies keep their bodies and are only moved back to where they started.
+     * This must not be called during the physics step.
+     */
+    public void restart() {
+        resetToInitialState();
+        updateStreaming(Integer.MAX_VALUE);
+        rewindBuffer.clear();
+        rewindBuffer.record();
+        notifyMapReset();
+    }
+
+    /**
+     * Resets everything to the state after loading, see {@link #restart()}, but leaves all chunks unloaded.
+     */
+    private void resetToInitialState() {
+        // The loaded walls and power-ups are recreated from the cleared delta when the chunks are streamed in again
+        for (MapChunk chunk : loadedChunks) {
+            unloadChunk(chunk);
+        }
+        loadedChunks.clear();
+        wallsWithBodies.clear();
+        delta.clear();
+        clearTransientState();
+
+        enemies.clear();
+        for (Enemy enemy : initialEnemies) {
+            enemy.reset();
+            enemies.add(enemy);
+        }
+        player.reset();
+        exit.getBody().setActive(false);
+        enemiesCleared = false;
+        random.setSeed(seed);
+
+        clock.reset(0);
+        scheduler.reset(0);
+        scheduleLevelTimeout();
+    }
+
+    /**
+     * Drops the bombs, the explosions, the queued removals and the screen shake, which are restored from a snapshot
+     * or start over empty.
+     */
+    private void clearTransientState() {
+        wallsToRemove.clear();
+        enemiesToRemove.clear();
+        processPendingBodyDestruction();
+        bombs.clear();
+        explosionTiles.clear();
+        outcome = Outcome.RUNNING;
+        shakeDuration = 0;
+        shakeIntensity = 0;
+        shakeOffsetX = 0;
+        shakeOffsetY = 0;
+    }
+
+    /**
+     * Captures the current state of the game. This only copies the state, so it is cheap enough to do within a frame;
+     * encoding and writing the snapshot can then happen on another thread.
+     *
+     * @return the snapshot
+     */
+    public GameSnapshot createSnapshot() {
+        List<GameSnapshot.ActorState> enemyStates = new ArrayList<>(initialEnemies.size());
+        for (Enemy enemy : initialEnemies) {
+            enemyStates.add(enemy.saveState(enemy.isAlive()));
+        }
+        List<GameSnapshot.BombState> bombStates = new ArrayList<>(bombs.size());
+        for (Bomb bomb : bombs) {
+            bombStates.add(bomb.saveState());
+        }
+        List<GameSnapshot.ExplosionState> explosionStates = new ArrayList<>(explosionTiles.size());
+        for (ExplosionTile tile : explosionTiles) {
+            explosionStates.add(tile.saveState());
+        }
+        return new GameSnapshot(grid, (BitSet) delta.getDestroyedWalls().clone(), (BitSet) delta.getCollectedPowerUps().clone(),
+                clock.getTickCount(), exit.isActive(), player.saveState(),
+                player.getConcurrentBombCount(), player.getBlastRadius(), enemyStates, bombStates, explosionStates);
+    }
+
+    /**
+     * Puts the map into a captured state. The map must have been loaded from the grid of the snapshot,
+     * e.g. with {@link #loadTheMap(MapGrid)}, so the map file does not need to be read or parsed again.
+     * This must not be called during the physics step.
+     *
+     * @param snapshot The state to restore, see {@link #createSnapshot()}.
+     */
+    public void restore(GameSnapshot snapshot) {
+        applySnapshot(snapshot);
+        // The recorded ticks belong to the game before loading
+        rewindBuffer.clear();
+        rewindBuffer.record();
+    }
+
+    /**
+     * Puts the map into a captured state without touching the rewind buffer, see {@link #restore(GameSnapshot)}.
+     */
+    void applySnapshot(GameSnapshot snapshot) {
+        if (snapshot.getGrid() != grid || snapshot.getEnemies().size() != initialEnemies.size()) {
+            throw new IllegalArgumentException("The snapshot was not taken on this map");
+        }
+        resetToInitialState();
+        delta.getDestroyedWalls().or(snapshot.getDestroyedWalls());
+        delta.getCollectedPowerUps().or(snapshot.getCollectedPowerUps());
+        restoreActors(snapshot);
+        updateStreaming(Integer.MAX_VALUE);
+        notifyMapReset();
+    }
+
+    /**
+     * Tells the listeners that the map was reset, with a copy of the delta, since they may only get the notification
+     * after the simulation has changed the map again.
+     */
+    private void notifyMapReset() {
+        MapDelta copy = delta.copy();
+        boolean exitActive = exit.isActive();
+        notifyChangeListeners(listener -> listener.mapReset(copy, exitActive));
+    }
+
+    /**
+     * Puts the actors into a recorded tick while rewinding, see {@link RewindBuffer#seek(long)}. Unlike
+     * {@link #applySnapshot(GameSnapshot)}, the chunks stay loaded: the walls and power-ups have already been changed
+     * tile by tile with {@link #applyStaticChanges(IntArray, IntArray, boolean)}, so the destroyed walls and collected
+     * power-ups of the snapshot are ignored.
+     *
+     * @param snapshot The state of the actors.
+     */
+    void applyRewind(GameSnapshot snapshot) {
+        boolean exitWasActive = exit.isActive();
+        clearTransientState();
+        restoreActors(snapshot);
+        updateStreaming(Integer.MAX_VALUE);
+        if (exit.isActive() != exitWasActive) {
+            int exitX = Math.round(exit.getX());
+            int exitY = Math.round(exit.getY());
+            if (exit.isActive()) {
+                notifyChangeListeners(listener -> listener.exitActivated(exitX, exitY));
+            } else {
+                notifyChangeListeners(listener -> listener.exitDeactivated(exitX, exitY));
+            }
+        }
+    }
+
+    /**
+     * Moves the player and the enemies into the state of a snapshot, recreates its bombs and explosions
+     * and schedules the timed events relative to its tick.
+     */
+    private void restoreActors(GameSnapshot snapshot) {
+        clock.reset(snapshot.getTickCount());
+        scheduler.reset(snapshot.getTickCount());
+        scheduleLevelTimeout();
+
+        player.reset();
+        player.restoreState(snapshot.getPlayer());
+        player.setConcurrentBombCount(snapshot.getConcurrentBombCount());
+        player.setBlastRadius(snapshot.getBlastRadius());
+        enemies.clear();
+        for (int i = 0; i < initialEnemies.size(); i++) {
+            Enemy enemy = initialEnemies.get(i);
+            GameSnapshot.ActorState state = snapshot.getEnemies().get(i);
+            if (state.isAlive()) {
+                enemy.reset(); // Brings back an enemy that died after the snapshot
+                enemy.restoreState(state);
+                enemies.add(enemy);
+            } else {
+                removeEnemies(enemy);
+            }
+        }
+        for (GameSnapshot.BombState state : snapshot.getBombs()) {
+            Bomb bomb = new Bomb(state.getX(), state.getY(), state.getBlastRadius(), this);
+            bomb.restoreTimer(state.getTimer(), state.getElapsedTime());
+            bombs.add(bomb);
+        }
+        for (GameSnapshot.ExplosionState state : snapshot.getExplosions()) {
+            addExplosionTile(ExplosionTile.fromState(state, this));
+        }
+        exit.getBody().setActive(snapshot.isExitActive());
+        enemiesCleared = snapshot.isExitActive();
+    }
+
+    /**
+     * Destroys or brings back walls and power-ups while rewinding, see {@link RewindBuffer#seek(long)}.
+     * Only the objects of loaded chunks are changed, and the listeners are told about each tile, so a step of
+     * rewinding costs as much as the tiles that changed, not as much as the map. The changes are not recorded.
+     *
+     * @param wallTiles The tiles of the walls, as indices ({@code y * width + x}).
+     * @param powerUpTiles The tiles of the power-ups, as indices.
+     * @param destroyed true to destroy the walls and collect the power-ups, false to bring them back
+     */
+    void applyStaticChanges(IntArray wallTiles, IntArray powerUpTiles, boolean destroyed) {
+        // Walls first, so a power-up only gets a body if no wall is left on top of it
+        for (int i = 0; i < wallTiles.size; i++) {
+            int x = wallTiles.get(i) % width;
+            int y = wallTiles.get(i) / width;
+            if (destroyed) {
+                destroyWallTile(x, y);
+            } else {
+                restoreWallTile(x, y);
             }
-            if(y > this.height ){
-                this.height = y;
+        }
+        for (int i = 0; i < powerUpTiles.size; i++) {
+            int x = powerUpTiles.get(i) % width;
+            int y = powerUpTiles.get(i) / width;
+            if (destroyed) {
+                collectPowerUpTile(x, y);
+            } else {
+                restorePowerUpTile(x, y);
             }
-            boolean hasDestructibleWall = entry.getValue().contains(MapLoader.DESTRUCTIBLE_WALL);
+        }
+    }
 
-            for (int objectType : entry.getValue()) {
-                if (objectType == MapLoader.DESTRUCTIBLE_WALL) continue;
+    private void destroyWallTile(int x, int y) {
+        if (delta.isWallDestroyed(x, y)) {
+            return;
+        }
+        delta.destroyWall(x, y);
+        MapChunk chunk = chunkAt(x, y);
+        if (chunk != null && chunk.getWall(x, y) instanceof DestructibleWall) {
+            Wall wall = chunk.getWall(x, y);
+            if (wall.getBody() != null) {
+                world.destroyBody(wall.getBody());
+                wall.setBody(null);
+            }
+            chunk.setWall(x, y, null);
+            PowerUp powerUp = chunk.getPowerUp(x, y);
+            if (powerUp != null && powerUp.getBody() == null) {
+                powerUp.createHitbox(world);
+            }
+        }
+        notifyChangeListeners(listener -> listener.wallRemoved(x, y));
+    }
 
-                switch (objectType) {
-                    case MapLoader.INDESTRUCTIBLE_WALL:
-                        indestructibleWalls.add(new IndestructibleWall(world, x, y));
-                        break;
+    private void restoreWallTile(int x, int y) {
+        if (!delta.isWallDestroyed(x, y)) {
+            return;
+        }
+        delta.restoreWall(x, y);
+        MapChunk chunk = chunkAt(x, y);
+        if (chunk != null && chunk.getWall(x, y) == null) {
+            // The body is created once an actor comes close, see updateWallBodies()
+            chunk.setWall(x, y, new DestructibleWall(x, y));
+            PowerUp powerUp = chunk.getPowerUp(x, y);
+            if (powerUp != null && powerUp.getBody() != null) {
+                world.destroyBody(powerUp.getBody()); // Hidden under the wall again
+                powerUp.setBody(null);
+            }
+        }
+        notifyChangeListeners(listener -> listener.wallRestored(x, y));
+    }
 
-                    case MapLoader.ENTRANCE:
-                        this.player = new Player(world, x, y);
-                        break;
+    private void collectPowerUpTile(int x, int y) {
+        if (delta.isPowerUpCollected(x, y)) {
+            return;
+        }
+        delta.collectPowerUp(x, y);
+        MapChunk chunk = chunkAt(x, y);
+        PowerUp powerUp = chunk != null ? chunk.getPowerUp(x, y) : null;
+        if (powerUp != null) {
+            if (powerUp.getBody() != null) {
+                world.destroyBody(powerUp.getBody());
+                powerUp.setBody(null);
+            }
+            chunk.setPowerUp(x, y, null);
+            powerUps.remove(powerUp);
+        }
+        notifyChangeListeners(listener -> listener.powerUpRemoved(x, y));
+    }
 
-                    case MapLoader.EXIT:
-                        this.exit = new Exit(world, x, y);
-                        break;
+    private void restorePowerUpTile(int x, int y) {
+        if (!delta.isPowerUpCollected(x, y)) {
+            return;
+        }
+        delta.restorePowerUp(x, y);
+        MapChunk chunk = chunkAt(x, y);
+        if (chunk != null && chunk.getPowerUp(x, y) == null) {
+            PowerUp powerUp = createPowerUp(x, y, grid.getMask(x, y));
+            if (powerUp != null) {
+                if (chunk.getWall(x, y) == null) {
+                    powerUp.createHitbox(world);
+                }
+                chunk.setPowerUp(x, y, powerUp);
+                powerUps.add(powerUp);
+            }
+        }
+        notifyChangeListeners(listener -> listener.powerUpRestored(x, y));
+    }
 
-                    case MapLoader.ENEMY:
-                        enemies.add(new Enemy(world, x, y));
-                        break;
+    /**
+     * Returns how many of the game entities have been created, from 0 to 1.
+     *
+     * @return the loading progress
+     */
+    public float getLoadProgress() {
+        return pendingTiles == null || pendingTiles.isEmpty() ? 1 : (float) loadedTiles / pendingTiles.size;
+    }
 
-                    case MapLoader.BOMB_POWER_UP:
-                        powerUps.add(new ConcurrentBomb(world, x, y));
-                        break;
+    /**
+     * Creates the moving and unique entities of a single tile: the player, enemies and the exit.
+     */
+    private void createEntities(int x, int y, int mask) {
+        if ((mask & MapGrid.bit(MapLoader.ENTRANCE)) != 0) {
+            this.player = new Player(world, x, y);
+        }
+        if ((mask & MapGrid.bit(MapLoader.EXIT)) != 0) {
+            this.exit = new Exit(world, x, y);
+        }
+        if ((mask & MapGrid.bit(MapLoader.ENEMY)) != 0) {
+            enemies.add(new Enemy(world, x, y));
+        }
+    }
 
-                    case MapLoader.BLAST_RADIUS_POWER_UP:
-                        powerUps.add(new BlastRadius(world, x, y));
-                        break;
+    /**
+     * Loads the chunks around the player and unloads the chunks that are far away.
+     *
+     * @param maxLoads The maximum number of chunks to load in this call. The closest chunks are loaded first.
+     */
+    private void updateStreaming(int maxLoads) {
+        if (player == null || chunks.length == 0) {
+            return;
+        }
+        int playerChunkX = MathUtils.clamp(Math.round(player.getX()) / CHUNK_SIZE, 0, chunksX - 1);
+        int playerChunkY = MathUtils.clamp(Math.round(player.getY()) / CHUNK_SIZE, 0, chunksY - 1);
 
-                    default:
-                        throw new RuntimeException("Unknown object type: " + objectType);
+        Iterator<MapChunk> iterator = loadedChunks.iterator();
+        while (iterator.hasNext()) {
+            MapChunk chunk = iterator.next();
+            if (Math.abs(chunk.getChunkX() - playerChunkX) > UNLOAD_RADIUS || Math.abs(chunk.getChunkY() - playerChunkY) > UNLOAD_RADIUS) {
+                unloadChunk(chunk);
+                iterator.remove();
+            }
+        }
+
+        // Load ring by ring, so the chunks closest to the player are never delayed by the load limit
+        int loads = 0;
+        for (int radius = 0; radius <= LOAD_RADIUS && loads < maxLoads; radius++) {
+            for (int chunkY = playerChunkY - radius; chunkY <= playerChunkY + radius; chunkY++) {
+                for (int chunkX = playerChunkX - radius; chunkX <= playerChunkX + radius; chunkX++) {
+                    boolean onRing = Math.abs(chunkX - playerChunkX) == radius || Math.abs(chunkY - playerChunkY) == radius;
+                    if (!onRing || chunkX < 0 || chunkY < 0 || chunkX >= chunksX || chunkY >= chunksY
+                            || chunks[chunkY * chunksX + chunkX] != null || loads >= maxLoads) {
+                        continue;
+                    }
+                    loadChunk(chunkX, chunkY);
+                    loads++;
                 }
             }
+        }
+    }
 
-            if (hasDestructibleWall) {
-                destructibleWalls.add(new DestructibleWall(world, x, y));
+    /**
+     * Creates the walls and power-ups of a chunk from the grid, leaving out everything recorded in the delta.
+     */
+    private void loadChunk(int chunkX, int chunkY) {
+        int originX = chunkX * CHUNK_SIZE;
+        int originY = chunkY * CHUNK_SIZE;
+        MapChunk chunk = new MapChunk(chunkX, chunkY,
+                Math.min(CHUNK_SIZE, width - originX), Math.min(CHUNK_SIZE, height - originY));
+        for (int y = originY; y < originY + chunk.getHeight(); y++) {
+            for (int x = originX; x < originX + chunk.getWidth(); x++) {
+                int mask = grid.getMask(x, y);
+                if (mask == 0) continue;
+
+                // Indestructible walls win if two walls share a tile
+                if ((mask & MapGrid.bit(MapLoader.INDESTRUCTIBLE_WALL)) != 0) {
+                    chunk.setWall(x, y, new IndestructibleWall(x, y));
+                } else if ((mask & MapGrid.bit(MapLoader.DESTRUCTIBLE_WALL)) != 0 && !delta.isWallDestroyed(x, y)) {
+                    chunk.setWall(x, y, new DestructibleWall(x, y));
+                }
+
+                PowerUp powerUp = delta.isPowerUpCollected(x, y) ? null : createPowerUp(x, y, mask);
+                if (powerUp != null) {
+                    // A power-up under a wall cannot be reached, so it only gets a body once the wall is destroyed
+                    if (chunk.getWall(x, y) == null) {
+                        powerUp.createHitbox(world);
+                    }
+                    chunk.setPowerUp(x, y, powerUp);
+                    powerUps.add(powerUp);
+                }
+            }
+        }
+        chunks[chunkY * chunksX + chunkX] = chunk;
+        loadedChunks.add(chunk);
+    }
+
+    /**
+     * Creates the power-up the grid holds on a tile, without a body.
+     *
+     * @return the power-up, or null if the tile has none
+     */
+    private PowerUp createPowerUp(int x, int y, int mask) {
+        if ((mask & MapGrid.bit(MapLoader.BOMB_POWER_UP)) != 0) {
+            return new ConcurrentBomb(x, y);
+        }
+        if ((mask & MapGrid.bit(MapLoader.BLAST_RADIUS_POWER_UP)) != 0) {
+            return new BlastRadius(x, y);
+        }
+        return null;
+    }
+
+    /**
+     * Destroys the bodies of all walls and power-ups of a chunk. Their state is already in the delta,
+     * so nothing else needs to be saved.
+     */
+    private void unloadChunk(MapChunk chunk) {
+        for (Wall wall : chunk.getWalls()) {
+            if (wall != null && wall.getBody() != null) {
+                world.destroyBody(wall.getBody());
+                wall.setBody(null);
             }
         }
+        for (PowerUp powerUp : chunk.getPowerUps()) {
+            if (powerUp != null) {
+                if (powerUp.getBody() != null) {
+                    world.destroyBody(powerUp.getBody());
+                    powerUp.setBody(null);
+                }
+                powerUps.remove(powerUp);
+            }
+        }
+        chunks[chunk.getChunkY() * chunksX + chunk.getChunkX()] = null;
+    }
 
-        this.flowers = new Flowers[this.width][this.height];
-        for (int i = 0; i < flowers.length; i++) {
-            for (int j = 0; j < flowers[i].length; j++) {
-                this.flowers[i][j] = new Flowers(i, j);
+    /**
+     * Returns the loaded chunk that contains a tile.
+     *
+     * @return the chunk, or null if the tile is outside of the map or its chunk is not loaded
+     */
+    private MapChunk chunkAt(int x, int y) {
+        if (!isInside(x, y)) {
+            return null;
+        }
+        return chunks[(y / CHUNK_SIZE) * chunksX + x / CHUNK_SIZE];
+    }
+
+    private boolean isInside(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    /**
+     * Checks whether the chunk around a position and all its neighbors are loaded,
+     * so that anything moving there collides with every wall it can reach within the next ticks.
+     */
+    private boolean isSurroundingLoaded(float worldX, float worldY) {
+        int chunkX = Math.round(worldX) / CHUNK_SIZE;
+        int chunkY = Math.round(worldY) / CHUNK_SIZE;
+        for (int cy = Math.max(0, chunkY - 1); cy <= Math.min(chunksY - 1, chunkY + 1); cy++) {
+            for (int cx = Math.max(0, chunkX - 1); cx <= Math.min(chunksX - 1, chunkX + 1); cx++) {
+                if (chunks[cy * chunksX + cx] == null) {
+                    return false;
+                }
             }
         }
+        return true;
     }
 
     /**
-     * Updates the game state. This is called once per frame.
-     * Every dynamic object in the game should update its state here.
+     * Creates the Box2D bodies of the walls around the player and the active enemies, and destroys the bodies
+     * no actor has come close to for a while. Static bodies that nothing can touch only cost time in the broadphase.
+     */
+    private void updateWallBodies() {
+        createWallBodiesAround(player.getX(), player.getY());
+        for (Enemy enemy : enemies) {
+            if (enemy.getBody().isActive()) {
+                createWallBodiesAround(enemy.getX(), enemy.getY());
+            }
+        }
+
+        long tickCount = clock.getTickCount();
+        if (tickCount % WALL_BODY_RELEASE_TICKS == 0) {
+            Iterator<Wall> iterator = wallsWithBodies.iterator();
+            while (iterator.hasNext()) {
+                Wall wall = iterator.next();
+                if (wall.getBody() == null) {
+                    iterator.remove(); // Destroyed or unloaded in the meantime
+                } else if (tickCount - wall.getLastNeededTick() > WALL_BODY_RELEASE_TICKS) {
+                    world.destroyBody(wall.getBody());
+                    wall.setBody(null);
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private void createWallBodiesAround(float worldX, float worldY) {
+        int centerX = Math.round(worldX);
+        int centerY = Math.round(worldY);
+        for (int y = centerY - WALL_BODY_RADIUS; y <= centerY + WALL_BODY_RADIUS; y++) {
+            for (int x = centerX - WALL_BODY_RADIUS; x <= centerX + WALL_BODY_RADIUS; x++) {
+                MapChunk chunk = chunkAt(x, y);
+                Wall wall = chunk != null ? chunk.getWall(x, y) : null;
+                if (wall == null) {
+                    continue;
+                }
+                if (wall.getBody() == null) {
+                    wall.createHitbox(world);
+                    wallsWithBodies.add(wall);
+                }
+                wall.setLastNeededTick(clock.getTickCount());
+            }
+        }
+    }
+
+    /**
+     * Advances the game state by the given frame time. This is called once per frame.
+     * The simulation always runs in fixed time steps, independent of the frame rate:
+     * as many ticks as fit into the accumulated frame time are simulated, and the remainder
+     * is used to interpolate the rendered positions between the last two ticks (see {@link #getAlpha()}).
+     * The {@link GameClock} decides how much game time a frame is worth, e.g. none while it is paused.
      *
-     * @param frameTime the time that has passed since the last update
+     * @param frameTime the time that has passed since the last frame
      */
     public void tick(float frameTime) {
-        updateEnemies(frameTime);
-        this.player.update(frameTime);
-        updateBombs(frameTime);
-        updateExplosionTiles(frameTime);
-        doPhysicsStep(frameTime);
+        clock.addFrameTime(frameTime);
+        while (outcome == Outcome.RUNNING && clock.takeTick()) {
+            simulateTick(clock.getTimeStep());
+        }
+    }
+
+    /**
+     * Simulates exactly one tick, independent of the elapsed time. This lets a replay run as fast as possible.
+     */
+    public void advanceTick() {
+        simulateTick(clock.getTimeStep());
     }
 
     /**
-     * Performs as many physics steps as necessary to catch up to the given frame time.
-     * This will update the Box2D world by the given time step.
+     * Simulates a single fixed time step.
+     * Every dynamic object in the game should update its state here.
+     * The steps are measured by the {@link FrameProfiler}, which costs nothing while it is disabled.
      *
-     * @param frameTime Time since last frame in seconds
+     * @param deltaTime the duration of the tick in seconds
      */
-    private void doPhysicsStep(float frameTime) {
-        this.physicsTime += frameTime;
-        while (this.physicsTime >= TIME_STEP) {
-            this.world.step(TIME_STEP, VELOCITY_ITERATIONS, POSITION_ITERATIONS);
-            this.physicsTime -= TIME_STEP;
+    private void simulateTick(float deltaTime) {
+        clock.advance();
+        // Remember where the moving objects were, so rendering can interpolate towards the new positions
+        this.player.savePreviousPosition();
+        for (Enemy enemy : enemies) {
+            enemy.savePreviousPosition();
         }
+        long start = FrameProfiler.begin();
+        int commands = commandSource.nextCommands();
+        FrameProfiler.end(FrameProfiler.Section.INPUT, start);
+        if ((commands & PlayerCommands.PLACE_BOMB) != 0) {
+            placeBomb();
+        }
+        start = FrameProfiler.begin();
+        updateEnemies(deltaTime);
+        FrameProfiler.end(FrameProfiler.Section.ENEMIES, start);
+        start = FrameProfiler.begin();
+        this.player.update(deltaTime, commands);
+        FrameProfiler.end(FrameProfiler.Section.PLAYER, start);
+        // Bomb detonations, the end of explosions and the level timeout
+        start = FrameProfiler.begin();
+        scheduler.advance(clock.getTickCount());
+        FrameProfiler.end(FrameProfiler.Section.SCHEDULER, start);
+        start = FrameProfiler.begin();
+        updateWallBodies();
+        FrameProfiler.end(FrameProfiler.Section.STREAMING, start);
+        start = FrameProfiler.begin();
+        doPhysicsStep(deltaTime);
+        FrameProfiler.end(FrameProfiler.Section.PHYSICS, start);
+
+        // Objects cannot be removed during the physics step, so this happens afterwards
+        start = FrameProfiler.begin();
+        processPendingWallRemovals();
+        processPendingEnemyRemovals();
+        processPendingBodyDestruction();
+        FrameProfiler.end(FrameProfiler.Section.REMOVALS, start);
+
+        start = FrameProfiler.begin();
+        updateStreaming(CHUNK_LOADS_PER_TICK);
+        FrameProfiler.end(FrameProfiler.Section.STREAMING, start);
+        updateScreenShake(deltaTime);
+        rewindBuffer.record();
+        if (FrameProfiler.isEnabled()) {
+            FrameProfiler.recordCounts(world.getBodyCount(), world.getContactCount(), enemies.size(), bombs.size(),
+                    explosionTiles.size(), powerUps.size());
+        }
+    }
+
+    /**
+     * Counts down the screen shake and picks the camera offset of this tick. This is part of the simulation,
+     * so it does not depend on the frame rate and can be rendered from another thread.
+     */
+    private void updateScreenShake(float deltaTime) {
+        if (shakeDuration > 0) {
+            shakeDuration -= deltaTime;
+            shakeOffsetX = nextShakeOffset();
+            shakeOffsetY = nextShakeOffset();
+        } else {
+            shakeOffsetX = 0;
+            shakeOffsetY = 0;
+        }
+    }
+
+    /**
+     * Performs one physics step, updating the Box2D world by the given time step.
+     *
+     * @param deltaTime the duration of the step in seconds
+     */
+    private void doPhysicsStep(float deltaTime) {
+        this.world.step(deltaTime, VELOCITY_ITERATIONS, POSITION_ITERATIONS);
+        FrameProfiler.countPhysicsStep();
+    }
+
+    /**
+     * Sets the number of simulation ticks per second, e.g. 30 on slow machines or 60 for smoother physics.
+     *
+     * @param ticksPerSecond the simulation rate
+     */
+    public void setSimulationRate(int ticksPerSecond) {
+        clock.setTicksPerSecond(ticksPerSecond);
+        if (levelTimeout != null) {
+            scheduleLevelTimeout(); // The deadline is a tick count, which depends on the rate
+        }
+        this.rewindBuffer = new RewindBuffer(this, REWIND_SECONDS * ticksPerSecond, REWIND_BUFFER_BYTES);
+        if (streamingStarted) {
+            rewindBuffer.record();
+        }
+    }
+
+    /**
+     * Converts a duration into the number of simulation ticks, rounded to the nearest tick.
+     *
+     * @param seconds the duration in seconds
+     * @return the number of ticks
+     */
+    public long secondsToTicks(float seconds) {
+        return clock.secondsToTicks(seconds);
+    }
+
+    /**
+     * Returns the scheduler that runs timed events, like bomb detonations, in simulation ticks.
+     * An event scheduled for a tick runs while that tick is simulated, before the physics step.
+     *
+     * @return the scheduler
+     */
+    public TimingWheel getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Returns the duration of one simulation tick in seconds.
+     *
+     * @return the time step
+     */
+    public float getTimeStep() {
+        return clock.getTimeStep();
+    }
+
+    /**
+     * Returns the clock of the game, which counts the simulated ticks and can be paused or sped up.
+     *
+     * @return the game clock
+     */
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Returns how far the current frame is between the previous and the latest simulation tick.
+     * 0 means the previous tick, 1 means the latest one.
+     *
+     * @return the interpolation factor
+     */
+    public float getAlpha() {
+        return clock.getAlpha();
     }
 
     public void triggerScreenShake(float duration, float intensity) {
@@ -155,59 +955,170 @@ public void triggerScreenShake(float duration, float intensity) {
         this.shakeIntensity = intensity;
     }
 
-
     /**
-     * Updates all the bombs in the game.
-     * This checks if the bomb is exploded and removes it from the list if so.
+     * Returns a random camera offset for the screen shake, between minus and plus the shake intensity.
      *
-     * @param deltaTime the time that has passed since the last update
+     * @return the offset in pixels
      */
-    public void updateBombs(float deltaTime) {
-        Iterator<Bomb> iterator = bombs.iterator();
-        while (iterator.hasNext()) {
-            Bomb bomb = iterator.next();
-            bomb.update(deltaTime);
-            if (bomb.isExploded()) {
-                iterator.remove();
-                bomb.removeBomb(bomb);
-            }
-        }
+    private float nextShakeOffset() {
+        return (random.nextFloat() * 2 - 1) * shakeIntensity;
     }
 
+
     /**
-     * Updates all the explosion tiles in the game.
-     * If the animation for an explosion tile has finished, it is removed.
+     * Adds an explosion tile and schedules its removal after {@link ExplosionTile#DURATION}.
      *
-     * @param deltaTime the time that has passed since the last update
+     * @param tile the explosion tile, which starts in the current tick or, if it was restored, earlier
      */
-    public void updateExplosionTiles(float deltaTime) {
-        Iterator<ExplosionTile> iterator = explosionTiles.iterator();
-        while (iterator.hasNext()) {
-            ExplosionTile tile = iterator.next();
-            tile.update(deltaTime);
-            if (tile.isAnimationFinished()) {
-                iterator.remove();
-            }
+    public void addExplosionTile(ExplosionTile tile) {
+        explosionTiles.add(tile);
+        scheduler.schedule(tile.getStartTick() + secondsToTicks(ExplosionTile.DURATION), () -> {
+            tile.finish();
+            explosionTiles.remove(tile);
+        });
+    }
+
+    /**
+     * Ends the game when the time of the level has run out. The deadline counts from the first tick,
+     * so it stays the same when the game is restored or rewound.
+     */
+    private void scheduleLevelTimeout() {
+        if (levelTimeout != null) {
+            levelTimeout.cancel();
         }
+        levelTimeout = scheduler.schedule(secondsToTicks(GameClock.TOTAL_TIME_MILLIS / 1000f), () -> finish(Outcome.LOST));
     }
 
     /**
      * Updates all the enemies in the game.
+     * Enemies in parts of the map that are not loaded are frozen, since the walls around them do not exist.
      * If all enemies are cleared, the exit is activated.
      *
      * @param deltaTime the time that has passed since the last update
      */
     public void updateEnemies(float deltaTime) {
         for (Enemy enemy : enemies) {
-            enemy.update(deltaTime);
+            boolean active = isSurroundingLoaded(enemy.getX(), enemy.getY());
+            if (enemy.getBody().isActive() != active) {
+                enemy.getBody().setActive(active);
+            }
+            if (active) {
+                enemy.update(deltaTime);
+            }
         }
         if (enemies.isEmpty() && !exit.isActive()) {
             exit.getBody().setActive(true);
             enemiesCleared = true;
-            MusicTrack.EXITREVEAL.play();
+            int exitX = Math.round(exit.getX());
+            int exitY = Math.round(exit.getY());
+            notifyChangeListeners(listener -> listener.exitActivated(exitX, exitY));
+            SoundEffect.EXITREVEAL.play();
+        }
+    }
+
+    /**
+     * Sets where the player's commands come from, e.g. the keyboard or a recording.
+     *
+     * @param commandSource the source that is asked once per simulation tick
+     */
+    public void setCommandSource(CommandSource commandSource) {
+        this.commandSource = commandSource;
+    }
+
+    /**
+     * Remembers which map file this map was loaded from and with which seed, so a game can be recorded and replayed.
+     * The seed also makes the effects of this map reproducible.
+     *
+     * @param mapPath The path to the map file, or null if it is not known.
+     * @param mapHash The hash of the map file, see {@link de.tum.cit.ase.bomberquest.gamemechanism.MapCache#hash}.
+     * @param seed The seed the map was loaded with, see {@link MapLoader#setSeed(long)}.
+     */
+    public void setSource(String mapPath, String mapHash, long seed) {
+        this.mapPath = mapPath;
+        this.mapHash = mapHash;
+        this.seed = seed;
+        this.random.setSeed(seed);
+    }
+
+    public String getMapPath() {
+        return mapPath;
+    }
+
+    public String getMapHash() {
+        return mapHash;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns how the game has ended so far. Once the game has ended, no more ticks are simulated.
+     *
+     * @return the outcome, {@link Outcome#RUNNING} while the game goes on
+     */
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Returns the number of ticks simulated since the map was loaded or restarted.
+     *
+     * @return the tick count
+     */
+    public long getTickCount() {
+        return clock.getTickCount();
+    }
+
+    /**
+     * Returns the recorded ticks of the game, see {@link #rewindTo(long)}.
+     *
+     * @return the rewind buffer
+     */
+    public RewindBuffer getRewindBuffer() {
+        return rewindBuffer;
+    }
+
+    /**
+     * Puts the game back into the state after an earlier tick, or forward again to a later recorded tick.
+     * The ticks after it are only dropped once the game continues from there.
+     * This must not be called during the physics step.
+     *
+     * @param tick The tick, between {@link RewindBuffer#getOldestTick()} and {@link RewindBuffer#getNewestTick()}.
+     */
+    public void rewindTo(long tick) {
+        if (tick != clock.getTickCount()) {
+            rewindBuffer.seek(tick);
         }
     }
 
+    /**
+     * Computes a checksum of the simulated state: the positions of the player and the enemies, the changes to the map
+     * and the bombs. Two games that were simulated identically have the same checksum, so this detects replays
+     * that went differently than the original game.
+     *
+     * @return the checksum
+     */
+    public long getStateChecksum() {
+        long checksum = clock.getTickCount();
+        checksum = 31 * checksum + outcome.ordinal();
+        checksum = 31 * checksum + Float.floatToIntBits(player.getX());
+        checksum = 31 * checksum + Float.floatToIntBits(player.getY());
+        checksum = 31 * checksum + player.getConcurrentBombCount() * 16L + player.getBlastRadius();
+        for (Enemy enemy : initialEnemies) {
+            checksum = 31 * checksum + (enemy.isAlive() ? 1 : 0);
+            checksum = 31 * checksum + Float.floatToIntBits(enemy.getX());
+            checksum = 31 * checksum + Float.floatToIntBits(enemy.getY());
+        }
+        for (Bomb bomb : bombs) {
+            checksum = 31 * checksum + Float.floatToIntBits(bomb.getX());
+            checksum = 31 * checksum + Float.floatToIntBits(bomb.getY());
+        }
+        checksum = 31 * checksum + delta.getDestroyedWalls().hashCode();
+        checksum = 31 * checksum + delta.getCollectedPowerUps().hashCode();
+        return checksum;
+    }
+
     /**
      * Returns the Box2D world used for physics simulation.
      *
@@ -217,6 +1128,71 @@ public World getWorld() {
         return world;
     }
 
+    /**
+     * Returns the width of the map in tiles.
+     *
+     * @return the map width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the map in tiles.
+     *
+     * @return the map height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the parsed map this map was loaded from.
+     *
+     * @return the map grid
+     */
+    public MapGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Registers a listener that is notified whenever the static content of a tile changes.
+     *
+     * @param listener the listener to add
+     */
+    public void addChangeListener(MapChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Unregisters a previously added change listener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeChangeListener(MapChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Sets where change notifications run. By default, they run right away on the thread that changes the map.
+     * When the map is simulated on another thread, the notifications must be passed to the render thread,
+     * since the listeners update textures and meshes, e.g. with {@code Gdx.app::postRunnable}.
+     * The listeners must only be added and removed on that thread.
+     *
+     * @param executor runs the notifications
+     */
+    public void setChangeListenerExecutor(Executor executor) {
+        this.changeListenerExecutor = executor;
+    }
+
+    private void notifyChangeListeners(Consumer<MapChangeListener> notification) {
+        changeListenerExecutor.execute(() -> {
+            for (MapChangeListener listener : changeListeners) {
+                notification.accept(listener);
+            }
+        });
+    }
+
     /**
      * Returns the player in the game.
      *
@@ -235,6 +1211,13 @@ public Exit getExit() {
         return exit;
     }
 
+    /**
+     * Returns all enemies of the map in loading order, including the killed ones.
+     */
+    List<Enemy> getInitialEnemies() {
+        return initialEnemies;
+    }
+
     /**
      * Returns the list of enemies in the game.
      *
@@ -245,25 +1228,84 @@ public List<Enemy> getEnemies() {
     }
 
     /**
-     * Returns the list of destructible walls in the game.
+     * Checks whether there is an indestructible wall on a tile. This works for the whole map, loaded or not.
+     *
+     * @param x The X tile coordinate.
+     * @param y The Y tile coordinate.
+     * @return true if there is an indestructible wall
+     */
+    public boolean hasIndestructibleWall(int x, int y) {
+        return isInside(x, y) && grid.has(x, y, MapLoader.INDESTRUCTIBLE_WALL);
+    }
+
+    /**
+     * Checks whether there is a destructible wall on a tile that has not been destroyed yet.
+     * This works for the whole map, loaded or not.
+     *
+     * @param x The X tile coordinate.
+     * @param y The Y tile coordinate.
+     * @return true if there is a destructible wall
+     */
+    public boolean hasDestructibleWall(int x, int y) {
+        return isInside(x, y) && grid.has(x, y, MapLoader.DESTRUCTIBLE_WALL) && !delta.isWallDestroyed(x, y);
+    }
+
+    /**
+     * Checks whether there is any wall on a tile.
+     *
+     * @param x The X tile coordinate.
+     * @param y The Y tile coordinate.
+     * @return true if the tile is blocked by a wall
+     */
+    public boolean hasWallAt(int x, int y) {
+        return hasIndestructibleWall(x, y) || hasDestructibleWall(x, y);
+    }
+
+    /**
+     * Checks whether there is a power-up on a tile that has not been collected yet, hidden or not.
+     * This works for the whole map, loaded or not.
+     *
+     * @param x The X tile coordinate.
+     * @param y The Y tile coordinate.
+     * @return true if there is a power-up
+     */
+    public boolean hasPowerUp(int x, int y) {
+        int powerUpBits = MapGrid.bit(MapLoader.BOMB_POWER_UP) | MapGrid.bit(MapLoader.BLAST_RADIUS_POWER_UP);
+        return isInside(x, y) && (grid.getMask(x, y) & powerUpBits) != 0 && !delta.isPowerUpCollected(x, y);
+    }
+
+    /**
+     * Returns the destructible wall object on a tile. Only walls in loaded chunks exist as objects.
+     *
+     * @param x The X tile coordinate.
+     * @param y The Y tile coordinate.
+     * @return the wall, or null if there is none or its chunk is not loaded
+     */
+    public DestructibleWall getDestructibleWallAt(int x, int y) {
+        MapChunk chunk = chunkAt(x, y);
+        return chunk != null && chunk.getWall(x, y) instanceof DestructibleWall wall ? wall : null;
+    }
+
+    /**
+     * Returns the changes made to the static layer of the map so far.
      *
-     * @return the list of destructible walls
+     * @return the destroyed walls and collected power-ups
      */
-    public List<DestructibleWall> getDestructibleWalls() {
-        return destructibleWalls;
+    public MapDelta getDelta() {
+        return delta;
     }
 
     /**
-     * Returns the list of indestructible walls in the game.
+     * Returns the chunks whose walls and power-ups currently exist as game objects.
      *
-     * @return the list of indestructible walls
+     * @return the loaded chunks
      */
-    public List<IndestructibleWall> getIndestructibleWalls() {
-        return indestructibleWalls;
+    public List<MapChunk> getLoadedChunks() {
+        return loadedChunks;
     }
 
     /**
-     * Returns the list of power-ups in the game.
+     * Returns the list of power-ups in the loaded chunks.
      *
      * @return the list of power-ups
      */
@@ -280,15 +1322,6 @@ public List<ExplosionTile> getExplosionTiles() {
         return explosionTiles;
     }
 
-    /**
-     * Returns the flowers on the map.
-     *
-     * @return the list of flowers
-     */
-    public List<Flowers> getFlowers() {
-        return Arrays.stream(flowers).flatMap(Arrays::stream).toList();
-    }
-
     /**
      * Returns the list of bombs on the map.
      *
@@ -326,12 +1359,21 @@ public float getShakeIntensity() {
     }
 
     /**
-     * Changes the remaining shake duration for camera.
+     * Returns the horizontal camera offset of the screen shake in the latest tick.
      *
-     * @param shakeDuration new shake duration to set
+     * @return the offset in pixels, 0 if the screen does not shake
      */
-    public void setShakeDuration(float shakeDuration) {
-        this.shakeDuration = shakeDuration;
+    public float getShakeOffsetX() {
+        return shakeOffsetX;
+    }
+
+    /**
+     * Returns the vertical camera offset of the screen shake in the latest tick.
+     *
+     * @return the offset in pixels, 0 if the screen does not shake
+     */
+    public float getShakeOffsetY() {
+        return shakeOffsetY;
     }
 
     /**
@@ -341,10 +1383,25 @@ public void setShakeDuration(float shakeDuration) {
      */
     public void removeDestructibleWalls(DestructibleWall wall) {
         if (wall == null) return;
+        int x = Math.round(wall.getX());
+        int y = Math.round(wall.getY());
+        MapChunk chunk = chunkAt(x, y);
+        if (chunk == null || chunk.getWall(x, y) != wall) {
+            return; // Already removed, or its chunk was unloaded in the meantime
+        }
         if (wall.getBody() != null) {
             bodiesToDestroy.add(wall.getBody());
+            wall.setBody(null);
+        }
+        chunk.setWall(x, y, null);
+        delta.destroyWall(x, y);
+        rewindBuffer.wallDestroyed(y * width + x);
+        // Reveal a power-up hidden under the wall
+        PowerUp powerUp = chunk.getPowerUp(x, y);
+        if (powerUp != null && powerUp.getBody() == null) {
+            powerUp.createHitbox(world);
         }
-        getDestructibleWalls().remove(wall);
+        notifyChangeListeners(listener -> listener.wallRemoved(x, y));
     }
 
     /**
@@ -359,11 +1416,21 @@ public void removePowerUp(PowerUp powerUp) {
             bodiesToDestroy.add(powerUp.getBody());
             powerUp.setBody(null);
         }
-        powerUps.remove(powerUp);
+        if (powerUps.remove(powerUp)) {
+            int x = Math.round(powerUp.getX());
+            int y = Math.round(powerUp.getY());
+            MapChunk chunk = chunkAt(x, y);
+            if (chunk != null) {
+                chunk.setPowerUp(x, y, null);
+            }
+            delta.collectPowerUp(x, y);
+            rewindBuffer.powerUpCollected(y * width + x);
+            notifyChangeListeners(listener -> listener.powerUpRemoved(x, y));
+        }
     }
 
     /**
-     * Removes an enemy from the game and destroys its associated physics body.
+     * Removes an enemy from the game. Its physics body is only deactivated, so {@link #restart()} can bring it back.
      *
      * @param enemy the enemy to remove
      */
@@ -371,8 +1438,9 @@ public void removeEnemies(Enemy enemy) {
         if (enemy == null) return;
 
         if (enemy.getBody() != null) {
-            bodiesToDestroy.add(enemy.getBody());
+            enemy.getBody().setActive(false);
         }
+        enemy.setAlive(false);
         getEnemies().remove(enemy);
     }
 
@@ -385,7 +1453,7 @@ public void placeBomb() {
             float bombY = MathUtils.round(player.getY());
             Bomb bomb = new Bomb(bombX, bombY, player.getBlastRadius(), this);
             bombs.add(bomb);
-            MusicTrack.BOMBPLACE.play();
+            SoundEffect.BOMBPLACE.play();
         }
     }
 
@@ -395,7 +1463,7 @@ public void placeBomb() {
      * @param wall the wall to queue for removal
      */
     public void queueWallForRemoval(DestructibleWall wall) {
-        if (!wallsToRemove.contains(wall)) {
+        if (wall != null && !wallsToRemove.contains(wall)) {
             wallsToRemove.add(wall);
         }
     }
@@ -449,4 +1517,11 @@ public void processPendingBodyDestruction() {
         }
         bodiesToDestroy.clear();
     }
+
+    /**
+     * Releases the Box2D world and all bodies in it. The map must not be used afterwards.
+     */
+    public void dispose() {
+        world.dispose();
+    }
 }
@@ -0,0 +1,208 @@
+package de.tum.cit.ase.bomberquest.map;
+
+import de.tum.cit.ase.bomberquest.gamemechanism.MapGrid;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A copy of everything that changes while a map is played, see {@link GameMap#createSnapshot()} and
+ * {@link GameMap#restore(GameSnapshot)}. Walls and power-ups are not stored one by one: together with the grid,
+ * the destroyed walls and collected power-ups of the {@link MapDelta} describe the whole static layer.
+ * The grid never changes after loading, so it is shared instead of copied.
+ * A snapshot does not reference any game object, so it can be written to disk on another thread.
+ */
+public class GameSnapshot {
+
+    private final MapGrid grid;
+    private final BitSet destroyedWalls;
+    private final BitSet collectedPowerUps;
+    /** The number of simulated ticks, which is also the time played so far, see {@link GameClock}. */
+    private final long tickCount;
+    private final boolean exitActive;
+    private final ActorState player;
+    private final int concurrentBombCount;
+    private final int blastRadius;
+    /** The state of every enemy of the map in loading order, including the killed ones. */
+    private final List<ActorState> enemies;
+    private final List<BombState> bombs;
+    private final List<ExplosionState> explosions;
+
+    /**
+     * The position, velocity and animation time of the player or an enemy.
+     */
+    public static class ActorState {
+        private final boolean alive;
+        private final float x;
+        private final float y;
+        private final float velocityX;
+        private final float velocityY;
+        private final float elapsedTime;
+
+        public ActorState(boolean alive, float x, float y, float velocityX, float velocityY, float elapsedTime) {
+            this.alive = alive;
+            this.x = x;
+            this.y = y;
+            this.velocityX = velocityX;
+            this.velocityY = velocityY;
+            this.elapsedTime = elapsedTime;
+        }
+
+        public boolean isAlive() {
+            return alive;
+        }
+
+        public float getX() {
+            return x;
+        }
+
+        public float getY() {
+            return y;
+        }
+
+        public float getVelocityX() {
+            return velocityX;
+        }
+
+        public float getVelocityY() {
+            return velocityY;
+        }
+
+        public float getElapsedTime() {
+            return elapsedTime;
+        }
+    }
+
+    /**
+     * A bomb that has not exploded yet.
+     */
+    public static class BombState {
+        private final float x;
+        private final float y;
+        private final int blastRadius;
+        private final float timer;
+        private final float elapsedTime;
+
+        public BombState(float x, float y, int blastRadius, float timer, float elapsedTime) {
+            this.x = x;
+            this.y = y;
+            this.blastRadius = blastRadius;
+            this.timer = timer;
+            this.elapsedTime = elapsedTime;
+        }
+
+        public float getX() {
+            return x;
+        }
+
+        public float getY() {
+            return y;
+        }
+
+        public int getBlastRadius() {
+            return blastRadius;
+        }
+
+        public float getTimer() {
+            return timer;
+        }
+
+        public float getElapsedTime() {
+            return elapsedTime;
+        }
+    }
+
+    /**
+     * An explosion tile that is still animated.
+     */
+    public static class ExplosionState {
+        private final float x;
+        private final float y;
+        /** The animation of the tile, see {@link ExplosionTile#getAnimationId()}. */
+        private final int animationId;
+        private final float elapsedTime;
+
+        public ExplosionState(float x, float y, int animationId, float elapsedTime) {
+            this.x = x;
+            this.y = y;
+            this.animationId = animationId;
+            this.elapsedTime = elapsedTime;
+        }
+
+        public float getX() {
+            return x;
+        }
+
+        public float getY() {
+            return y;
+        }
+
+        public int getAnimationId() {
+            return animationId;
+        }
+
+        public float getElapsedTime() {
+            return elapsedTime;
+        }
+    }
+
+    public GameSnapshot(MapGrid grid, BitSet destroyedWalls, BitSet collectedPowerUps, long tickCount,
+                        boolean exitActive, ActorState player, int concurrentBombCount, int blastRadius,
+                        List<ActorState> enemies, List<BombState> bombs, List<ExplosionState> explosions) {
+        this.grid = grid;
+        this.destroyedWalls = destroyedWalls;
+        this.collectedPowerUps = collectedPowerUps;
+        this.tickCount = tickCount;
+        this.exitActive = exitActive;
+        this.player = player;
+        this.concurrentBombCount = concurrentBombCount;
+        this.blastRadius = blastRadius;
+        this.enemies = enemies;
+        this.bombs = bombs;
+        this.explosions = explosions;
+    }
+
+    public MapGrid getGrid() {
+        return grid;
+    }
+
+    public BitSet getDestroyedWalls() {
+        return destroyedWalls;
+    }
+
+    public BitSet getCollectedPowerUps() {
+        return collectedPowerUps;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public boolean isExitActive() {
+        return exitActive;
+    }
+
+    public ActorState getPlayer() {
+        return player;
+    }
+
+    public int getConcurrentBombCount() {
+        return concurrentBombCount;
+    }
+
+    public int getBlastRadius() {
+        return blastRadius;
+    }
+
+    public List<ActorState> getEnemies() {
+        return enemies;
+    }
+
+    public List<BombState> getBombs() {
+        return bombs;
+    }
+
+    public List<ExplosionState> getExplosions() {
+        return explosions;
+    }
+}
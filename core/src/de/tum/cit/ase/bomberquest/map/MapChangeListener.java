@@ -0,0 +1,72 @@
+package de.tum.cit.ase.bomberquest.map;
+
+/**
+ * Receives notifications whenever the static content of a tile changes during the game.
+ * This allows views of the map (e.g. the minimap) to update only the tiles that actually changed
+ * instead of rebuilding themselves from the entity lists every frame.
+ * <p>
+ * With {@link de.tum.cit.ase.bomberquest.gamemechanism.SimulationThread}, the notifications reach the render thread
+ * while the map is already simulated further, so a listener must not read the map in them. It keeps its own copy of
+ * the tiles, taken from the map when the listener is created and then only changed by the notifications.
+ */
+public interface MapChangeListener {
+
+    /**
+     * Called when a destructible wall has been removed from the map.
+     *
+     * @param x The X tile coordinate of the wall.
+     * @param y The Y tile coordinate of the wall.
+     */
+    void wallRemoved(int x, int y);
+
+    /**
+     * Called when a destroyed wall has come back because the game was rewound.
+     *
+     * @param x The X tile coordinate of the wall.
+     * @param y The Y tile coordinate of the wall.
+     */
+    void wallRestored(int x, int y);
+
+    /**
+     * Called when a power-up has been collected and removed from the map.
+     *
+     * @param x The X tile coordinate of the power-up.
+     * @param y The Y tile coordinate of the power-up.
+     */
+    void powerUpRemoved(int x, int y);
+
+    /**
+     * Called when a collected power-up has come back because the game was rewound.
+     *
+     * @param x The X tile coordinate of the power-up.
+     * @param y The Y tile coordinate of the power-up.
+     */
+    void powerUpRestored(int x, int y);
+
+    /**
+     * Called when the exit has been unlocked because all enemies are cleared.
+     *
+     * @param x The X tile coordinate of the exit.
+     * @param y The Y tile coordinate of the exit.
+     */
+    void exitActivated(int x, int y);
+
+    /**
+     * Called when the exit is locked again because the game was rewound to before all enemies were cleared.
+     *
+     * @param x The X tile coordinate of the exit.
+     * @param y The Y tile coordinate of the exit.
+     */
+    void exitDeactivated(int x, int y);
+
+    /**
+     * Called when the whole map has been set back to an earlier state, e.g. when the game is restarted or loaded.
+     * Walls and power-ups may have come back anywhere, so the listener has to read all tiles again.
+     * Rewinding only reports the tiles that changed.
+     *
+     * @param delta A copy of the changes to the map at the time of the reset. It is shared by all listeners
+     *              and must not be changed.
+     * @param exitActive Whether the exit was unlocked at the time of the reset.
+     */
+    void mapReset(MapDelta delta, boolean exitActive);
+}
@@ -0,0 +1,123 @@
+package de.tum.cit.ase.bomberquest.map;
+
+import de.tum.cit.ase.bomberquest.powerups.PowerUp;
+
+/**
+ * A square part of the map whose walls and power-ups currently exist as game objects with Box2D bodies.
+ * Chunks are created when the player comes close and dropped again when the player is far away,
+ * see {@link GameMap#CHUNK_SIZE}.
+ */
+public class MapChunk {
+
+    private final int chunkX;
+    private final int chunkY;
+    private final int originX;
+    private final int originY;
+    private final int width;
+    private final int height;
+    /** The wall on every tile, indexed by {@code localY * width + localX}. */
+    private final Wall[] walls;
+    /** The power-up on every tile, indexed like {@link #walls}. */
+    private final PowerUp[] powerUps;
+
+    /**
+     * Creates an empty chunk.
+     *
+     * @param chunkX The X coordinate of the chunk, in chunks.
+     * @param chunkY The Y coordinate of the chunk, in chunks.
+     * @param width The width of the chunk in tiles, smaller than the chunk size at the edge of the map.
+     * @param height The height of the chunk in tiles.
+     */
+    public MapChunk(int chunkX, int chunkY, int width, int height) {
+        this.chunkX = chunkX;
+        this.chunkY = chunkY;
+        this.originX = chunkX * GameMap.CHUNK_SIZE;
+        this.originY = chunkY * GameMap.CHUNK_SIZE;
+        this.width = width;
+        this.height = height;
+        this.walls = new Wall[width * height];
+        this.powerUps = new PowerUp[width * height];
+    }
+
+    private int indexOf(int x, int y) {
+        return (y - originY) * width + (x - originX);
+    }
+
+    /**
+     * Returns the wall on a tile of this chunk.
+     *
+     * @param x The X tile coordinate of the map.
+     * @param y The Y tile coordinate of the map.
+     * @return the wall, or null if there is none
+     */
+    public Wall getWall(int x, int y) {
+        return walls[indexOf(x, y)];
+    }
+
+    /**
+     * Sets the wall on a tile of this chunk.
+     *
+     * @param x The X tile coordinate of the map.
+     * @param y The Y tile coordinate of the map.
+     * @param wall The wall, or null to clear the tile.
+     */
+    public void setWall(int x, int y, Wall wall) {
+        walls[indexOf(x, y)] = wall;
+    }
+
+    /**
+     * Returns the power-up on a tile of this chunk.
+     *
+     * @param x The X tile coordinate of the map.
+     * @param y The Y tile coordinate of the map.
+     * @return the power-up, or null if there is none
+     */
+    public PowerUp getPowerUp(int x, int y) {
+        return powerUps[indexOf(x, y)];
+    }
+
+    /**
+     * Sets the power-up on a tile of this chunk.
+     *
+     * @param x The X tile coordinate of the map.
+     * @param y The Y tile coordinate of the map.
+     * @param powerUp The power-up, or null to clear the tile.
+     */
+    public void setPowerUp(int x, int y, PowerUp powerUp) {
+        powerUps[indexOf(x, y)] = powerUp;
+    }
+
+    /** Returns all wall slots of the chunk. Empty tiles are null. */
+    public Wall[] getWalls() {
+        return walls;
+    }
+
+    /** Returns all power-up slots of the chunk. Empty tiles are null. */
+    public PowerUp[] getPowerUps() {
+        return powerUps;
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkY() {
+        return chunkY;
+    }
+
+    public int getOriginX() {
+        return originX;
+    }
+
+    public int getOriginY() {
+        return originY;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
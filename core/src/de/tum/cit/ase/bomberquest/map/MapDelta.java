@@ -0,0 +1,134 @@
+package de.tum.cit.ase.bomberquest.map;
+
+import java.util.BitSet;
+
+/**
+ * The changes made to the static content of a map while playing, on top of the parsed {@link de.tum.cit.ase.bomberquest.gamemechanism.MapGrid}.
+ * Only destructible walls and power-ups can change, so one bit per tile and kind is enough.
+ * The delta outlives the game objects of a chunk: when a chunk is unloaded and loaded again,
+ * destroyed walls and collected power-ups are not recreated.
+ */
+public class MapDelta {
+
+    private final int width;
+    private final BitSet destroyedWalls;
+    private final BitSet collectedPowerUps;
+
+    /**
+     * Creates an empty delta for a map of the given size.
+     * The bits for all tiles are allocated right away, so the sets never grow while the game runs.
+     * The delta belongs to the thread that simulates the map: views of the map keep their own copy,
+     * see {@link MapChangeListener}.
+     *
+     * @param width The width of the map in tiles.
+     * @param height The height of the map in tiles.
+     */
+    public MapDelta(int width, int height) {
+        this.width = width;
+        this.destroyedWalls = new BitSet(width * height);
+        this.collectedPowerUps = new BitSet(width * height);
+    }
+
+    private MapDelta(MapDelta other) {
+        this.width = other.width;
+        this.destroyedWalls = (BitSet) other.destroyedWalls.clone();
+        this.collectedPowerUps = (BitSet) other.collectedPowerUps.clone();
+    }
+
+    /**
+     * Returns a copy of this delta, which another thread can read while the map goes on changing this one.
+     *
+     * @return the copy
+     */
+    public MapDelta copy() {
+        return new MapDelta(this);
+    }
+
+    /**
+     * Records that the destructible wall on a tile was destroyed.
+     *
+     * @param x The X tile coordinate.
+     * @param y The Y tile coordinate.
+     */
+    public void destroyWall(int x, int y) {
+        destroyedWalls.set(y * width + x);
+    }
+
+    /**
+     * Records that the destructible wall on a tile exists again, e.g. because the game was rewound.
+     *
+     * @param x The X tile coordinate.
+     * @param y The Y tile coordinate.
+     */
+    public void restoreWall(int x, int y) {
+        destroyedWalls.clear(y * width + x);
+    }
+
+    /**
+     * Checks whether the destructible wall on a tile was destroyed.
+     *
+     * @param x The X tile coordinate.
+     * @param y The Y tile coordinate.
+     * @return true if the wall was destroyed
+     */
+    public boolean isWallDestroyed(int x, int y) {
+        return destroyedWalls.get(y * width + x);
+    }
+
+    /**
+     * Records that the power-up on a tile was collected.
+     *
+     * @param x The X tile coordinate.
+     * @param y The Y tile coordinate.
+     */
+    public void collectPowerUp(int x, int y) {
+        collectedPowerUps.set(y * width + x);
+    }
+
+    /**
+     * Records that the power-up on a tile exists again, e.g. because the game was rewound.
+     *
+     * @param x The X tile coordinate.
+     * @param y The Y tile coordinate.
+     */
+    public void restorePowerUp(int x, int y) {
+        collectedPowerUps.clear(y * width + x);
+    }
+
+    /**
+     * Checks whether the power-up on a tile was collected.
+     *
+     * @param x The X tile coordinate.
+     * @param y The Y tile coordinate.
+     * @return true if the power-up was collected
+     */
+    public boolean isPowerUpCollected(int x, int y) {
+        return collectedPowerUps.get(y * width + x);
+    }
+
+    /**
+     * Forgets all changes, so every destructible wall and power-up of the grid exists again.
+     */
+    public void clear() {
+        destroyedWalls.clear();
+        collectedPowerUps.clear();
+    }
+
+    /**
+     * Returns the destroyed walls as tile indices ({@code y * width + x}).
+     *
+     * @return the destroyed walls, not a copy
+     */
+    public BitSet getDestroyedWalls() {
+        return destroyedWalls;
+    }
+
+    /**
+     * Returns the collected power-ups as tile indices ({@code y * width + x}).
+     *
+     * @return the collected power-ups, not a copy
+     */
+    public BitSet getCollectedPowerUps() {
+        return collectedPowerUps;
+    }
+}
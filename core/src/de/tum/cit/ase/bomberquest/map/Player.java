@@ -1,7 +1,7 @@
 package de.tum.cit.ase.bomberquest.map;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.CircleShape;
@@ -17,6 +17,10 @@
  */
 public class Player extends GameObject implements Drawable {
 
+    /** Default maximum number of bombs the player can place and blast radius of those bombs, before any power-ups. */
+    private static final int DEFAULT_CONCURRENT_BOMB_COUNT = 1;
+    private static final int DEFAULT_BLAST_RADIUS = 1;
+
     /** Total time elapsed since the game started. Used for calculating player movement and animation. */
     private float elapsedTime;
 
@@ -33,6 +37,10 @@ public class Player extends GameObject implements Drawable {
     /** Flag indicating whether the player is currently walking. */
     private boolean isWalking = false;
 
+    /** The position of the player before the latest simulation tick, used for interpolated rendering. */
+    private float previousX;
+    private float previousY;
+
     /**
      * Constructor for Player.
      * This constructor initializes the player's position using the GameObject constructor
@@ -45,8 +53,45 @@ public class Player extends GameObject implements Drawable {
     public Player(World world, float x, float y) {
         super(x, y);  // Calls the GameObject constructor to set the player's position
         this.hitbox = createHitbox(world, x, y);  // Creates the Box2D hitbox for the player
-        this.concurrentBombCount = 1;  // Default maximum bombs the player can place
-        this.blastRadius = 1;  // Default blast radius of the player's bombs
+        this.previousX = x;
+        this.previousY = y;
+        this.concurrentBombCount = DEFAULT_CONCURRENT_BOMB_COUNT;
+        this.blastRadius = DEFAULT_BLAST_RADIUS;
+    }
+
+    /**
+     * Moves the player back to the entrance and takes away all collected power-ups.
+     * This is used to restart the level without creating a new player.
+     */
+    public void reset() {
+        this.hitbox.setTransform(x, y, 0);
+        this.hitbox.setLinearVelocity(0, 0);
+        this.previousX = x;
+        this.previousY = y;
+        this.elapsedTime = 0;
+        this.currentDirection = Direction.NONE;
+        this.isWalking = false;
+        this.concurrentBombCount = DEFAULT_CONCURRENT_BOMB_COUNT;
+        this.blastRadius = DEFAULT_BLAST_RADIUS;
+    }
+
+    /**
+     * Captures the position, velocity and animation time of the player for a {@link GameSnapshot}.
+     */
+    GameSnapshot.ActorState saveState() {
+        Vector2 velocity = hitbox.getLinearVelocity();
+        return new GameSnapshot.ActorState(true, getX(), getY(), velocity.x, velocity.y, elapsedTime);
+    }
+
+    /**
+     * Puts the player back into a state captured by {@link #saveState()}.
+     */
+    void restoreState(GameSnapshot.ActorState state) {
+        this.hitbox.setTransform(state.getX(), state.getY(), 0);
+        this.hitbox.setLinearVelocity(state.getVelocityX(), state.getVelocityY());
+        this.elapsedTime = state.getElapsedTime();
+        this.previousX = state.getX();
+        this.previousY = state.getY();
     }
 
     /**
@@ -90,35 +135,46 @@ public enum Direction {
     }
 
     /**
-     * Updates the player's state, including movement and animation.
-     * This method checks for player input (arrow keys) and updates the player's velocity accordingly.
+     * Updates the player's state without any commands, so the player stands still.
      *
      * @param frameTime The time elapsed since the last frame, used to update animation and movement.
      */
+    @Override
     public void update(float frameTime) {
+        update(frameTime, PlayerCommands.NONE);
+    }
+
+    /**
+     * Updates the player's state, including movement and animation.
+     * This method applies the movement commands of the current simulation tick to the player's velocity.
+     *
+     * @param frameTime The time elapsed since the last frame, used to update animation and movement.
+     * @param commands The commands of this tick, a combination of the {@link PlayerCommands} bits.
+     */
+    public void update(float frameTime, int commands) {
         this.elapsedTime += frameTime;  // Increase the elapsed time for animation.
         float speed = 3.5f;  // Define the player's movement speed.
         float xVelocity = 0;
         float yVelocity = 0;
         boolean isArrowKeyPressed = false;
 
-        // Handle player movement based on key presses.
-        if (Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.UP)) {
+        // Handle player movement based on the commands.
+        if ((commands & PlayerCommands.UP) != 0) {
             currentDirection = Direction.UP;
             yVelocity = speed;
             isArrowKeyPressed = true;
         }
-        if (Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.DOWN)) {
+        if ((commands & PlayerCommands.DOWN) != 0) {
             currentDirection = Direction.DOWN;
             yVelocity = -speed;  // Moving down decreases the Y position.
             isArrowKeyPressed = true;
         }
-        if (Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.LEFT)) {
+        if ((commands & PlayerCommands.LEFT) != 0) {
             currentDirection = Direction.LEFT;
             xVelocity = -speed;  // Moving left decreases the X position.
             isArrowKeyPressed = true;
         }
-        if (Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.RIGHT)) {
+        if ((commands & PlayerCommands.RIGHT) != 0) {
             currentDirection = Direction.RIGHT;
             xVelocity = speed;  // Moving right increases the X position.
             isArrowKeyPressed = true;
@@ -128,7 +184,7 @@ public void update(float frameTime) {
         if (isArrowKeyPressed && !isWalking) {
             MusicTrack.WALKING.play();  // Play walking sound if the player starts moving.
         } else if (!isArrowKeyPressed && isWalking) {
-            MusicTrack.WALKING.dispose();  // Stop walking sound if the player stops moving.
+            MusicTrack.WALKING.rewind();  // Stop walking sound if the player stops moving.
         }
 
         isWalking = isArrowKeyPressed;  // Update the walking status.
@@ -182,6 +238,36 @@ public float getY() {
         return hitbox.getPosition().y;  // Get the Y position from the Box2D hitbox.
     }
 
+    /**
+     * Stores the current position as the previous one. This is called before every simulation tick.
+     */
+    public void savePreviousPosition() {
+        this.previousX = getX();
+        this.previousY = getY();
+    }
+
+    /**
+     * Retrieves the X position to render the player at, interpolated between the last two simulation ticks.
+     *
+     * @param alpha How far the frame is between the previous (0) and the latest (1) simulation tick.
+     * @return The interpolated X position.
+     */
+    @Override
+    public float getRenderX(float alpha) {
+        return previousX + (getX() - previousX) * alpha;
+    }
+
+    /**
+     * Retrieves the Y position to render the player at, interpolated between the last two simulation ticks.
+     *
+     * @param alpha How far the frame is between the previous (0) and the latest (1) simulation tick.
+     * @return The interpolated Y position.
+     */
+    @Override
+    public float getRenderY(float alpha) {
+        return previousY + (getY() - previousY) * alpha;
+    }
+
     /**
      *  Getter method for concurrentBombCount
      */
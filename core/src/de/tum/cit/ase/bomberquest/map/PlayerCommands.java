@@ -0,0 +1,21 @@
+package de.tum.cit.ase.bomberquest.map;
+
+/**
+ * The commands the player can give in a single simulation tick, as bits of an int mask.
+ * Everything the player does goes through these commands, so a recorded sequence of masks
+ * replays a game exactly, see {@link CommandSource}.
+ */
+public final class PlayerCommands {
+
+    public static final int UP = 1;
+    public static final int DOWN = 1 << 1;
+    public static final int LEFT = 1 << 2;
+    public static final int RIGHT = 1 << 3;
+    public static final int PLACE_BOMB = 1 << 4;
+
+    /** No commands, the player stands still. */
+    public static final int NONE = 0;
+
+    private PlayerCommands() {
+    }
+}
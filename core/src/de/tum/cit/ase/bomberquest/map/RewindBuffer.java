@@ -0,0 +1,391 @@
+package de.tum.cit.ase.bomberquest.map;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the last seconds of a game in memory, so they can be rewound and scrubbed through.
+ * <p>
+ * Every simulated tick is stored as a record in a single preallocated ring of bytes, so the buffer never uses more
+ * memory than its capacity; when it is full, the oldest ticks are dropped. Most records are deltas: besides the player,
+ * the bombs and the explosions, they only contain the enemies that are alive or died in that tick and the walls
+ * destroyed and power-ups collected in that tick. Every {@link #KEYFRAME_INTERVAL} ticks, a keyframe contains all enemies, so restoring a tick
+ * only needs the closest keyframe before it and the deltas in between.
+ * Walls and power-ups are never stored as a whole: going back, the changes of the skipped ticks are undone
+ * tile by tile on the map, and going forward they are applied again, so a step only costs as much as the tiles that
+ * changed in between.
+ */
+public class RewindBuffer {
+
+    /** Every this many ticks a keyframe with all enemies is recorded. */
+    static final int KEYFRAME_INTERVAL = 30;
+
+    private static final byte KEYFRAME = 1;
+
+    /** The size of an actor in a record: position, velocity and animation time. */
+    private static final int ACTOR_BYTES = 5 * 4;
+
+    private final GameMap map;
+    private final byte[] data;
+    private final ByteBuffer ring;
+    /** Where each tick's record starts and how long it is, indexed by {@code tick % maxTicks}. */
+    private final int[] recordOffsets;
+    private final int[] recordLengths;
+    private final int maxTicks;
+    /** The oldest and newest stored tick. The buffer is empty if the newest tick is before the oldest one. */
+    private long oldestTick = 0;
+    private long newestTick = -1;
+    /** The first byte of the oldest record and the first free byte after the newest record. */
+    private int tail = 0;
+    private int head = 0;
+
+    /** A record is built here before it is copied into the ring. It grows if a map has a lot of enemies. */
+    private ByteBuffer scratch = ByteBuffer.allocate(16 * 1024);
+    /** The walls destroyed and power-ups collected since the last record, as tile indices. */
+    private final IntArray destroyedWalls = new IntArray();
+    private final IntArray collectedPowerUps = new IntArray();
+    /** The walls and power-ups that change while seeking, as tile indices. */
+    private final IntArray seekWalls = new IntArray();
+    private final IntArray seekPowerUps = new IntArray();
+    /** Whether each enemy was alive in the last record, to record enemies that died even though they stopped moving. */
+    private boolean[] recordedAlive = new boolean[0];
+
+    /**
+     * Creates an empty buffer.
+     *
+     * @param map The map whose ticks are recorded.
+     * @param maxTicks The maximum number of ticks to keep, e.g. 30 seconds worth of ticks.
+     * @param capacityBytes The memory to use for the records. Fewer ticks are kept if they do not fit.
+     */
+    public RewindBuffer(GameMap map, int maxTicks, int capacityBytes) {
+        if (maxTicks <= 0 || capacityBytes <= 0) {
+            throw new IllegalArgumentException("The rewind buffer must have room for at least one tick");
+        }
+        this.map = map;
+        this.maxTicks = maxTicks;
+        this.data = new byte[capacityBytes];
+        this.ring = ByteBuffer.wrap(data);
+        this.recordOffsets = new int[maxTicks];
+        this.recordLengths = new int[maxTicks];
+    }
+
+    /**
+     * Forgets all recorded ticks, e.g. because the game was restarted or a saved game was loaded.
+     * The next record is a keyframe.
+     */
+    public void clear() {
+        oldestTick = 0;
+        newestTick = -1;
+        tail = 0;
+        head = 0;
+        destroyedWalls.clear();
+        collectedPowerUps.clear();
+    }
+
+    /** Notes that a wall was destroyed in the current tick. */
+    void wallDestroyed(int tileIndex) {
+        destroyedWalls.add(tileIndex);
+    }
+
+    /** Notes that a power-up was collected in the current tick. */
+    void powerUpCollected(int tileIndex) {
+        collectedPowerUps.add(tileIndex);
+    }
+
+    public boolean isEmpty() {
+        return newestTick < oldestTick;
+    }
+
+    /**
+     * Returns the oldest tick that can be restored, which is the oldest stored keyframe.
+     *
+     * @return the tick, or -1 if the buffer is empty
+     */
+    public long getOldestTick() {
+        for (long tick = oldestTick; tick <= newestTick; tick++) {
+            if (isKeyframe(tick)) {
+                return tick;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the newest recorded tick.
+     *
+     * @return the tick, or -1 if the buffer is empty
+     */
+    public long getNewestTick() {
+        return isEmpty() ? -1 : newestTick;
+    }
+
+    /**
+     * Records the state of the map after its latest tick. Ticks after the current tick of the map,
+     * which only exist after rewinding, are dropped first, since the game continues differently from here.
+     */
+    void record() {
+        long tick = map.getTickCount();
+        if (!isEmpty() && tick <= newestTick) {
+            truncateAfter(tick - 1);
+        }
+        List<Enemy> enemies = map.getInitialEnemies();
+        boolean keyframe = isEmpty() || tick % KEYFRAME_INTERVAL == 0 || recordedAlive.length != enemies.size();
+        if (recordedAlive.length != enemies.size()) {
+            recordedAlive = new boolean[enemies.size()];
+        }
+
+        ensureScratch(64 + enemies.size() * (5 + ACTOR_BYTES) + map.getBombs().size() * 17
+                + map.getExplosionTiles().size() * 13 + (destroyedWalls.size + collectedPowerUps.size) * 4);
+        ByteBuffer record = scratch;
+        record.clear();
+        record.put(keyframe ? KEYFRAME : 0);
+        Player player = map.getPlayer();
+        writeActor(record, player.saveState());
+        record.put((byte) player.getConcurrentBombCount());
+        record.put((byte) player.getBlastRadius());
+        record.put((byte) (map.getExit().isActive() ? 1 : 0));
+
+        // Enemies: all of them in a keyframe, otherwise only the living ones and the ones that died in this tick
+        int countPosition = record.position();
+        record.putInt(0);
+        int count = 0;
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            if (keyframe || enemy.isAlive() || recordedAlive[i]) {
+                record.putInt(i);
+                record.put((byte) (enemy.isAlive() ? 1 : 0));
+                writeActor(record, enemy.saveState(enemy.isAlive()));
+                recordedAlive[i] = enemy.isAlive();
+                count++;
+            }
+        }
+        record.putInt(countPosition, count);
+
+        record.put((byte) map.getBombs().size());
+        for (Bomb bomb : map.getBombs()) {
+            GameSnapshot.BombState state = bomb.saveState();
+            record.putFloat(state.getX());
+            record.putFloat(state.getY());
+            record.put((byte) state.getBlastRadius());
+            record.putFloat(state.getTimer());
+            record.putFloat(state.getElapsedTime());
+        }
+        record.putInt(map.getExplosionTiles().size());
+        for (ExplosionTile tile : map.getExplosionTiles()) {
+            GameSnapshot.ExplosionState state = tile.saveState();
+            record.putFloat(state.getX());
+            record.putFloat(state.getY());
+            record.put((byte) state.getAnimationId());
+            record.putFloat(state.getElapsedTime());
+        }
+        writeIndices(record, destroyedWalls);
+        writeIndices(record, collectedPowerUps);
+        destroyedWalls.clear();
+        collectedPowerUps.clear();
+
+        store(tick, record.position());
+    }
+
+    /**
+     * Copies the record in the scratch buffer into the ring, dropping the oldest ticks until it fits.
+     */
+    private void store(long tick, int length) {
+        if (length > data.length) {
+            clear(); // A single tick does not fit, so nothing can be rewound
+            return;
+        }
+        int position;
+        while (true) {
+            if (isEmpty()) {
+                tail = 0;
+                head = 0;
+                oldestTick = tick;
+                position = 0;
+                break;
+            }
+            boolean wrapped = head <= tail;
+            if (!wrapped && head + length <= data.length) {
+                position = head;
+                break;
+            }
+            if (!wrapped && length <= tail) {
+                position = 0; // Wrap around, the bytes at the end of the ring stay unused
+                break;
+            }
+            if (wrapped && head + length <= tail) {
+                position = head;
+                break;
+            }
+            dropOldest();
+        }
+        if (tick - oldestTick >= maxTicks) {
+            dropOldest();
+        }
+        System.arraycopy(scratch.array(), 0, data, position, length);
+        int index = (int) (tick % maxTicks);
+        recordOffsets[index] = position;
+        recordLengths[index] = length;
+        head = position + length;
+        newestTick = tick;
+    }
+
+    private void dropOldest() {
+        oldestTick++;
+        if (isEmpty()) {
+            tail = head;
+        } else {
+            tail = recordOffsets[(int) (oldestTick % maxTicks)];
+        }
+    }
+
+    /**
+     * Drops all ticks after the given one.
+     */
+    private void truncateAfter(long tick) {
+        if (tick < oldestTick) {
+            clear();
+            return;
+        }
+        newestTick = tick;
+        int index = (int) (tick % maxTicks);
+        head = recordOffsets[index] + recordLengths[index];
+    }
+
+    private boolean isKeyframe(long tick) {
+        return data[recordOffsets[(int) (tick % maxTicks)]] == KEYFRAME;
+    }
+
+    /**
+     * Puts the map into the state of a recorded tick. The recorded ticks are kept,
+     * so it is possible to go back and forth until the game continues.
+     *
+     * @param tick The tick to restore, between {@link #getOldestTick()} and {@link #getNewestTick()}.
+     */
+    void seek(long tick) {
+        long keyframe = tick;
+        if (tick <= newestTick) {
+            while (keyframe >= oldestTick && !isKeyframe(keyframe)) {
+                keyframe--;
+            }
+        }
+        if (tick > newestTick || keyframe < oldestTick) {
+            throw new IllegalArgumentException("Tick " + tick + " is not in the rewind buffer");
+        }
+
+        // The static layer: undo or redo the changes between the current tick and the target tick.
+        // A wall is only destroyed once before the game continues, so all changes go the same way.
+        seekWalls.clear();
+        seekPowerUps.clear();
+        long current = map.getTickCount();
+        boolean forward = tick > current;
+        long from = forward ? current + 1 : tick + 1;
+        long to = forward ? tick : Math.min(current, newestTick);
+        for (long t = from; t <= to; t++) {
+            readStaticChanges(t, seekWalls, seekPowerUps);
+        }
+        map.applyStaticChanges(seekWalls, seekPowerUps, forward);
+
+        // The actors: start at the keyframe and apply the deltas up to the target tick
+        int enemyCount = map.getInitialEnemies().size();
+        GameSnapshot.ActorState[] enemies = new GameSnapshot.ActorState[enemyCount];
+        GameSnapshot.ActorState player = null;
+        int concurrentBombCount = 0;
+        int blastRadius = 0;
+        boolean exitActive = false;
+        List<GameSnapshot.BombState> bombs = new ArrayList<>();
+        List<GameSnapshot.ExplosionState> explosions = new ArrayList<>();
+        for (long t = keyframe; t <= tick; t++) {
+            ByteBuffer record = openRecord(t);
+            record.get(); // Keyframe flag
+            player = readActor(record, true);
+            concurrentBombCount = record.get();
+            blastRadius = record.get();
+            exitActive = record.get() != 0;
+            int count = record.getInt();
+            for (int i = 0; i < count; i++) {
+                int index = record.getInt();
+                boolean alive = record.get() != 0;
+                enemies[index] = readActor(record, alive);
+            }
+            bombs.clear();
+            int bombCount = record.get();
+            for (int i = 0; i < bombCount; i++) {
+                bombs.add(new GameSnapshot.BombState(record.getFloat(), record.getFloat(), record.get(),
+                        record.getFloat(), record.getFloat()));
+            }
+            explosions.clear();
+            int explosionCount = record.getInt();
+            for (int i = 0; i < explosionCount; i++) {
+                explosions.add(new GameSnapshot.ExplosionState(record.getFloat(), record.getFloat(), record.get(),
+                        record.getFloat()));
+            }
+        }
+
+        // The snapshot shares the delta of the map, which already is in the state of the target tick
+        MapDelta delta = map.getDelta();
+        GameSnapshot snapshot = new GameSnapshot(map.getGrid(), delta.getDestroyedWalls(), delta.getCollectedPowerUps(),
+                tick, exitActive, player, concurrentBombCount, blastRadius, List.of(enemies), bombs, explosions);
+        map.applyRewind(snapshot);
+        // The enemies are in the state of the target tick again
+        for (int i = 0; i < enemyCount; i++) {
+            recordedAlive[i] = enemies[i].isAlive();
+        }
+    }
+
+    /**
+     * Adds the walls destroyed and the power-ups collected in a tick to the given lists.
+     */
+    private void readStaticChanges(long tick, IntArray walls, IntArray powerUps) {
+        ByteBuffer record = openRecord(tick);
+        record.get();
+        record.position(record.position() + ACTOR_BYTES + 3);
+        int count = record.getInt();
+        for (int i = 0; i < count; i++) {
+            record.position(record.position() + 5 + ACTOR_BYTES);
+        }
+        record.position(record.position() + record.get() * 17);
+        record.position(record.position() + record.getInt() * 13);
+        int wallCount = record.getInt();
+        for (int i = 0; i < wallCount; i++) {
+            walls.add(record.getInt());
+        }
+        int powerUpCount = record.getInt();
+        for (int i = 0; i < powerUpCount; i++) {
+            powerUps.add(record.getInt());
+        }
+    }
+
+    private ByteBuffer openRecord(long tick) {
+        int index = (int) (tick % maxTicks);
+        return ring.duplicate().position(recordOffsets[index]).limit(recordOffsets[index] + recordLengths[index]);
+    }
+
+    private void ensureScratch(int size) {
+        if (scratch.capacity() < size) {
+            scratch = ByteBuffer.allocate(Math.max(size, scratch.capacity() * 2));
+        }
+    }
+
+    private static void writeActor(ByteBuffer buffer, GameSnapshot.ActorState actor) {
+        buffer.putFloat(actor.getX());
+        buffer.putFloat(actor.getY());
+        buffer.putFloat(actor.getVelocityX());
+        buffer.putFloat(actor.getVelocityY());
+        buffer.putFloat(actor.getElapsedTime());
+    }
+
+    private static GameSnapshot.ActorState readActor(ByteBuffer buffer, boolean alive) {
+        return new GameSnapshot.ActorState(alive, buffer.getFloat(), buffer.getFloat(), buffer.getFloat(),
+                buffer.getFloat(), buffer.getFloat());
+    }
+
+    private static void writeIndices(ByteBuffer buffer, IntArray indices) {
+        buffer.putInt(indices.size);
+        for (int i = 0; i < indices.size; i++) {
+            buffer.putInt(indices.get(i));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package de.tum.cit.ase.bomberquest.map;
+
+/**
+ * Runs actions at a given simulation tick, like the detonation of a bomb or the end of an explosion.
+ * <p>
+ * This is a hierarchical timing wheel: {@value #LEVELS} wheels of {@value #SLOTS} slots, where a slot of the first wheel
+ * covers one tick and a slot of every further wheel covers all slots of the wheel below it. An action is put into the
+ * finest wheel that can hold its deadline and moves down a wheel whenever the coarser slot comes up, so scheduling,
+ * cancelling and firing take constant time no matter how many actions are waiting. Each tick only looks at one slot,
+ * so waiting actions cost nothing until they are due.
+ * <p>
+ * Time only moves when {@link #advance(long)} is called with the simulated tick, so the wheel does not depend on the
+ * wall clock, and actions due in the same tick always run in the same order.
+ */
+public class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    /** Four wheels cover 2^24 ticks, more than 77 hours at 60 ticks per second. Later deadlines still work, but are moved down once more. */
+    private static final int LEVELS = 4;
+
+    /** The first action of every slot of every wheel, indexed by {@code level * SLOTS + slot}. */
+    private final Timeout[] slots = new Timeout[LEVELS * SLOTS];
+    /** The latest tick that has been processed. */
+    private long currentTick;
+    private int size = 0;
+
+    /**
+     * An action waiting in the wheel. It can be cancelled until it has run.
+     */
+    public static class Timeout {
+        private final long deadline;
+        private final Runnable action;
+        /** The wheel the timeout is waiting in, or null if it has run or was cancelled. */
+        private TimingWheel wheel;
+        private int slot;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(long deadline, Runnable action) {
+            this.deadline = deadline;
+            this.action = action;
+        }
+
+        /**
+         * Returns the tick the action runs in.
+         *
+         * @return the deadline
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public boolean isPending() {
+            return wheel != null;
+        }
+
+        /**
+         * Removes the action from the wheel, so it does not run. Does nothing if it has already run.
+         */
+        public void cancel() {
+            if (wheel != null) {
+                wheel.unlink(this);
+            }
+        }
+    }
+
+    /**
+     * Creates an empty wheel.
+     *
+     * @param currentTick The tick that has just been simulated. Actions can be scheduled for any later tick.
+     */
+    public TimingWheel(long currentTick) {
+        this.currentTick = currentTick;
+    }
+
+    /**
+     * Runs an action in a later tick.
+     *
+     * @param deadline The tick to run the action in. A tick that has already been processed means the next tick.
+     * @param action The action.
+     * @return the timeout, which can be used to cancel the action
+     */
+    public Timeout schedule(long deadline, Runnable action) {
+        Timeout timeout = new Timeout(Math.max(deadline, currentTick + 1), action);
+        insert(timeout);
+        return timeout;
+    }
+
+    /**
+     * Processes all ticks up to the given one and runs the actions that are due, in the order of their deadlines.
+     * Actions may schedule or cancel other actions.
+     *
+     * @param tick The tick that is simulated now.
+     */
+    public void advance(long tick) {
+        while (currentTick < tick) {
+            currentTick++;
+            // When a coarser slot comes up, its actions move down into the finer wheels, beginning with the coarsest
+            for (int level = LEVELS - 1; level > 0; level--) {
+                int shift = level * SLOT_BITS;
+                if ((currentTick & ((1L << shift) - 1)) == 0) {
+                    cascade(level, (int) ((currentTick >>> shift) & SLOT_MASK));
+                }
+            }
+            // Nothing scheduled while running the actions can end up in this slot, since its deadline is later
+            int index = (int) (currentTick & SLOT_MASK);
+            Timeout timeout;
+            while ((timeout = slots[index]) != null) {
+                unlink(timeout);
+                timeout.action.run();
+            }
+        }
+    }
+
+    /**
+     * Cancels all actions and sets the current tick, e.g. when the game is restarted or restored.
+     *
+     * @param tick The tick that has just been simulated.
+     */
+    public void reset(long tick) {
+        for (int i = 0; i < slots.length; i++) {
+            while (slots[i] != null) {
+                unlink(slots[i]);
+            }
+        }
+        this.currentTick = tick;
+    }
+
+    /**
+     * Returns the number of actions that have not run yet.
+     *
+     * @return the number of pending actions
+     */
+    public int size() {
+        return size;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Puts a timeout into the finest wheel whose current revolution contains the deadline.
+     */
+    private void insert(Timeout timeout) {
+        int level = 0;
+        while (level < LEVELS - 1
+                && (timeout.deadline >>> ((level + 1) * SLOT_BITS)) != (currentTick >>> ((level + 1) * SLOT_BITS))) {
+            level++;
+        }
+        int index = level * SLOTS + (int) ((timeout.deadline >>> (level * SLOT_BITS)) & SLOT_MASK);
+        timeout.wheel = this;
+        timeout.slot = index;
+        timeout.previous = null;
+        timeout.next = slots[index];
+        if (slots[index] != null) {
+            slots[index].previous = timeout;
+        }
+        slots[index] = timeout;
+        size++;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            slots[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        timeout.wheel = null;
+        timeout.previous = null;
+        timeout.next = null;
+        size--;
+    }
+
+    /**
+     * Moves the timeouts of a slot into the finer wheels.
+     */
+    private void cascade(int level, int slot) {
+        int index = level * SLOTS + slot;
+        Timeout timeout = slots[index];
+        slots[index] = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            size--;
+            insert(timeout);
+            timeout = next;
+        }
+    }
+}
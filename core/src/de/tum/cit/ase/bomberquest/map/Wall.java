@@ -14,26 +14,29 @@ public abstract class Wall extends GameObject implements Drawable {
 
     protected Body body;
 
+    /** The last simulation tick in which an actor was close enough to need the body of this wall. */
+    private long lastNeededTick;
+
     /**
      * Constructor for Wall.
-     * This constructor initializes the wall's position using the GameObject constructor
-     * and creates its Box2D hitbox in the specified world.
-     * @param world The Box2D world to add the wall's hitbox to.
+     * This constructor initializes the wall's position using the GameObject constructor.
+     * The Box2D hitbox is not created here: most walls are never touched, so the map only creates
+     * the hitbox once something moves close to the wall, see {@link #createHitbox(World)}.
      * @param x The X position of the wall.
      * @param y The Y position of the wall.
      */
-    public Wall(World world, float x, float y) {
+    public Wall(float x, float y) {
         super(x, y);  // Calls the GameObject constructor to initialize position
-        createHitbox(world);  // Creates the Box2D hitbox for the wall in the game world
     }
 
     /**
      * Create a Box2D body for the wall.
      * This method creates a static Box2D body and attaches it to the wall,
      * representing the collision properties of the wall in the physics world.
+     * This must not be called during a physics step.
      * @param world The Box2D world to add the body to.
      */
-    private void createHitbox(World world) {
+    public void createHitbox(World world) {
         BodyDef bodyDef = new BodyDef();
         bodyDef.type = BodyDef.BodyType.StaticBody;  // The wall is static and will not move
         bodyDef.position.set(this.x, this.y);  // Set the position of the body in the world
@@ -83,4 +86,20 @@ public float getY() {
     public Body getBody() {
         return body;  // Return the Box2D body for collision and physics calculations
     }
+
+    /**
+     * Replaces the Box2D body of the wall, e.g. with null once the body has been destroyed.
+     * @param body The new body, or null if the wall has no body.
+     */
+    public void setBody(Body body) {
+        this.body = body;
+    }
+
+    long getLastNeededTick() {
+        return lastNeededTick;
+    }
+
+    void setLastNeededTick(long lastNeededTick) {
+        this.lastNeededTick = lastNeededTick;
+    }
 }
@@ -1,7 +1,6 @@
 package de.tum.cit.ase.bomberquest.powerups;
 
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.physics.box2d.*;
 import de.tum.cit.ase.bomberquest.texture.Drawable;
 import de.tum.cit.ase.bomberquest.texture.Textures;
 
@@ -11,13 +10,12 @@
 public class BlastRadius extends PowerUp implements Drawable {
 
     /**
-     * Create a chest at the given position.
-     * @param world The Box2D world to add the chest's hitbox to.
+     * Create a chest at the given position. Its hitbox is created separately.
      * @param x The X position.
      * @param y The Y position.
      */
-    public BlastRadius(World world, float x, float y) {
-        super(world, x, y);
+    public BlastRadius(float x, float y) {
+        super(x, y);
     }
 
     @Override
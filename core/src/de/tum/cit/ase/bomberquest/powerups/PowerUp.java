@@ -13,17 +13,24 @@ public abstract class PowerUp implements Drawable {
     protected final float y;
     protected Body body;
 
-    public PowerUp(World world, float x, float y) {
+    /**
+     * Creates a power-up without a Box2D body.
+     * Power-ups start hidden under a destructible wall, so the body is only created once the wall is gone,
+     * see {@link #createHitbox(World)}.
+     * @param x The X position.
+     * @param y The Y position.
+     */
+    public PowerUp(float x, float y) {
         this.x = x;
         this.y = y;
-        createHitbox(world);
     }
 
     /**
-     * Create a Box2D body for the power-up.
+     * Create a Box2D body for the power-up, so the player can pick it up.
+     * This must not be called during a physics step.
      * @param world The Box2D world to add the body to.
      */
-    private void createHitbox(World world) {
+    public void createHitbox(World world) {
         BodyDef bodyDef = new BodyDef();
         bodyDef.type = BodyDef.BodyType.StaticBody;
         bodyDef.position.set(this.x, this.y);
@@ -0,0 +1,440 @@
+package de.tum.cit.ase.bomberquest.render;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.ScreenUtils;
+import de.tum.cit.ase.bomberquest.gamemechanism.MapGrid;
+import de.tum.cit.ase.bomberquest.gamemechanism.MapLoader;
+import de.tum.cit.ase.bomberquest.map.GameMap;
+import de.tum.cit.ase.bomberquest.map.MapChangeListener;
+import de.tum.cit.ase.bomberquest.map.MapDelta;
+import de.tum.cit.ase.bomberquest.texture.Textures;
+
+import java.util.BitSet;
+
+import static de.tum.cit.ase.bomberquest.screens.GameScreen.SCALE;
+import static de.tum.cit.ase.bomberquest.screens.GameScreen.TILE_SIZE_PX;
+
+/**
+ * Renders the walls of the map in fixed-size chunks. The floor is drawn separately by {@link FloorRenderer}.
+ * Every chunk owns a {@link SpriteCache}, i.e. a static mesh on the graphics card, which is only rebuilt
+ * when a wall inside that chunk is destroyed. Only chunks inside the camera view are drawn.
+ * When the camera is zoomed out far, chunks are drawn as pre-rendered low-resolution textures (impostors)
+ * instead, so that even very large maps stay interactive.
+ */
+public class ChunkedMapRenderer implements MapChangeListener {
+
+    /** The width and height of a chunk in tiles. */
+    public static final int CHUNK_SIZE = 32;
+
+    /** From this camera zoom on, chunks are drawn as impostors instead of their full meshes. */
+    public static final float IMPOSTOR_ZOOM = 4f;
+
+    /** The resolution of an impostor in pixels per tile. */
+    private static final int IMPOSTOR_PX_PER_TILE = 4;
+
+    /** How many chunk meshes or impostors may be built per frame, to avoid frame spikes. */
+    private static final int BUILDS_PER_FRAME = 16;
+
+    /** Chunks that have not been visible for this many frames release their meshes and impostors. */
+    private static final int EVICT_AFTER_FRAMES = 300;
+
+    private static final float TILE_PX = TILE_SIZE_PX * SCALE;
+
+    private final GameMap map;
+    /** The tiles the map was loaded from, which never change. */
+    private final MapGrid grid;
+    private final int width;
+    private final int height;
+    /** The renderer's own copy of the destroyed walls, only changed by the {@link MapChangeListener} notifications. */
+    private final BitSet destroyedWalls;
+    private final int chunksX;
+    private final int chunksY;
+    private final Chunk[] chunks;
+    /** One shader shared by all chunk caches, instead of one shader per cache. */
+    private final ShaderProgram cacheShader;
+    private final Matrix4 impostorProjection = new Matrix4();
+
+    private long frame;
+    private int buildsLeft;
+    private boolean useImpostors;
+    private int minChunkX, minChunkY, maxChunkX, maxChunkY;
+
+    /**
+     * A fixed-size part of the map with its cached mesh and impostor.
+     */
+    private static class Chunk {
+        final int originX;
+        final int originY;
+        final int width;
+        final int height;
+        SpriteCache cache;
+        /** The id of the built mesh in the cache, or -1 while there is none. A dirty mesh is drawn until rebuilt. */
+        int cacheId = -1;
+        boolean dirty = true;
+        FrameBuffer impostor;
+        boolean impostorDirty = true;
+        long lastVisibleFrame;
+
+        Chunk(int originX, int originY, int width, int height) {
+            this.originX = originX;
+            this.originY = originY;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    /**
+     * Creates the renderer. No meshes are built here, this happens lazily once a chunk becomes visible.
+     * The walls are read from the tiles of the map, so they are drawn even where the map has no wall objects loaded.
+     * The map must not be simulated meanwhile, since the destroyed walls are copied from it.
+     *
+     * @param map The map to render.
+     */
+    public ChunkedMapRenderer(GameMap map) {
+        this.map = map;
+        this.grid = map.getGrid();
+        this.width = map.getWidth();
+        this.height = map.getHeight();
+        this.destroyedWalls = (BitSet) map.getDelta().getDestroyedWalls().clone();
+        this.chunksX = Math.max(1, (map.getWidth() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        this.chunksY = Math.max(1, (map.getHeight() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        this.chunks = new Chunk[chunksX * chunksY];
+        for (int cy = 0; cy < chunksY; cy++) {
+            for (int cx = 0; cx < chunksX; cx++) {
+                int originX = cx * CHUNK_SIZE;
+                int originY = cy * CHUNK_SIZE;
+                chunks[cy * chunksX + cx] = new Chunk(originX, originY,
+                        Math.max(1, Math.min(CHUNK_SIZE, map.getWidth() - originX)),
+                        Math.max(1, Math.min(CHUNK_SIZE, map.getHeight() - originY)));
+            }
+        }
+        this.cacheShader = new ShaderProgram(Gdx.files.internal("shaders/chunk.vert"), Gdx.files.internal("shaders/chunk.frag"));
+        if (!cacheShader.isCompiled()) {
+            throw new IllegalStateException("Error compiling chunk shader: " + cacheShader.getLog());
+        }
+        map.addChangeListener(this);
+    }
+
+    private Chunk chunkAt(int x, int y) {
+        if (x < 0 || y < 0) {
+            return null;
+        }
+        int cx = x / CHUNK_SIZE;
+        int cy = y / CHUNK_SIZE;
+        if (cx >= chunksX || cy >= chunksY) {
+            return null;
+        }
+        return chunks[cy * chunksX + cx];
+    }
+
+    /**
+     * Determines the visible chunks and builds missing meshes and impostors for them.
+     * This must be called before {@link #render(OrthographicCamera, SpriteBatch)} and outside of any
+     * begin()/end() pair, since building impostors renders into a frame buffer.
+     *
+     * @param camera The camera the map is rendered with.
+     */
+    public void update(OrthographicCamera camera) {
+        float halfWidth = camera.viewportWidth * camera.zoom / 2f;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2f;
+        int chunkPx = (int) (CHUNK_SIZE * TILE_PX);
+        minChunkX = MathUtils.clamp(MathUtils.floor((camera.position.x - halfWidth) / chunkPx), 0, chunksX - 1);
+        maxChunkX = MathUtils.clamp(MathUtils.floor((camera.position.x + halfWidth) / chunkPx), 0, chunksX - 1);
+        minChunkY = MathUtils.clamp(MathUtils.floor((camera.position.y - halfHeight) / chunkPx), 0, chunksY - 1);
+        maxChunkY = MathUtils.clamp(MathUtils.floor((camera.position.y + halfHeight) / chunkPx), 0, chunksY - 1);
+        useImpostors = camera.zoom >= IMPOSTOR_ZOOM;
+        buildsLeft = BUILDS_PER_FRAME;
+
+        for (int cy = minChunkY; cy <= maxChunkY; cy++) {
+            for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+                Chunk chunk = chunks[cy * chunksX + cx];
+                chunk.lastVisibleFrame = frame;
+                if (useImpostors) {
+                    ensureImpostor(chunk);
+                } else {
+                    ensureCache(chunk);
+                }
+            }
+        }
+
+        // Release chunks that have been out of view for a while to keep memory bounded on huge maps
+        for (Chunk chunk : chunks) {
+            if (frame - chunk.lastVisibleFrame > EVICT_AFTER_FRAMES) {
+                release(chunk);
+            }
+        }
+        frame++;
+    }
+
+    /**
+     * Draws the visible chunks.
+     *
+     * @param camera The camera the map is rendered with.
+     * @param spriteBatch The SpriteBatch used to draw impostors. It must not be drawing yet.
+     */
+    public void render(OrthographicCamera camera, SpriteBatch spriteBatch) {
+        if (useImpostors) {
+            spriteBatch.setProjectionMatrix(camera.combined);
+            spriteBatch.begin();
+            for (int cy = minChunkY; cy <= maxChunkY; cy++) {
+                for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+                    Chunk chunk = chunks[cy * chunksX + cx];
+                    if (chunk.impostor != null) {
+                        Texture texture = chunk.impostor.getColorBufferTexture();
+                        // Frame buffer textures are upside down, so they are flipped on the Y axis
+                        spriteBatch.draw(texture, chunk.originX * TILE_PX, chunk.originY * TILE_PX,
+                                chunk.width * TILE_PX, chunk.height * TILE_PX,
+                                0, 0, texture.getWidth(), texture.getHeight(), false, true);
+                    }
+                }
+            }
+            spriteBatch.end();
+            return;
+        }
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        for (int cy = minChunkY; cy <= maxChunkY; cy++) {
+            for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+                Chunk chunk = chunks[cy * chunksX + cx];
+                if (chunk.cache != null && chunk.cacheId >= 0) {
+                    chunk.cache.setProjectionMatrix(camera.combined);
+                    chunk.cache.begin();
+                    chunk.cache.draw(chunk.cacheId);
+                    chunk.cache.end();
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a wall is drawn on the given tile.
+     * Objects on such a tile (hidden power-ups, the hidden exit) do not need to be drawn.
+     *
+     * @param x The X tile coordinate.
+     * @param y The Y tile coordinate.
+     * @return true if there is a wall on the tile.
+     */
+    public boolean hasWallAt(int x, int y) {
+        return hasIndestructibleWall(x, y) || hasDestructibleWall(x, y);
+    }
+
+    private boolean hasIndestructibleWall(int x, int y) {
+        return isInside(x, y) && grid.has(x, y, MapLoader.INDESTRUCTIBLE_WALL);
+    }
+
+    private boolean hasDestructibleWall(int x, int y) {
+        return isInside(x, y) && grid.has(x, y, MapLoader.DESTRUCTIBLE_WALL) && !destroyedWalls.get(y * width + x);
+    }
+
+    private boolean isInside(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    /**
+     * Builds or rebuilds the static mesh of a chunk if necessary.
+     */
+    private void ensureCache(Chunk chunk) {
+        if (!chunk.dirty) {
+            return;
+        }
+        int wallCount = countWalls(chunk);
+        if (wallCount == 0) {
+            // Nothing left to draw in this chunk, the floor is drawn separately
+            if (chunk.cache != null) {
+                chunk.cache.dispose();
+                chunk.cache = null;
+            }
+            chunk.dirty = false;
+            return;
+        }
+        // Rebuilds count against the budget as well, the previous mesh is drawn until then
+        if (buildsLeft <= 0) {
+            return;
+        }
+        buildsLeft--;
+        if (chunk.cache == null) {
+            // Destroyed walls come back when the map is restarted or rewound, so the cache has room for all of them
+            chunk.cache = new SpriteCache(countGridWalls(chunk), cacheShader, true);
+        }
+        // A redefined cache may not hold more sprites than before, so the cache is started over instead
+        chunk.cache.clear();
+        chunk.cache.beginCache();
+        for (int y = chunk.originY; y < chunk.originY + chunk.height; y++) {
+            for (int x = chunk.originX; x < chunk.originX + chunk.width; x++) {
+                // Indestructible walls win if two walls share a tile
+                TextureRegion texture = hasIndestructibleWall(x, y) ? Textures.INDESTRUCTIBLEWALL
+                        : hasDestructibleWall(x, y) ? Textures.DESTRUCTIBLEWALL : null;
+                if (texture != null) {
+                    chunk.cache.add(texture, x * TILE_PX, y * TILE_PX,
+                            texture.getRegionWidth() * SCALE, texture.getRegionHeight() * SCALE);
+                }
+            }
+        }
+        chunk.cacheId = chunk.cache.endCache();
+        chunk.dirty = false;
+    }
+
+    private int countWalls(Chunk chunk) {
+        int count = 0;
+        for (int y = chunk.originY; y < chunk.originY + chunk.height; y++) {
+            for (int x = chunk.originX; x < chunk.originX + chunk.width; x++) {
+                if (hasWallAt(x, y)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the walls of a chunk in the grid the map was loaded from, including the ones destroyed since.
+     */
+    private int countGridWalls(Chunk chunk) {
+        int wallBits = MapGrid.bit(MapLoader.INDESTRUCTIBLE_WALL) | MapGrid.bit(MapLoader.DESTRUCTIBLE_WALL);
+        int count = 0;
+        for (int y = chunk.originY; y < chunk.originY + chunk.height; y++) {
+            for (int x = chunk.originX; x < chunk.originX + chunk.width; x++) {
+                if ((grid.getMask(x, y) & wallBits) != 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Renders the chunk into its low-resolution impostor texture if necessary.
+     */
+    private void ensureImpostor(Chunk chunk) {
+        if (chunk.impostor != null && !chunk.impostorDirty) {
+            return;
+        }
+        if (buildsLeft <= 0) {
+            return;
+        }
+        ensureCache(chunk);
+        if (chunk.dirty) {
+            return;
+        }
+        if (chunk.cache == null) {
+            // Chunks without walls do not need an impostor
+            if (chunk.impostor != null) {
+                chunk.impostor.dispose();
+                chunk.impostor = null;
+            }
+            chunk.impostorDirty = false;
+            return;
+        }
+        buildsLeft--;
+        if (chunk.impostor == null) {
+            chunk.impostor = new FrameBuffer(Pixmap.Format.RGBA8888,
+                    chunk.width * IMPOSTOR_PX_PER_TILE, chunk.height * IMPOSTOR_PX_PER_TILE, false);
+            chunk.impostor.getColorBufferTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        }
+        impostorProjection.setToOrtho2D(chunk.originX * TILE_PX, chunk.originY * TILE_PX,
+                chunk.width * TILE_PX, chunk.height * TILE_PX);
+        chunk.impostor.begin();
+        ScreenUtils.clear(0, 0, 0, 0);
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        chunk.cache.setProjectionMatrix(impostorProjection);
+        chunk.cache.begin();
+        chunk.cache.draw(chunk.cacheId);
+        chunk.cache.end();
+        chunk.impostor.end();
+        chunk.impostorDirty = false;
+    }
+
+    /**
+     * Frees the mesh and the impostor of a chunk. They are rebuilt when the chunk becomes visible again.
+     */
+    private void release(Chunk chunk) {
+        if (chunk.cache != null) {
+            chunk.cache.dispose();
+            chunk.cache = null;
+        }
+        chunk.dirty = true;
+        if (chunk.impostor != null) {
+            chunk.impostor.dispose();
+            chunk.impostor = null;
+        }
+        chunk.impostorDirty = true;
+    }
+
+    @Override
+    public void wallRemoved(int x, int y) {
+        setWallDestroyed(x, y, true);
+    }
+
+    @Override
+    public void wallRestored(int x, int y) {
+        setWallDestroyed(x, y, false);
+    }
+
+    /**
+     * Updates the copy of a tile and rebuilds only the chunk of that tile.
+     */
+    private void setWallDestroyed(int x, int y, boolean destroyed) {
+        Chunk chunk = chunkAt(x, y);
+        if (chunk == null || !isInside(x, y)) {
+            return;
+        }
+        destroyedWalls.set(y * width + x, destroyed);
+        chunk.dirty = true;
+        chunk.impostorDirty = true;
+    }
+
+    @Override
+    public void powerUpRemoved(int x, int y) {
+        // Power-ups are not part of the static layer
+    }
+
+    @Override
+    public void powerUpRestored(int x, int y) {
+        // Power-ups are not part of the static layer
+    }
+
+    @Override
+    public void exitActivated(int x, int y) {
+        // The exit is not part of the static layer
+    }
+
+    @Override
+    public void exitDeactivated(int x, int y) {
+        // The exit is not part of the static layer
+    }
+
+    @Override
+    public void mapReset(MapDelta delta, boolean exitActive) {
+        destroyedWalls.clear();
+        destroyedWalls.or(delta.getDestroyedWalls());
+        // Walls may have come back anywhere, so every mesh is rebuilt once its chunk is visible
+        for (Chunk chunk : chunks) {
+            chunk.dirty = true;
+            chunk.impostorDirty = true;
+        }
+    }
+
+    /**
+     * Releases all meshes, impostors and the shared shader, and unregisters from the map.
+     */
+    public void dispose() {
+        map.removeChangeListener(this);
+        for (Chunk chunk : chunks) {
+            release(chunk);
+        }
+        cacheShader.dispose();
+    }
+}
@@ -0,0 +1,137 @@
+package de.tum.cit.ase.bomberquest.render;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+
+import static de.tum.cit.ase.bomberquest.screens.GameScreen.SCALE;
+import static de.tum.cit.ase.bomberquest.screens.GameScreen.TILE_SIZE_PX;
+
+/**
+ * Draws the floor of the whole map as a single quad.
+ * A fragment shader repeats the floor tile texture by world coordinate, so no object and no sprite is needed per tile.
+ * If more than one floor variant is given, the variant of every tile is stored in a small index texture
+ * with one pixel per tile.
+ */
+public class FloorRenderer {
+
+    /** The maximum number of floor variants, this must match MAX_VARIANTS in floor.frag. */
+    public static final int MAX_VARIANTS = 8;
+
+    private final ShaderProgram shader;
+    private final Mesh quad;
+    private final Texture texture;
+    /** The variant of every tile, or null if there is only one variant. */
+    private final Texture index;
+    private final float[] regions = new float[MAX_VARIANTS * 4];
+    private final int variantCount;
+    private final int width;
+    private final int height;
+
+    /**
+     * Creates the floor for a map of the given size.
+     *
+     * @param width The width of the map in tiles.
+     * @param height The height of the map in tiles.
+     * @param variants The floor tiles to use. They must all be regions of the same texture.
+     */
+    public FloorRenderer(int width, int height, TextureRegion... variants) {
+        if (variants.length == 0 || variants.length > MAX_VARIANTS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_VARIANTS + " floor variants are supported");
+        }
+        this.width = Math.max(1, width);
+        this.height = Math.max(1, height);
+        this.texture = variants[0].getTexture();
+        this.variantCount = variants.length;
+        for (int i = 0; i < variants.length; i++) {
+            if (variants[i].getTexture() != texture) {
+                throw new IllegalArgumentException("All floor variants must use the same texture");
+            }
+            regions[i * 4] = variants[i].getU();
+            regions[i * 4 + 1] = variants[i].getV();
+            regions[i * 4 + 2] = variants[i].getU2() - variants[i].getU();
+            regions[i * 4 + 3] = variants[i].getV2() - variants[i].getV();
+        }
+        this.index = variantCount > 1 ? createIndex() : null;
+
+        this.shader = new ShaderProgram(Gdx.files.internal("shaders/floor.vert"), Gdx.files.internal("shaders/floor.frag"));
+        if (!shader.isCompiled()) {
+            throw new IllegalStateException("Error compiling floor shader: " + shader.getLog());
+        }
+
+        float right = this.width * TILE_SIZE_PX * SCALE;
+        float top = this.height * TILE_SIZE_PX * SCALE;
+        this.quad = new Mesh(true, 4, 6, VertexAttribute.Position());
+        quad.setVertices(new float[] {
+                0, 0, 0,
+                right, 0, 0,
+                right, top, 0,
+                0, top, 0
+        });
+        quad.setIndices(new short[] {0, 1, 2, 2, 3, 0});
+    }
+
+    /**
+     * Creates the index texture that stores the variant of every tile in its alpha channel.
+     * The variant is a hash of the tile coordinates, so it is the same every time the map is loaded.
+     */
+    private Texture createIndex() {
+        Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.Alpha);
+        pixmap.setBlending(Pixmap.Blending.None);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int hash = (x * 73856093) ^ (y * 19349663);
+                pixmap.drawPixel(x, y, (hash >>> 8) % variantCount);
+            }
+        }
+        Texture result = new Texture(pixmap);
+        pixmap.dispose();
+        return result;
+    }
+
+    /**
+     * Draws the floor. This must not be called between begin() and end() of a SpriteBatch.
+     *
+     * @param camera The camera the map is rendered with.
+     */
+    public void render(OrthographicCamera camera) {
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+        if (index != null) {
+            index.bind(1);
+        }
+        texture.bind(0);
+        shader.bind();
+        shader.setUniformMatrix("u_projTrans", camera.combined);
+        shader.setUniformf("u_tileSize", TILE_SIZE_PX * SCALE);
+        shader.setUniform4fv("u_regions", regions, 0, regions.length);
+        shader.setUniformi("u_variantCount", variantCount);
+        shader.setUniformi("u_texture", 0);
+        // These are only used with several variants, so the shader compiler may remove them
+        int mapSize = shader.fetchUniformLocation("u_mapSize", false);
+        if (mapSize != -1) {
+            shader.setUniformf(mapSize, width, height);
+        }
+        int indexUnit = shader.fetchUniformLocation("u_index", false);
+        if (indexUnit != -1) {
+            shader.setUniformi(indexUnit, 1);
+        }
+        quad.render(shader, GL20.GL_TRIANGLES);
+    }
+
+    /**
+     * Releases the mesh, the shader and the index texture.
+     */
+    public void dispose() {
+        quad.dispose();
+        shader.dispose();
+        if (index != null) {
+            index.dispose();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package de.tum.cit.ase.bomberquest.render;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+import static de.tum.cit.ase.bomberquest.screens.GameScreen.SCALE;
+
+/**
+ * An offscreen frame buffer for the pixel-perfect mode.
+ * The map is rendered into it at the native resolution of the textures (one pixel per texel instead of
+ * {@link de.tum.cit.ase.bomberquest.screens.GameScreen#SCALE} x SCALE pixels) and then scaled up to the screen
+ * with a single nearest-filtered quad. This cuts the fragment work by SCALE squared on large windows.
+ */
+public class PixelPerfectBuffer {
+
+    private final OrthographicCamera screenCamera = new OrthographicCamera();
+    private FrameBuffer frameBuffer;
+    private int bufferWidth;
+    private int bufferHeight;
+
+    /**
+     * Resizes the viewport of the map camera so that it covers exactly {@code SCALE} screen pixels per buffer pixel.
+     * The buffer is rounded up to whole pixels, so the viewport can be slightly larger than the window.
+     * This should be called before the camera is used for culling.
+     *
+     * @param camera The map camera.
+     */
+    public void fitCamera(OrthographicCamera camera) {
+        bufferWidth = Math.max(1, (Gdx.graphics.getWidth() + SCALE - 1) / SCALE);
+        bufferHeight = Math.max(1, (Gdx.graphics.getHeight() + SCALE - 1) / SCALE);
+        camera.viewportWidth = bufferWidth * SCALE;
+        camera.viewportHeight = bufferHeight * SCALE;
+    }
+
+    /**
+     * Starts rendering into the offscreen buffer. The buffer is recreated if the window size changed.
+     */
+    public void begin() {
+        if (frameBuffer == null || frameBuffer.getWidth() != bufferWidth || frameBuffer.getHeight() != bufferHeight) {
+            if (frameBuffer != null) {
+                frameBuffer.dispose();
+            }
+            frameBuffer = new FrameBuffer(Pixmap.Format.RGB888, bufferWidth, bufferHeight, false);
+            frameBuffer.getColorBufferTexture().setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        }
+        frameBuffer.begin();
+        ScreenUtils.clear(Color.BLACK);
+    }
+
+    /**
+     * Stops rendering into the offscreen buffer and draws it to the screen, scaled up by an integer factor.
+     *
+     * @param spriteBatch The SpriteBatch to draw with. It must not be drawing yet.
+     */
+    public void end(SpriteBatch spriteBatch) {
+        frameBuffer.end();
+        screenCamera.setToOrtho(false, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        spriteBatch.setProjectionMatrix(screenCamera.combined);
+        spriteBatch.begin();
+        spriteBatch.disableBlending();
+        Texture texture = frameBuffer.getColorBufferTexture();
+        // Frame buffer textures are upside down, so they are flipped on the Y axis
+        spriteBatch.draw(texture, 0, 0, bufferWidth * SCALE, bufferHeight * SCALE,
+                0, 0, bufferWidth, bufferHeight, false, true);
+        spriteBatch.enableBlending();
+        spriteBatch.end();
+    }
+
+    /**
+     * Releases the frame buffer.
+     */
+    public void dispose() {
+        if (frameBuffer != null) {
+            frameBuffer.dispose();
+            frameBuffer = null;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package de.tum.cit.ase.bomberquest.render;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import de.tum.cit.ase.bomberquest.map.Bomb;
+import de.tum.cit.ase.bomberquest.map.Enemy;
+import de.tum.cit.ase.bomberquest.map.Exit;
+import de.tum.cit.ase.bomberquest.map.ExplosionTile;
+import de.tum.cit.ase.bomberquest.map.GameClock;
+import de.tum.cit.ase.bomberquest.map.GameMap;
+import de.tum.cit.ase.bomberquest.map.Player;
+import de.tum.cit.ase.bomberquest.powerups.PowerUp;
+import de.tum.cit.ase.bomberquest.texture.Drawable;
+
+/**
+ * Everything the game screen and the HUD draw, copied from the map after a simulation tick.
+ * <p>
+ * Rendering only reads snapshots, never the map, so the simulation can run on its own thread while the last snapshot
+ * is drawn, see {@link de.tum.cit.ase.bomberquest.gamemechanism.SimulationThread}. Snapshots are passed on through a
+ * {@link TripleBuffer} and reused: a snapshot keeps its sprites and only grows when a tick has more objects than any
+ * tick before, so capturing does not allocate while the game runs.
+ * The static layer is not part of a snapshot. The renderers keep their own copy of it, updated by the
+ * {@link de.tum.cit.ase.bomberquest.map.MapChangeListener} notifications.
+ */
+public class RenderSnapshot {
+
+    /**
+     * The appearance and the last two positions of one drawn object.
+     */
+    public static class Sprite implements Drawable {
+        private TextureRegion appearance;
+        private float x;
+        private float y;
+        private float previousX;
+        private float previousY;
+
+        private void set(Drawable drawable) {
+            this.appearance = drawable.getCurrentAppearance();
+            this.x = drawable.getRenderX(1);
+            this.y = drawable.getRenderY(1);
+            this.previousX = drawable.getRenderX(0);
+            this.previousY = drawable.getRenderY(0);
+        }
+
+        @Override
+        public TextureRegion getCurrentAppearance() {
+            return appearance;
+        }
+
+        @Override
+        public float getX() {
+            return x;
+        }
+
+        @Override
+        public float getY() {
+            return y;
+        }
+
+        @Override
+        public float getRenderX(float alpha) {
+            return previousX + (x - previousX) * alpha;
+        }
+
+        @Override
+        public float getRenderY(float alpha) {
+            return previousY + (y - previousY) * alpha;
+        }
+    }
+
+    /**
+     * A list of sprites that keeps the sprites it once held, so they can be filled again by the next capture.
+     */
+    public static class SpriteList {
+        private final Array<Sprite> sprites = new Array<>(false, 16, Sprite.class);
+        private int size = 0;
+
+        private void clear() {
+            size = 0;
+        }
+
+        private void add(Drawable drawable) {
+            if (size == sprites.size) {
+                sprites.add(new Sprite());
+            }
+            sprites.get(size++).set(drawable);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public Sprite get(int index) {
+            if (index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+            }
+            return sprites.get(index);
+        }
+    }
+
+    private final Sprite player = new Sprite();
+    private final Sprite exit = new Sprite();
+    private boolean exitVisible;
+    private final SpriteList powerUps = new SpriteList();
+    private final SpriteList bombs = new SpriteList();
+    private final SpriteList enemies = new SpriteList();
+    private final SpriteList explosions = new SpriteList();
+
+    private long tickCount;
+    private GameMap.Outcome outcome;
+    private float shakeOffsetX;
+    private float shakeOffsetY;
+
+    // Values shown by the HUD
+    private long remainingMillis;
+    private boolean paused;
+    private float timeScale;
+    private int concurrentBombCount;
+    private int blastRadius;
+    private int enemiesLeft;
+    private boolean enemiesCleared;
+
+    /** When the snapshot was captured and how far the clock was between two ticks then, see {@link #getAlpha(long)}. */
+    private long capturedNanos;
+    private float capturedAlpha;
+    /** The real time between two ticks at the current time scale, or 0 while the clock is paused. */
+    private long tickNanos;
+
+    /**
+     * Copies the state of the map. Only the thread that simulates the map may call this, and only between ticks.
+     *
+     * @param map The map.
+     * @param nanoTime The current {@link System#nanoTime()}.
+     */
+    public void capture(GameMap map, long nanoTime) {
+        Player mapPlayer = map.getPlayer();
+        player.set(mapPlayer);
+        // Objects under a wall are hidden, since the walls are drawn first
+        Exit mapExit = map.getExit();
+        exitVisible = mapExit.isActive() && !map.hasWallAt(Math.round(mapExit.getX()), Math.round(mapExit.getY()));
+        if (exitVisible) {
+            exit.set(mapExit);
+        }
+        powerUps.clear();
+        for (PowerUp powerUp : map.getPowerUps()) {
+            if (!map.hasWallAt(Math.round(powerUp.getX()), Math.round(powerUp.getY()))) {
+                powerUps.add(powerUp);
+            }
+        }
+        bombs.clear();
+        for (Bomb bomb : map.getBombs()) {
+            bombs.add(bomb);
+        }
+        enemies.clear();
+        for (Enemy enemy : map.getEnemies()) {
+            enemies.add(enemy);
+        }
+        explosions.clear();
+        for (ExplosionTile tile : map.getExplosionTiles()) {
+            explosions.add(tile);
+        }
+
+        GameClock clock = map.getClock();
+        tickCount = clock.getTickCount();
+        outcome = map.getOutcome();
+        shakeOffsetX = map.getShakeOffsetX();
+        shakeOffsetY = map.getShakeOffsetY();
+        remainingMillis = clock.getRemainingMillis();
+        paused = clock.isPaused();
+        timeScale = clock.getTimeScale();
+        concurrentBombCount = mapPlayer.getConcurrentBombCount();
+        blastRadius = mapPlayer.getBlastRadius();
+        enemiesLeft = map.getEnemies().size();
+        enemiesCleared = map.enemiesCleared;
+
+        capturedNanos = nanoTime;
+        capturedAlpha = clock.getAlpha();
+        tickNanos = paused ? 0 : (long) (clock.getTimeStep() / timeScale * 1e9);
+    }
+
+    /**
+     * Returns how far a frame is between the previous and the latest tick of this snapshot.
+     * When the simulation runs on another thread, the time since the capture is added, so motion stays smooth
+     * until the next snapshot arrives.
+     *
+     * @param nanoTime The current {@link System#nanoTime()}.
+     * @return the interpolation factor from 0 to 1
+     */
+    public float getAlpha(long nanoTime) {
+        if (tickNanos == 0) {
+            return Math.min(1f, capturedAlpha);
+        }
+        return Math.min(1f, capturedAlpha + (float) (nanoTime - capturedNanos) / tickNanos);
+    }
+
+    public Sprite getPlayer() {
+        return player;
+    }
+
+    /**
+     * Returns the exit, which is only drawn once it is active and not hidden by a wall.
+     *
+     * @return the exit, or null if it is not visible
+     */
+    public Sprite getExit() {
+        return exitVisible ? exit : null;
+    }
+
+    /**
+     * Returns the loaded power-ups that are not hidden by a wall.
+     *
+     * @return the power-ups
+     */
+    public SpriteList getPowerUps() {
+        return powerUps;
+    }
+
+    public SpriteList getBombs() {
+        return bombs;
+    }
+
+    public SpriteList getEnemies() {
+        return enemies;
+    }
+
+    public SpriteList getExplosions() {
+        return explosions;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public GameMap.Outcome getOutcome() {
+        return outcome;
+    }
+
+    public float getShakeOffsetX() {
+        return shakeOffsetX;
+    }
+
+    public float getShakeOffsetY() {
+        return shakeOffsetY;
+    }
+
+    public long getRemainingMillis() {
+        return remainingMillis;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public float getTimeScale() {
+        return timeScale;
+    }
+
+    public int getConcurrentBombCount() {
+        return concurrentBombCount;
+    }
+
+    public int getBlastRadius() {
+        return blastRadius;
+    }
+
+    public int getEnemiesLeft() {
+        return enemiesLeft;
+    }
+
+    public boolean isEnemiesCleared() {
+        return enemiesCleared;
+    }
+}
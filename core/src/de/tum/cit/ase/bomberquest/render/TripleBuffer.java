@@ -0,0 +1,70 @@
+package de.tum.cit.ase.bomberquest.render;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands the latest of a stream of objects from one producer thread to one consumer thread without locks.
+ * <p>
+ * There are three preallocated objects: the producer fills the back one, the consumer reads the front one, and the
+ * middle one holds the latest published object. Publishing and acquiring only swap indices with the middle one, so
+ * neither thread ever waits for the other, and an object is never written while it is being read.
+ * When the producer publishes faster than the consumer reads, the older objects are simply skipped.
+ *
+ * @param <T> The type of the exchanged objects. They are reused, so the producer overwrites them completely.
+ */
+public class TripleBuffer<T> {
+
+    /** Set in {@link #middle} when the middle object was published after the consumer last acquired one. */
+    private static final int FRESH = 4;
+    private static final int INDEX_MASK = 3;
+
+    private final Object[] buffers = new Object[3];
+    /** The index of the middle object, plus {@link #FRESH}. */
+    private final AtomicInteger middle = new AtomicInteger(1);
+    /** The object the producer writes, only accessed by the producer. */
+    private int back = 2;
+    /** The object the consumer reads, only accessed by the consumer. */
+    private int front = 0;
+
+    /**
+     * Creates the three objects.
+     *
+     * @param factory Creates an empty object.
+     */
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+    /**
+     * Returns the object the producer fills next. It must not be used anymore after {@link #publish()}.
+     *
+     * @return the back object
+     */
+    @SuppressWarnings("unchecked")
+    public T getBack() {
+        return (T) buffers[back];
+    }
+
+    /**
+     * Makes the back object the latest one and gives the producer another object to fill.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Returns the latest published object. It stays valid until the next call of this method.
+     *
+     * @return the front object, which is the same as before if nothing new was published
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return (T) buffers[front];
+    }
+}
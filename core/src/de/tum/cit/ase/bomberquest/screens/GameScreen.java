@@ -7,21 +7,28 @@
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.ScreenUtils;
 import de.tum.cit.ase.bomberquest.gamemechanism.BomberQuestGame;
-import de.tum.cit.ase.bomberquest.gamemechanism.GameTimer;
-import de.tum.cit.ase.bomberquest.audio.MusicTrack;
+import de.tum.cit.ase.bomberquest.gamemechanism.FrameProfiler;
+import de.tum.cit.ase.bomberquest.gamemechanism.SimulationThread;
+import de.tum.cit.ase.bomberquest.audio.SoundEffect;
 import de.tum.cit.ase.bomberquest.hud.Hud;
+import de.tum.cit.ase.bomberquest.hud.PerformanceOverlay;
 import de.tum.cit.ase.bomberquest.map.*;
-import de.tum.cit.ase.bomberquest.powerups.BlastRadius;
-import de.tum.cit.ase.bomberquest.powerups.ConcurrentBomb;
-import de.tum.cit.ase.bomberquest.powerups.PowerUp;
+import de.tum.cit.ase.bomberquest.render.ChunkedMapRenderer;
+import de.tum.cit.ase.bomberquest.render.FloorRenderer;
+import de.tum.cit.ase.bomberquest.render.PixelPerfectBuffer;
+import de.tum.cit.ase.bomberquest.render.RenderSnapshot;
+import de.tum.cit.ase.bomberquest.render.TripleBuffer;
 import de.tum.cit.ase.bomberquest.texture.Drawable;
+import de.tum.cit.ase.bomberquest.texture.Textures;
 
 /**
  * The GameScreen class is responsible for rendering the gameplay screen.
  * It handles the game logic and rendering of the game elements.
+ * The game elements are always drawn from a {@link RenderSnapshot} of the map, which is either captured every frame
+ * or, with {@link BomberQuestGame#isThreadedSimulation()}, published by a {@link SimulationThread}.
  */
 
 public class GameScreen implements Screen {
@@ -44,92 +51,57 @@ public class GameScreen implements Screen {
     private final SpriteBatch spriteBatch;
     private final GameMap map;
     private final Hud hud;
+    /** Shows the timings of the frame, toggled with F3. */
+    private final PerformanceOverlay performanceOverlay;
     private final OrthographicCamera mapCamera;
-    private GameTimer gameTimer;
-    private Player player;
+    /** Renders the floor of the whole map as a single quad. */
+    private final FloorRenderer floorRenderer;
+    /** Renders the walls, which rarely change, from cached chunk meshes. */
+    private final ChunkedMapRenderer chunkRenderer;
+    /** The offscreen buffer used in pixel-perfect mode. */
+    private final PixelPerfectBuffer pixelPerfectBuffer;
+    /** The furthest the camera can zoom out. Larger maps can be zoomed out further. */
+    private final float maxZoom;
+    /** The snapshots of the map that are drawn, filled by the simulation thread or by this screen. */
+    private final TripleBuffer<RenderSnapshot> snapshots = new TripleBuffer<>(RenderSnapshot::new);
+    /** Simulates the map in threaded mode, or null if the map is simulated in {@link #render(float)}. */
+    private final SimulationThread simulation;
     private float normalZoom = 1.3f; // Normal zoom value
+    /** Whether the game is frozen so the player can scrub through the last seconds, see {@link #updateRewind()}. */
+    private boolean rewinding = false;
+    /** How many ticks the game is rewound or fast-forwarded per frame while the arrow keys are held. */
+    private static final int REWIND_TICKS_PER_FRAME = 2;
 
     /**
      * Constructor for GameScreen. Sets up the camera and font.
      *
      * @param game The main game class, used to access global resources and methods.
      */
-    public GameScreen(BomberQuestGame game, GameTimer gameTimer) {
+    public GameScreen(BomberQuestGame game) {
         this.game = game;
         this.spriteBatch = game.getSpriteBatch();
         this.map = game.getMap();
-        this.gameTimer=gameTimer;
-        this.player = map.getPlayer();
-        this.hud = new Hud(spriteBatch, game.getSkin().getFont("font"), gameTimer, player,map);
+        this.hud = new Hud(spriteBatch, game.getSkin().getFont("font"), map);
+        this.performanceOverlay = new PerformanceOverlay(spriteBatch, game.getSkin().getFont("font"));
         this.mapCamera = new OrthographicCamera();
         this.mapCamera.setToOrtho(false);
         this.mapCamera.zoom=normalZoom;
-        // Set up the collision listener
-        setupCollisionListener();
-    }
-
-    // THIS METHOD LOOKS FOR A COLLISION BETWEEN PLAYER AND OTHER OBJECTS
-    private void setupCollisionListener() {
-        map.getWorld().setContactListener(new ContactListener() {
-            @Override
-            public void beginContact(Contact contact) {
-                Object userDataA = contact.getFixtureA().getBody().getUserData();
-                Object userDataB = contact.getFixtureB().getBody().getUserData();
-
-                // Check if the player and enemy collide
-                if ((userDataA instanceof Player && userDataB instanceof Enemy) ||
-                        (userDataA instanceof Enemy && userDataB instanceof Player)) {
-                    MusicTrack.PLAYERDIE.play();
-                    // Transition to the YouLoseScreen
-                    game.setScreen(new YouLoseScreen(game));
-                }
-
-                // Check if the player reaches the exit
-                if ((userDataA instanceof Player && userDataB instanceof Exit) ||
-                        (userDataA instanceof Exit && userDataB instanceof Player)) {
-                    // Transition to the WinScreen
-                    game.setScreen(new WinScreen(game));
-                }
-
-                //Check if the player touches a powerup
-                if ((userDataA instanceof Player && userDataB instanceof PowerUp) ||
-                        (userDataB instanceof Player && userDataA instanceof PowerUp)) {
-                    Player player = (userDataA instanceof Player) ? (Player) userDataA : (Player) userDataB;
-                    PowerUp powerUp = (userDataA instanceof PowerUp) ? (PowerUp) userDataA : (PowerUp) userDataB;
-                    //call handling method
-                    handlePowerUpPickup(player, powerUp);
-                }
-            }
-
+        this.floorRenderer = new FloorRenderer(map.getWidth(), map.getHeight(), Textures.TILES);
+        this.chunkRenderer = new ChunkedMapRenderer(map);
+        this.pixelPerfectBuffer = new PixelPerfectBuffer();
+        this.maxZoom = Math.max(2f, Math.max(map.getWidth(), map.getHeight()) / 16f);
 
+        this.simulation = game.isThreadedSimulation() ? new SimulationThread(map, snapshots) : null;
+    }
 
-        private void handlePowerUpPickup(Player player, PowerUp powerUp) {
-            //Check if the powerup is BlastRadius
-            if (powerUp instanceof BlastRadius) {
-                MusicTrack.POWERUPSOUND.play();
-                //Increase blast radius of bombs by 1
-                player.setBlastRadius(Math.min(player.getBlastRadius() + 1, 9));
-            }
-            //Check if the powerup is ConcurrentBomb
-            else if (powerUp instanceof ConcurrentBomb) {
-                MusicTrack.POWERUPSOUND.play();
-                //Increase concurrent bomb count by 1
-                player.setConcurrentBombCount(Math.min(player.getConcurrentBombCount() + 1, 9));
-            }
-            // Remove the power-up from the map
-            map.removePowerUp(powerUp);
-        }
-        @Override
-            public void endContact(Contact contact) {
-
-            }
-            @Override
-            public void preSolve(Contact contact, Manifold manifold) {
-            }
-            @Override
-            public void postSolve(Contact contact, ContactImpulse contactImpulse) {
-            }
-        });
+    /**
+     * Returns the map this screen shows. The screen is kept while the map is played, see
+     * {@link de.tum.cit.ase.bomberquest.gamemechanism.ScreenRegistry}.
+     *
+     * @return the map
+     */
+    public GameMap getMap() {
+        return map;
     }
 
     /**
@@ -138,10 +110,12 @@ public void postSolve(Contact contact, ContactImpulse contactImpulse) {
      */
     @Override
     public void render(float deltaTime) {
-        // Check for escape key press to go back to the menu
-        if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
-            MusicTrack.BUTTONSOUND.play();
+        // Check for escape key press to go back to the menu, the key events are received by the keyboard commands
+        if (game.getKeyboardCommands().takePauseRequest()) {
+            SoundEffect.BUTTONSOUND.play();
+            stopSimulation();
             game.goToPause();
+            return;
         }
 
         // Adjust camera zoom with '*' and '-'
@@ -150,54 +124,192 @@ public void render(float deltaTime) {
             normalZoom= mapCamera.zoom;
         }
         if (Gdx.input.isKeyPressed(Input.Keys.MINUS)) {
-            mapCamera.zoom = Math.min(mapCamera.zoom + 0.02f, 2f); // Zoom out (max zoom level: 2)
+            // Zoom out (max zoom level: 2, or more for large maps), faster when already zoomed out far
+            mapCamera.zoom = Math.min(mapCamera.zoom + 0.02f * Math.max(1f, mapCamera.zoom / 2f), maxZoom);
             normalZoom=mapCamera.zoom;
         }
 
-        // Check for space key press to plant a bomb
-        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
-            map.placeBomb();
+        // Toggle the minimap with 'M'
+        if (Gdx.input.isKeyJustPressed(Input.Keys.M)) {
+            hud.toggleMinimap();
         }
 
-        // Clear the previous frame from the screen
-        ScreenUtils.clear(Color.BLACK);
+        // Toggle the pixel-perfect mode with 'P'
+        if (Gdx.input.isKeyJustPressed(Input.Keys.P)) {
+            game.setPixelPerfect(!game.isPixelPerfect());
+        }
 
-        // Cap frame time to 250ms to prevent spiral of death
-        float frameTime = Math.min(deltaTime, 0.250f);
+        // Quicksave with F5, quickload with F9
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F5)) {
+            runOnSimulation(game::quickSave);
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F9)) {
+            stopSimulation();
+            if (game.quickLoad()) {
+                return; // This screen and its map have been replaced
+            }
+            startSimulation();
+        }
 
-        // Update the map state
-        map.tick(frameTime);
+        // Show or hide the performance overlay with F3
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            performanceOverlay.toggle();
+        }
 
-        // Process deferred body destructions
-        map.processPendingBodyDestruction();
-        map.processPendingWallRemovals();
-        map.processPendingEnemyRemovals();
+        // Slow down or speed up the game time with '[' and ']', e.g. to test a level quickly
+        if (Gdx.input.isKeyJustPressed(Input.Keys.LEFT_BRACKET)) {
+            changeTimeScale(0.5f);
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.RIGHT_BRACKET)) {
+            changeTimeScale(2);
+        }
 
-        // Update and render the timer
-        gameTimer.update();
+        // Start or end rewinding with 'R'
+        if (Gdx.input.isKeyJustPressed(Input.Keys.R)) {
+            toggleRewind();
+        }
+
+        // Clear the previous frame from the screen
+        ScreenUtils.clear(Color.BLACK);
+
+        // Update the map state in fixed simulation ticks, this also processes the deferred removals.
+        // In threaded mode, the simulation thread does this on its own, except while rewinding.
+        if (rewinding) {
+            updateRewind();
+            captureSnapshot();
+        } else if (simulation == null) {
+            map.tick(deltaTime);
+            captureSnapshot();
+        }
+        RenderSnapshot snapshot = snapshots.acquire();
+
+        // Show the result once the game has ended, the player can no longer move
+        if (snapshot.getOutcome() != GameMap.Outcome.RUNNING) {
+            stopSimulation();
+            game.endGame(snapshot.getOutcome());
+            return;
+        }
 
         // Update the camera
-        updateCamera();
+        float alpha = snapshot.getAlpha(System.nanoTime());
+        updateCamera(snapshot, alpha);
 
         // Render the map on the screen
-        renderMap();
+        long start = FrameProfiler.begin();
+        renderMap(snapshot, alpha);
+        FrameProfiler.end(FrameProfiler.Section.RENDER_MAP, start);
 
         // Render the HUD on the screen
-        hud.render();
+        start = FrameProfiler.begin();
+        hud.render(snapshot);
+        FrameProfiler.end(FrameProfiler.Section.HUD, start);
+
+        // Render the timings of this frame, if the overlay is shown
+        performanceOverlay.render(game.getKeyboardCommands().getInputLatencyNanos());
+    }
+
+    /**
+     * Captures the map into the next snapshot. Only called while no simulation thread is running.
+     */
+    private void captureSnapshot() {
+        snapshots.getBack().capture(map, System.nanoTime());
+        snapshots.publish();
+    }
+
+    /**
+     * Runs a change of the map between two ticks, on the simulation thread if there is one.
+     */
+    private void runOnSimulation(Runnable change) {
+        if (simulation != null) {
+            simulation.post(change);
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * Stops the simulation thread, if there is one, so this thread can change the map.
+     * The snapshots are filled by this screen until {@link #startSimulation()}.
+     */
+    private void stopSimulation() {
+        if (simulation != null) {
+            simulation.stop();
+        }
+    }
+
+    private void startSimulation() {
+        if (simulation != null) {
+            simulation.start();
+        }
+    }
+
+    /**
+     * Multiplies the time scale of the game clock, staying within the slowest and fastest time scale.
+     *
+     * @param factor 0.5 to halve the speed of the game, 2 to double it
+     */
+    private void changeTimeScale(float factor) {
+        runOnSimulation(() -> {
+            GameClock clock = map.getClock();
+            clock.setTimeScale(MathUtils.clamp(clock.getTimeScale() * factor, GameClock.MIN_TIME_SCALE, GameClock.MAX_TIME_SCALE));
+        });
+    }
+
+    /**
+     * Freezes the game so it can be rewound, or continues it from the tick that was rewound to.
+     * The ticks after that tick are dropped as soon as the game continues.
+     */
+    private void toggleRewind() {
+        if (!rewinding) {
+            // The map is rewound by this thread, so the simulation thread must not run meanwhile
+            stopSimulation();
+            if (map.getRewindBuffer().isEmpty()) {
+                startSimulation();
+                return;
+            }
+            game.beginRewind();
+            map.getClock().pause();
+            rewinding = true;
+        } else {
+            game.getKeyboardCommands().discardPresses(); // No bombs from the keys pressed while rewinding
+            map.getClock().resume();
+            rewinding = false;
+            startSimulation();
+        }
+    }
+
+    /**
+     * Moves back through the recorded ticks while the left arrow key is held, and forward again with the right one.
+     */
+    private void updateRewind() {
+        RewindBuffer buffer = map.getRewindBuffer();
+        long tick = map.getTickCount();
+        if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
+            tick = Math.max(tick - REWIND_TICKS_PER_FRAME, buffer.getOldestTick());
+        }
+        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
+            tick = Math.min(tick + REWIND_TICKS_PER_FRAME, buffer.getNewestTick());
+        }
+        if (tick != map.getTickCount()) {
+            map.rewindTo(tick); // The game clock follows the tick count
+        }
     }
 
     /**
      * Updates the camera to match the current state of the game.
      * Camera moves when player goes out of defined safe zone in the middle of screen.
+     *
+     * @param snapshot The state of the game to show.
+     * @param alpha How far the frame is between the previous and the latest simulation tick.
      */
-    private void updateCamera() {
+    private void updateCamera(RenderSnapshot snapshot, float alpha) {
         // Define the safe zone size (in pixels)
         float safeZoneWidth = 100 * SCALE;  // Width of the safe zone
         float safeZoneHeight = 100 * SCALE; // Height of the safe zone
 
         // Get the player's position
-        float playerX = map.getPlayer().getX() * TILE_SIZE_PX * SCALE;
-        float playerY = map.getPlayer().getY() * TILE_SIZE_PX * SCALE;
+        float playerX = snapshot.getPlayer().getRenderX(alpha) * TILE_SIZE_PX * SCALE;
+        float playerY = snapshot.getPlayer().getRenderY(alpha) * TILE_SIZE_PX * SCALE;
 
         // Calculate the safe zone bounds relative to the camera's center
         float safeZoneLeft = mapCamera.position.x - safeZoneWidth / 2f;
@@ -218,24 +330,32 @@ private void updateCamera() {
             mapCamera.position.y += (playerY - safeZoneTop);
         }
 
-        // Apply screen shake effect if active
-        if (map.getShakeDuration() > 0) {
-            map.setShakeDuration(map.getShakeDuration()-Gdx.graphics.getDeltaTime()); // Decrease shake time
+        // Apply the screen shake of the latest tick, it is 0 when the screen does not shake
+        mapCamera.position.x += snapshot.getShakeOffsetX();
+        mapCamera.position.y += snapshot.getShakeOffsetY();
 
-            // Generate random offsets within the intensity range
-            float shakeOffsetX = (float) (Math.random() * 2 - 1) * map.getShakeIntensity();
-            float shakeOffsetY = (float) (Math.random() * 2 - 1) * map.getShakeIntensity();
-
-            // Apply offsets to the camera position
-            mapCamera.position.x += shakeOffsetX;
-            mapCamera.position.y += shakeOffsetY;
+        // In pixel-perfect mode the viewport is rounded to whole pixels of the offscreen buffer
+        if (game.isPixelPerfect()) {
+            pixelPerfectBuffer.fitCamera(mapCamera);
+        } else {
+            mapCamera.viewportWidth = Gdx.graphics.getWidth();
+            mapCamera.viewportHeight = Gdx.graphics.getHeight();
         }
 
         // Update the camera
         mapCamera.update();
     }
 
-    private void renderMap() {
+    private void renderMap(RenderSnapshot snapshot, float alpha) {
+        // Draw the floor, then the walls from the cached chunk meshes
+        chunkRenderer.update(mapCamera);
+        // In pixel-perfect mode, everything is drawn into the offscreen buffer at native resolution first
+        if (game.isPixelPerfect()) {
+            pixelPerfectBuffer.begin();
+        }
+        floorRenderer.render(mapCamera);
+        chunkRenderer.render(mapCamera, spriteBatch);
+
         // This configures the spriteBatch to use the camera's perspective when rendering
         spriteBatch.setProjectionMatrix(mapCamera.combined);
 
@@ -243,43 +363,36 @@ private void renderMap() {
         spriteBatch.begin();
 
         // Render everything in the map here, in order from lowest to highest (later things appear on top)
-        //Draw flowers
-        for (Flowers flowers : map.getFlowers()) {
-            draw(spriteBatch, flowers);
-        }
-       //Draws exit if it is active
-        if (map.getExit().isActive()) {
-            draw(spriteBatch, map.getExit());
+        // Objects under a wall are not part of the snapshot, since the walls were already drawn
+        //Draws exit if it is active
+        RenderSnapshot.Sprite exit = snapshot.getExit();
+        if (exit != null) {
+            draw(spriteBatch, exit, alpha);
         }
         //Draws Powerups
-        for (PowerUp powerUp : map.getPowerUps()) {
-            draw(spriteBatch, powerUp);
-        }
-        //Draw destructible walls
-        for(DestructibleWall destructibleWall: map.getDestructibleWalls()){
-            draw(spriteBatch, destructibleWall);
-        }
-       //Draw indestructible walls
-        for(IndestructibleWall indestructibleWall: map.getIndestructibleWalls()){
-            draw(spriteBatch, indestructibleWall);
-        }
+        draw(spriteBatch, snapshot.getPowerUps(), alpha);
         // Draw bombs
-        for (Bomb bomb : map.getBombs()) {
-            draw(spriteBatch, bomb);
-        }
+        draw(spriteBatch, snapshot.getBombs(), alpha);
         //Draw enemies
-        for (Enemy enemy : map.getEnemies()) {
-            draw(spriteBatch, enemy);
-        }
+        draw(spriteBatch, snapshot.getEnemies(), alpha);
         //Draw explosion tiles
-        for (ExplosionTile tile : map.getExplosionTiles()) {
-            draw(spriteBatch, tile);
-        }
+        draw(spriteBatch, snapshot.getExplosions(), alpha);
         //Draw player
-        draw(spriteBatch, map.getPlayer());
+        draw(spriteBatch, snapshot.getPlayer(), alpha);
 
         // Finish drawing, i.e., send the drawn items to the graphics card
         spriteBatch.end();
+
+        // Scale the offscreen buffer up to the screen
+        if (game.isPixelPerfect()) {
+            pixelPerfectBuffer.end(spriteBatch);
+        }
+    }
+
+    private static void draw(SpriteBatch spriteBatch, RenderSnapshot.SpriteList sprites, float alpha) {
+        for (int i = 0; i < sprites.size(); i++) {
+            draw(spriteBatch, sprites.get(i), alpha);
+        }
     }
 
     /**
@@ -287,12 +400,13 @@ private void renderMap() {
      * The texture will be scaled by the game scale and the tile size.
      * This should only be called between spriteBatch.begin() and spriteBatch.end(), e.g., in the renderMap() method.
      * @param spriteBatch The SpriteBatch to draw with.
+     * @param alpha How far the frame is between the previous and the latest simulation tick.
      */
-    private static void draw(SpriteBatch spriteBatch, Drawable drawable) {
+    private static void draw(SpriteBatch spriteBatch, Drawable drawable, float alpha) {
         TextureRegion texture = drawable.getCurrentAppearance();
         // Drawable coordinates are in tiles, so we need to scale them to pixels
-        float x = drawable.getX() * TILE_SIZE_PX * SCALE;
-        float y = drawable.getY() * TILE_SIZE_PX * SCALE;
+        float x = drawable.getRenderX(alpha) * TILE_SIZE_PX * SCALE;
+        float y = drawable.getRenderY(alpha) * TILE_SIZE_PX * SCALE;
         // Additionally scale everything by the game scale
         float width = texture.getRegionWidth() * SCALE;
         float height = texture.getRegionHeight() * SCALE;
@@ -310,26 +424,56 @@ private static void draw(SpriteBatch spriteBatch, Drawable drawable) {
     public void resize(int width, int height) {
         mapCamera.setToOrtho(false);
         hud.resize(width, height);
+        performanceOverlay.resize(width, height);
     }
 
-    // Unused methods from the Screen interface
+    /**
+     * Passes the key events to the player's commands, which the simulation takes once per tick,
+     * and continues the simulation thread. The screen is shown again whenever the game is resumed or restarted.
+     */
     @Override
-    public void pause() {
+    public void show() {
+        game.getKeyboardCommands().reset();
+        Gdx.input.setInputProcessor(game.getKeyboardCommands());
+        // The first frame is drawn before the simulation has published anything, the map may have been restarted
+        captureSnapshot();
+        if (simulation != null) {
+            // The listeners update meshes and textures, which only the render thread may do
+            map.setChangeListenerExecutor(Gdx.app::postRunnable);
+            simulation.start();
+        }
     }
 
+    /**
+     * Stops the simulation thread and ends rewinding, since the map is used by the other screens meanwhile,
+     * e.g. to restart it. The performance overlay is hidden, so the menus are not measured.
+     */
     @Override
-    public void resume() {
+    public void hide() {
+        stopSimulation();
+        performanceOverlay.hide();
+        map.setChangeListenerExecutor(Runnable::run);
+        if (rewinding) {
+            map.getClock().resume();
+            rewinding = false;
+        }
     }
 
+    // Unused methods from the Screen interface
     @Override
-    public void show() {
+    public void pause() {
     }
 
     @Override
-    public void hide() {
+    public void resume() {
     }
 
     @Override
     public void dispose() {
+        stopSimulation();
+        hud.dispose();
+        floorRenderer.dispose();
+        chunkRenderer.dispose();
+        pixelPerfectBuffer.dispose();
     }
 }
@@ -0,0 +1,166 @@
+package de.tum.cit.ase.bomberquest.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.ProgressBar;
+import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
+import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
+import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.badlogic.gdx.utils.viewport.Viewport;
+import de.tum.cit.ase.bomberquest.audio.SoundEffect;
+import de.tum.cit.ase.bomberquest.gamemechanism.BomberQuestGame;
+import de.tum.cit.ase.bomberquest.gamemechanism.MapLoadTask;
+import de.tum.cit.ase.bomberquest.map.GameMap;
+
+/**
+ * The LoadingScreen shows the progress while a map is loaded.
+ * The map file is parsed on a background thread by a {@link MapLoadTask}; afterwards the game objects are created
+ * on the render thread, a few milliseconds per frame, so the window stays responsive and loading can be cancelled.
+ */
+public class LoadingScreen implements Screen {
+
+    /** The time per frame that is spent creating game objects. */
+    private static final long BUILD_BUDGET_NANOS = 8_000_000L;
+
+    private final BomberQuestGame game;
+    private final Stage stage;
+    private final Label statusLabel;
+    private final ProgressBar progressBar;
+    private final String filePath;
+    private final MapLoadTask task;
+    /** The map that is being built, null while the file is still being parsed. */
+    private GameMap map;
+
+    /**
+     * Constructor for LoadingScreen. Sets up the UI elements and starts parsing the map file.
+     *
+     * @param game The main game class, used to access global resources and methods.
+     * @param filePath The path to the map file.
+     * @param seed The seed for the random decisions while loading, which is also recorded for replays.
+     */
+    public LoadingScreen(BomberQuestGame game, String filePath, long seed) {
+        this.game = game;
+        var camera = new OrthographicCamera();
+        camera.zoom = 1.5f; // Set camera zoom for a closer view
+        Viewport viewport = new ScreenViewport(camera); // Create a viewport with the camera
+        stage = new Stage(viewport, game.getSpriteBatch()); // Create a stage for UI elements
+
+        Table table = new Table(); // Create a table for layout
+        table.setFillParent(true); // Make the table fill the stage
+        stage.addActor(table); // Add the table to the stage
+
+        table.add(new Label("Loading Map", game.getSkin(), "title")).padBottom(80).row();
+        statusLabel = new Label("Reading map file...", game.getSkin());
+        table.add(statusLabel).padBottom(20).row();
+        progressBar = new ProgressBar(0, 1, 0.01f, false, game.getSkin());
+        table.add(progressBar).width(300).padBottom(40).row();
+
+        // Cancel button
+        TextButton cancelButton = new TextButton("Cancel", game.getSkin());
+        table.add(cancelButton).width(300).row();
+        cancelButton.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                SoundEffect.BUTTONSOUND.play();
+                game.cancelLoading(); // This disposes the screen, which stops loading
+            }
+        });
+
+        this.filePath = filePath;
+        task = new MapLoadTask(filePath, seed);
+        task.start();
+    }
+
+    /**
+     * Advances loading and draws the progress.
+     * Parsing counts as the first half of the progress bar, creating the game objects as the second half.
+     *
+     * @param deltaTime The time in seconds since the last render.
+     */
+    @Override
+    public void render(float deltaTime) {
+        ScreenUtils.clear(Color.BLACK);
+        stage.act(Math.min(deltaTime, 0.250f));
+        if (game.getScreen() != this) {
+            return; // Loading was cancelled while handling input
+        }
+
+        if (task.getError() != null) {
+            System.err.println("Error loading map file: " + task.getError().getMessage());
+            task.getError().printStackTrace();
+            game.cancelLoading();
+            return;
+        }
+        if (map == null && task.isDone()) {
+            map = new GameMap(game);
+            map.setSource(filePath, task.getMapHash(), task.getSeed());
+            map.beginLoading(task.getGrid(), task.getOccupiedTiles());
+            statusLabel.setText("Building map...");
+        }
+        if (map != null) {
+            if (map.continueLoading(BUILD_BUDGET_NANOS)) {
+                GameMap loadedMap = map;
+                map = null; // The game owns the map from now on
+                game.finishLoading(loadedMap);
+                return;
+            }
+            progressBar.setValue(0.5f + map.getLoadProgress() / 2);
+        } else {
+            progressBar.setValue(task.getProgress() / 2);
+        }
+        stage.draw();
+    }
+
+    /**
+     * Resize the stage when the screen is resized.
+     * @param width The new width of the screen.
+     * @param height The new height of the screen.
+     */
+    @Override
+    public void resize(int width, int height) {
+        stage.getViewport().update(width, height, true);
+    }
+
+    /**
+     * Stops loading if it has not finished and releases the partially built map and the stage.
+     */
+    @Override
+    public void dispose() {
+        task.cancel();
+        if (map != null) {
+            map.dispose();
+            map = null;
+        }
+        stage.dispose();
+    }
+
+    /**
+     * Set the input processor so the stage can receive input events
+     */
+    @Override
+    public void show() {
+        Gdx.input.setInputProcessor(stage);
+    }
+
+    /** The following methods are part of the Screen interface,
+     *  but are not used in this screen.
+     */
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void hide() {
+    }
+}
@@ -14,7 +14,7 @@
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import de.tum.cit.ase.bomberquest.gamemechanism.BomberQuestGame;
-import de.tum.cit.ase.bomberquest.audio.MusicTrack;
+import de.tum.cit.ase.bomberquest.audio.SoundEffect;
 
 import java.io.IOException;
 
@@ -25,7 +25,6 @@
 public class PauseScreen implements Screen {
 
     private final Stage stage;
-    //private GameTimer gameTimer;
     /**
      * Constructor for MenuScreen. Sets up the camera, viewport, stage, and UI elements.
      *
@@ -50,11 +49,22 @@ public PauseScreen(BomberQuestGame game) {
         continueButton.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                MusicTrack.BUTTONSOUND.play();
+                SoundEffect.BUTTONSOUND.play();
                 game.goToGame(); // Resume the current game
             }
         });
 
+        // Restart button
+        TextButton restartButton = new TextButton("Restart", game.getSkin());
+        table.add(restartButton).width(300).row();
+        restartButton.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                SoundEffect.BUTTONSOUND.play();
+                game.restartGame(); // Play the current map again from the start
+            }
+        });
+
         // New Game button
         TextButton newGameButton = new TextButton("New Game", game.getSkin());
         table.add(newGameButton).width(300).row();
@@ -62,7 +72,7 @@ public void changed(ChangeEvent event, Actor actor) {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
                 try {
-                    MusicTrack.BUTTONSOUND.play();
+                    SoundEffect.BUTTONSOUND.play();
                     game.loadNewGame(); // Load a new game map and start the game
                 } catch (IOException e) {
                     throw new RuntimeException(e);
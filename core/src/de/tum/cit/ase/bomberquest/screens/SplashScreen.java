@@ -0,0 +1,107 @@
+package de.tum.cit.ase.bomberquest.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.ScreenUtils;
+import de.tum.cit.ase.bomberquest.gamemechanism.Assets;
+import de.tum.cit.ase.bomberquest.gamemechanism.BomberQuestGame;
+
+/**
+ * The SplashScreen is shown while the assets of the game are loaded in the background, see {@link Assets}.
+ * The skin is not loaded yet, so the title and the progress bar are drawn with the built-in font and a white pixel.
+ */
+public class SplashScreen implements Screen {
+
+    /** The time per frame that is spent uploading loaded assets to the graphics card. */
+    private static final int LOAD_BUDGET_MILLIS = 8;
+    private static final float BAR_WIDTH = 400;
+    private static final float BAR_HEIGHT = 12;
+
+    private final BomberQuestGame game;
+    private final SpriteBatch spriteBatch;
+    private final OrthographicCamera camera = new OrthographicCamera();
+    private final BitmapFont font = new BitmapFont();
+    /** A white pixel that is tinted to draw the progress bar. */
+    private final Texture pixel;
+
+    /**
+     * Constructor for SplashScreen. The assets must already be queued.
+     *
+     * @param game The main game class, used to access global resources and methods.
+     */
+    public SplashScreen(BomberQuestGame game) {
+        this.game = game;
+        this.spriteBatch = game.getSpriteBatch();
+        Pixmap white = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+        white.setColor(Color.WHITE);
+        white.fill();
+        this.pixel = new Texture(white);
+        white.dispose();
+    }
+
+    /**
+     * Loads assets for a few milliseconds and draws the progress. Once everything is loaded, the game starts.
+     *
+     * @param deltaTime The time in seconds since the last render.
+     */
+    @Override
+    public void render(float deltaTime) {
+        if (Assets.update(LOAD_BUDGET_MILLIS)) {
+            game.finishStartup();
+            return;
+        }
+
+        ScreenUtils.clear(Color.BLACK);
+        spriteBatch.setProjectionMatrix(camera.combined);
+        spriteBatch.begin();
+        float x = (camera.viewportWidth - BAR_WIDTH) / 2;
+        float y = camera.viewportHeight / 2 - 40;
+        font.draw(spriteBatch, "Bomber Quest", x, camera.viewportHeight / 2 + 20);
+        spriteBatch.setColor(Color.DARK_GRAY);
+        spriteBatch.draw(pixel, x, y, BAR_WIDTH, BAR_HEIGHT);
+        spriteBatch.setColor(Color.ORANGE);
+        spriteBatch.draw(pixel, x, y, BAR_WIDTH * Assets.getProgress(), BAR_HEIGHT);
+        spriteBatch.setColor(Color.WHITE);
+        spriteBatch.end();
+    }
+
+    /**
+     * Centers the title and the progress bar when the screen is resized.
+     * @param width The new width of the screen.
+     * @param height The new height of the screen.
+     */
+    @Override
+    public void resize(int width, int height) {
+        camera.setToOrtho(false, width, height);
+    }
+
+    @Override
+    public void show() {
+        camera.setToOrtho(false, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+    }
+
+    // Unused methods from the Screen interface
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void hide() {
+    }
+
+    @Override
+    public void dispose() {
+        font.dispose();
+        pixel.dispose();
+    }
+}
@@ -6,6 +6,7 @@
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
@@ -15,8 +16,9 @@
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
+import de.tum.cit.ase.bomberquest.gamemechanism.Assets;
 import de.tum.cit.ase.bomberquest.gamemechanism.BomberQuestGame;
-import de.tum.cit.ase.bomberquest.audio.MusicTrack;
+import de.tum.cit.ase.bomberquest.audio.SoundEffect;
 
 import java.io.IOException;
 
@@ -27,8 +29,9 @@
 public class StartScreen implements Screen {
 
     private final Stage stage;
-    private final SpriteBatch spriteBatch; // SpriteBatch for rendering the background
-    private final Texture backgroundTexture; // Texture for the background
+    private final SpriteBatch spriteBatch; // The game's SpriteBatch, shared with the stage
+    private final Matrix4 backgroundProjection = new Matrix4(); // Maps the background to the whole window
+    private Texture backgroundTexture; // Texture for the background, only held while the screen is shown
 
     /**
      * Constructor for StartScreen. Sets up the camera, viewport, stage, and UI elements.
@@ -42,9 +45,7 @@ public StartScreen(BomberQuestGame game) {
         Viewport viewport = new ScreenViewport(camera); // Create a viewport with the camera
         stage = new Stage(viewport, game.getSpriteBatch()); // Create a stage for UI elements
 
-        spriteBatch = new SpriteBatch(); // Initialize the SpriteBatch
-        backgroundTexture = new Texture(Gdx.files.internal("assets/texture/bomberman2.jpg"));
-        // Load the background texture
+        spriteBatch = game.getSpriteBatch(); // Draw the background with the same batch as the stage
 
         Table table = new Table(); // Create a table for layout
         table.setFillParent(true); // Make the table fill the stage
@@ -65,7 +66,7 @@ public StartScreen(BomberQuestGame game) {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
                 try {
-                    MusicTrack.BUTTONSOUND.play();
+                    SoundEffect.BUTTONSOUND.play();
                     game.loadNewGame(); // Load a new game map and start the game
                 } catch (IOException e) {
                     throw new RuntimeException(e);
@@ -79,7 +80,7 @@ public void changed(ChangeEvent event, Actor actor) {
         exitButton.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                MusicTrack.BUTTONSOUND.play();
+                SoundEffect.BUTTONSOUND.play();
                 Gdx.app.exit(); // Exit the game
             }
         });
@@ -96,6 +97,7 @@ public void render(float deltaTime) {
         float frameTime = Math.min(deltaTime, 0.250f); // Cap frame time to 250ms to prevent spiral of death
         ScreenUtils.clear(Color.BLACK);
 
+        spriteBatch.setProjectionMatrix(backgroundProjection);
         spriteBatch.begin();
         spriteBatch.draw(backgroundTexture, 0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
         spriteBatch.end();
@@ -113,26 +115,30 @@ public void render(float deltaTime) {
     @Override
     public void resize(int width, int height) {
         stage.getViewport().update(width, height, true); // Update the stage viewport on resize
+        backgroundProjection.setToOrtho2D(0, 0, width, height);
     }
 
     /**
      * Disposes of assets and resources used by this screen.
-     * This includes the stage, SpriteBatch, and background texture.
+     * This includes the stage, and the background texture if the screen is still shown.
      */
     @Override
     public void dispose() {
         stage.dispose();
-        spriteBatch.dispose();
-        backgroundTexture.dispose();
+        releaseBackground();
     }
 
     /**
      * Called when this screen becomes the current screen for the game.
-     * Sets the input processor to the stage so it can handle user input.
+     * Sets the input processor to the stage so it can handle user input, and takes the background texture,
+     * which is loaded at startup and loaded again if the screen is shown after a game.
      */
     @Override
     public void show() {
         Gdx.input.setInputProcessor(stage);
+        if (backgroundTexture == null) {
+            backgroundTexture = Assets.acquire(Assets.START_BACKGROUND, Texture.class);
+        }
     }
 
     /**
@@ -151,9 +157,17 @@ public void resume() {
 
     /**
      * Called when this screen is no longer the current screen.
-     * Not used in this screen.
+     * The screen is kept for the next time, but the background texture is released, so it is not held while playing.
      */
     @Override
     public void hide() {
+        releaseBackground();
+    }
+
+    private void releaseBackground() {
+        if (backgroundTexture != null) {
+            Assets.release(Assets.START_BACKGROUND);
+            backgroundTexture = null;
+        }
     }
 }
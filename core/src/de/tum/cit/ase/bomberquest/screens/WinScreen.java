@@ -14,7 +14,7 @@
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import de.tum.cit.ase.bomberquest.gamemechanism.BomberQuestGame;
-import de.tum.cit.ase.bomberquest.audio.MusicTrack;
+import de.tum.cit.ase.bomberquest.audio.SoundEffect;
 
 /**
  * The WinScreen class is responsible for displaying the win screen of the game.
@@ -43,14 +43,24 @@ public WinScreen(BomberQuestGame game) {
         // Add a label as a title
         table.add(new Label("You Win!", game.getSkin(), "title")).padBottom(80).row();
 
+        // Create and add a button to restart the level
+        TextButton restartButton = new TextButton("Restart", game.getSkin());
+        table.add(restartButton).width(300).row();
+        restartButton.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                SoundEffect.BUTTONSOUND.play();
+                game.restartGame(); // Play the same map again from the start
+            }
+        });
+
         // Create and add a button to go to the main menu
         TextButton goToMenuButton = new TextButton("Go to Menu", game.getSkin());
         table.add(goToMenuButton).width(300).row();
         goToMenuButton.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                MusicTrack.BUTTONSOUND.play();
-                game.create();
+                SoundEffect.BUTTONSOUND.play();
                 game.goToStart(); // Go to the main menu screen when button is pressed
             }
         });
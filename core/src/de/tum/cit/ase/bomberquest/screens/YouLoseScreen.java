@@ -14,7 +14,7 @@
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import de.tum.cit.ase.bomberquest.gamemechanism.BomberQuestGame;
-import de.tum.cit.ase.bomberquest.audio.MusicTrack;
+import de.tum.cit.ase.bomberquest.audio.SoundEffect;
 
 /**
  * The MenuScreen class is responsible for displaying the main menu of the game.
@@ -30,9 +30,6 @@ public class YouLoseScreen implements Screen {
      * @param game The main game class, used to access global resources and methods.
      */
     public YouLoseScreen(BomberQuestGame game) {
-        MusicTrack.MENUMUSIC.stop();
-        MusicTrack.BACKGROUND.stop();
-        MusicTrack.GAMEOVERSOUND.play();
         var camera = new OrthographicCamera();
         camera.zoom = 1.5f; // Set camera zoom for a closer view
 
@@ -46,14 +43,24 @@ public YouLoseScreen(BomberQuestGame game) {
         // Add a label as a title
         table.add(new Label("You lose!", game.getSkin(), "title")).padBottom(80).row();
 
+        // Create and add a button to restart the level
+        TextButton restartButton = new TextButton("Restart", game.getSkin());
+        table.add(restartButton).width(300).row();
+        restartButton.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                SoundEffect.BUTTONSOUND.play();
+                game.restartGame(); // Play the same map again from the start
+            }
+        });
+
         // Create and add a button to go to the main menu
         TextButton goToMenuButton = new TextButton("Go to Menu", game.getSkin());
         table.add(goToMenuButton).width(300).row();
         goToMenuButton.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                MusicTrack.BUTTONSOUND.play();
-                game.create();
+                SoundEffect.BUTTONSOUND.play();
                 game.goToStart(); // Go to the main menu screen when button is pressed
             }
         });
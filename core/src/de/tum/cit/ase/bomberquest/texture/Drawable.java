@@ -33,5 +33,26 @@ public interface Drawable {
      * @return The Y coordinate of the drawable.
      */
     float getY();
+
+    /**
+     * Gets the X coordinate at which the drawable should be rendered.
+     * Moving objects interpolate between their last two simulated positions,
+     * so that motion stays smooth when the frame rate differs from the simulation rate.
+     * @param alpha How far the frame is between the previous (0) and the latest (1) simulation tick.
+     * @return The X coordinate to render the drawable at.
+     */
+    default float getRenderX(float alpha) {
+        return getX();
+    }
+
+    /**
+     * Gets the Y coordinate at which the drawable should be rendered.
+     * See {@link #getRenderX(float)}.
+     * @param alpha How far the frame is between the previous (0) and the latest (1) simulation tick.
+     * @return The Y coordinate to render the drawable at.
+     */
+    default float getRenderY(float alpha) {
+        return getY();
+    }
     
 }
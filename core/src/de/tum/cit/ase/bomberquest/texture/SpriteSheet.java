@@ -1,14 +1,16 @@
 package de.tum.cit.ase.bomberquest.texture;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import de.tum.cit.ase.bomberquest.gamemechanism.Assets;
 
 /**
  * Enumerates all spritesheets used in the game and provides helper methods for grabbing texture regions from them.
  * It is assumed that every spritesheet has some standard grid size which can be used for easier coordinate specification.
  * See the assets/texture folder for the actual texture files (plus some more samples which are not enumerated here).
  * Feel free to add your own spritesheets and use them in the game!
+ * The textures are loaded through {@link Assets}: the sheets the game uses are loaded in the background at startup,
+ * the others only if something takes a region from them.
  *
  * @see Texture a whole image
  * @see TextureRegion a part of an image
@@ -16,24 +18,27 @@
 public enum SpriteSheet {
     
     /** The character spritesheet, which has a grid size of 16x32. */
-    CHARACTER("character.png", 16, 32),
+    CHARACTER("character.png", 16, 32, true),
     /** The basic tiles spritesheet, which has a grid size of 16x16. */
-    BASIC_TILES("basictiles.png", 16, 16),
+    BASIC_TILES("basictiles.png", 16, 16, true),
 
-    ORIGINAL_BOMBERMAN("original-bomberman.png", 16, 16),
-    ROCK("rock.png",18,18),
-    SAND("sand.png",18,18),
-    STONE("stone.png",18,18),
-    MOBS("mobs.png",16,16);
+    ORIGINAL_BOMBERMAN("original-bomberman.png", 16, 16, true),
+    ROCK("rock.png",18,18, false),
+    SAND("sand.png",18,18, false),
+    STONE("stone.png",18,18, false),
+    MOBS("mobs.png",16,16, true);
 
     /**
      * The bomb spritesheet, which has a grid size of 16x16.
      */
 
 
-    private final Texture spritesheet;
+    private final String fileName;
     private final int width;
     private final int height;
+    private final boolean preloaded;
+    /** The texture, null until a region is taken from the sheet for the first time. */
+    private Texture spritesheet;
     
     /**
      * Constructor for each variant of this enum.
@@ -41,11 +46,31 @@ public enum SpriteSheet {
      * @param filename the filename of the spritesheet
      * @param width the width of a single grid cell
      * @param height the height of a single grid cell
+     * @param preloaded whether the game uses the sheet, so it is loaded at startup
      */
-    SpriteSheet(String filename, int width, int height) {
-        this.spritesheet = new Texture(Gdx.files.internal("texture/" + filename));
+    SpriteSheet(String filename, int width, int height, boolean preloaded) {
+        this.fileName = "texture/" + filename;
         this.width = width;
         this.height = height;
+        this.preloaded = preloaded;
+    }
+
+    /**
+     * Returns the file of the spritesheet, relative to the assets folder.
+     *
+     * @return the file name
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Returns whether the sheet is loaded at startup, see {@link Assets#queueStartupAssets()}.
+     *
+     * @return true if the game uses the sheet
+     */
+    public boolean isPreloaded() {
+        return preloaded;
     }
     
     /**
@@ -60,6 +85,10 @@ public enum SpriteSheet {
      * @return the texture
      */
     public TextureRegion at(int row, int column) {
+        if (spritesheet == null) {
+            // The regions of the sheet are kept in constants, so the texture is never released
+            spritesheet = Assets.acquire(fileName, Texture.class);
+        }
         return new TextureRegion(
                 spritesheet,
                 (column - 1) * this.width,
@@ -4,8 +4,12 @@
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
 import de.tum.cit.ase.bomberquest.gamemechanism.BomberQuestGame;
+import de.tum.cit.ase.bomberquest.gamemechanism.InputRecording;
 import games.spooky.gdx.nativefilechooser.desktop.DesktopFileChooser;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
 /**
  * The DesktopLauncher class is the entry point for the desktop version of the Bomber Quest game.
  * It sets up the game window and launches the game using LibGDX framework.
@@ -14,7 +18,10 @@ public class DesktopLauncher {
 	/**
 	 * The main method sets up the configuration for the game window and starts the application.
 	 *
-	 * @param arg Command line arguments (not used in this application)
+	 * @param arg Command line arguments. {@code --pixel-perfect} enables the pixel-perfect rendering mode,
+	 *            {@code --tick-rate=N} sets the number of simulation ticks per second (default 60),
+	 *            {@code --replay=FILE} replays a recorded game at normal speed,
+	 *            {@code --threaded-simulation} simulates the map on its own thread.
 	 */
 	public static void main(String[] arg) {
 		// Configuration for the game window
@@ -29,9 +36,29 @@ public static void main(String[] arg) {
 				Math.round(0.8f * displayMode.height)
 		);
 		config.useVsync(true); // Enable vertical sync
-		config.setForegroundFPS(60); // Set the foreground frames per second
+		// The simulation runs at its own tick rate and frames interpolate between ticks, so the frame rate
+		// follows the monitor. The cap only applies if the driver ignores vsync.
+		config.setForegroundFPS(displayMode.refreshRate);
+
+		BomberQuestGame game = new BomberQuestGame(new DesktopFileChooser());
+		for (String argument : arg) {
+			if (argument.equals("--pixel-perfect")) {
+				game.setPixelPerfect(true);
+			} else if (argument.startsWith("--tick-rate=")) {
+				game.setSimulationRate(Integer.parseInt(argument.substring("--tick-rate=".length())));
+			} else if (argument.equals("--threaded-simulation")) {
+				game.setThreadedSimulation(true);
+			} else if (argument.startsWith("--replay=")) {
+				String file = argument.substring("--replay=".length());
+				try {
+					game.setReplay(InputRecording.read(Paths.get(file)));
+				} catch (IOException e) {
+					throw new RuntimeException("Could not read the recording " + file, e);
+				}
+			}
+		}
 
 		// Launch the game
-		new Lwjgl3Application(new BomberQuestGame(new DesktopFileChooser()), config);
+		new Lwjgl3Application(game, config);
 	}
 }
@@ -0,0 +1,111 @@
+package de.tum.cit.ase.bomberquest;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.GL20;
+import de.tum.cit.ase.bomberquest.gamemechanism.InputRecording;
+import de.tum.cit.ase.bomberquest.gamemechanism.InputReplay;
+import de.tum.cit.ase.bomberquest.gamemechanism.MapLoader;
+import de.tum.cit.ase.bomberquest.map.GameMap;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Paths;
+
+/**
+ * Replays a recorded game without a window, as fast as the simulation runs.
+ * This is meant for profiling and regression tests: the final state is compared with the recording,
+ * and the exit code is 0 if the replay went exactly like the recorded game, 1 if it did not and 2 on errors.
+ */
+public class HeadlessReplay {
+
+	/**
+	 * @param arg The recording to replay, see {@link InputRecording}.
+	 */
+	public static void main(String[] arg) {
+		if (arg.length != 1) {
+			System.err.println("Usage: HeadlessReplay recording.bqr");
+			System.exit(2);
+		}
+		InputRecording recording;
+		try {
+			recording = InputRecording.read(Paths.get(arg[0]));
+		} catch (IOException e) {
+			System.err.println(e.getMessage());
+			System.exit(2);
+			return;
+		}
+
+		HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+		new HeadlessApplication(new ApplicationAdapter() {
+			@Override
+			public void create() {
+				// Nothing is drawn, but the game objects load their textures, so every OpenGL call does nothing
+				Gdx.gl = Gdx.gl20 = (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[]{GL20.class},
+						(proxy, method, arguments) -> defaultValue(method.getReturnType()));
+				int exitCode;
+				try {
+					exitCode = replay(recording) ? 0 : 1;
+				} catch (RuntimeException e) {
+					e.printStackTrace();
+					exitCode = 2;
+				}
+				System.exit(exitCode);
+			}
+		}, config);
+	}
+
+	/**
+	 * Simulates the recorded game tick by tick and reports how it went.
+	 *
+	 * @return true if the outcome and the final state match the recording
+	 */
+	private static boolean replay(InputRecording recording) {
+		MapLoader mapLoader = new MapLoader();
+		mapLoader.setSeed(recording.getSeed());
+		mapLoader.loadMap(recording.getMapPath());
+		if (!recording.getMapHash().equals(mapLoader.getMapHash())) {
+			System.err.println("The map file has changed since the game was recorded: " + recording.getMapPath());
+		}
+
+		GameMap map = new GameMap(null);
+		map.setSource(recording.getMapPath(), mapLoader.getMapHash(), recording.getSeed());
+		map.setSimulationRate(recording.getSimulationRate());
+		map.loadTheMap(mapLoader.getGrid());
+		InputReplay replay = new InputReplay(recording);
+		map.setCommandSource(replay);
+
+		long start = System.nanoTime();
+		while (!replay.isFinished() && map.getOutcome() == GameMap.Outcome.RUNNING) {
+			map.advanceTick();
+		}
+		long elapsedNanos = System.nanoTime() - start;
+
+		long ticks = map.getTickCount();
+		System.out.printf("Replayed %d ticks (%.1f s of game time) in %.1f ms, %.0f ticks per second%n",
+				ticks, ticks * map.getTimeStep(), elapsedNanos / 1e6, ticks / (elapsedNanos / 1e9));
+		System.out.println("Outcome: " + map.getOutcome() + ", recorded: " + recording.getOutcome());
+		boolean matches = map.getOutcome() == recording.getOutcome()
+				&& map.getStateChecksum() == recording.getStateChecksum();
+		System.out.println(matches ? "The replay matches the recording."
+				: "The replay differs from the recording: checksum " + map.getStateChecksum()
+				+ ", recorded " + recording.getStateChecksum());
+		map.dispose();
+		return matches;
+	}
+
+	private static Object defaultValue(Class<?> type) {
+		if (type == boolean.class) {
+			return false;
+		} else if (type == int.class) {
+			return 0;
+		} else if (type == float.class) {
+			return 0f;
+		} else if (type == long.class) {
+			return 0L;
+		}
+		return null;
+	}
+}